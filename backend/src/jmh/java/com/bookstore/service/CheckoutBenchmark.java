@@ -0,0 +1,136 @@
+// CheckoutBenchmark.java
+package com.bookstore.service;
+
+import com.bookstore.BookManagementApplication;
+import com.bookstore.dto.OrderRequest;
+import com.bookstore.entity.Book;
+import com.bookstore.entity.Order;
+import com.bookstore.entity.User;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checkout throughput at 1, 2, 4 and as many threads as there are cores, through the
+ * whole order path on embedded Derby. With {@code disjoint} books every thread buys its
+ * own book, so throughput should grow with threads up to the core count; with
+ * {@code overlapping} books every thread buys the same two, which serialise on their
+ * stock rows, so it should stay roughly flat.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CheckoutBenchmark {
+
+    private static final int BOOKS = 256;
+    private static final int STOCK = 1_000_000_000;
+
+    @Param({"disjoint", "overlapping"})
+    public String books;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private final List<Book> catalog = new ArrayList<>();
+    private final List<User> customers = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        // Arguments rather than default properties, so they win over the test application.yml
+        context = new SpringApplicationBuilder(BookManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:derby:memory:checkout-bench;create=true",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.sql.init.mode=never",
+                        "--jwt.secret=benchmark-secret-that-is-long-enough-for-hs256-keys",
+                        "--jwt.expiration=3600000",
+                        "--logging.level.root=WARN");
+        orderService = context.getBean(OrderService.class);
+        BookRepository bookRepository = context.getBean(BookRepository.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        for (int i = 0; i < BOOKS; i++) {
+            catalog.add(bookRepository.save(new Book("Bench " + i, "Author", new BigDecimal("9.99"),
+                    "Benchmark book", "Fiction", STOCK)));
+            User customer = new User("bench-" + i, "bench-" + i + "@example.com", "password", "1 Bench Street", 30);
+            customer.setCustomerId("CUST-BENCH-" + i);
+            customers.add(userRepository.save(customer));
+        }
+        // Derby can fail the very first concurrent identity allocations of a table after
+        // boot; one checkout up front creates the first order and rollup rows
+        orderService.createOrder(customers.get(0),
+                List.of(new OrderRequest.OrderItemRequest(catalog.get(BOOKS - 1).getId(), 1)), "1 Bench Street");
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Shopper {
+        User customer;
+        List<OrderRequest.OrderItemRequest> cart;
+
+        @Setup(Level.Trial)
+        public void pickCart(CheckoutBenchmark benchmark, ThreadParams thread) {
+            int index = thread.getThreadIndex();
+            customer = benchmark.customers.get(index % BOOKS);
+            if (benchmark.books.equals("disjoint")) {
+                cart = List.of(new OrderRequest.OrderItemRequest(benchmark.catalog.get(index % BOOKS).getId(), 1));
+            } else {
+                // Alternate line order so the engine's own lock ordering is exercised
+                Long first = benchmark.catalog.get(0).getId();
+                Long second = benchmark.catalog.get(1).getId();
+                cart = index % 2 == 0
+                        ? List.of(new OrderRequest.OrderItemRequest(first, 1), new OrderRequest.OrderItemRequest(second, 1))
+                        : List.of(new OrderRequest.OrderItemRequest(second, 1), new OrderRequest.OrderItemRequest(first, 1));
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Order threads1(Shopper shopper) {
+        return checkout(shopper);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public Order threads2(Shopper shopper) {
+        return checkout(shopper);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Order threads4(Shopper shopper) {
+        return checkout(shopper);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Order threadsPerCore(Shopper shopper) {
+        return checkout(shopper);
+    }
+
+    private Order checkout(Shopper shopper) {
+        return orderService.createOrder(shopper.customer, shopper.cart, "1 Bench Street");
+    }
+}
@@ -0,0 +1,211 @@
+// BookChunks.java
+package com.bookstore.catalog;
+
+import com.bookstore.entity.Book;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * Immutable list of books sorted by id, held in chunks of a few hundred books. A change
+ * copies the chunks it touches and the chunk index, and shares every other chunk with
+ * the list it was derived from, so patching one book costs a chunk rather than the
+ * whole catalog. Lookups by id binary-search the index and then the chunk.
+ */
+final class BookChunks {
+
+    static final int CHUNK_SIZE = 256;
+
+    static final BookChunks EMPTY = new BookChunks(new Book[0][]);
+
+    private static final Comparator<Book> BY_ID = Comparator.comparing(Book::getId);
+
+    // No chunk is empty; ends[i] is the number of books in chunks 0 to i
+    private final Book[][] chunks;
+    private final int[] ends;
+    private final List<Book> view = new View();
+
+    private BookChunks(Book[][] chunks) {
+        this.chunks = chunks;
+        this.ends = new int[chunks.length];
+        int total = 0;
+        for (int i = 0; i < chunks.length; i++) {
+            total += chunks[i].length;
+            ends[i] = total;
+        }
+    }
+
+    // books must already be sorted by id, without duplicates
+    static BookChunks of(List<Book> books) {
+        Book[][] chunks = new Book[(books.size() + CHUNK_SIZE - 1) / CHUNK_SIZE][];
+        for (int i = 0; i < chunks.length; i++) {
+            int from = i * CHUNK_SIZE;
+            chunks[i] = books.subList(from, Math.min(from + CHUNK_SIZE, books.size())).toArray(new Book[0]);
+        }
+        return new BookChunks(chunks);
+    }
+
+    int size() {
+        return ends.length == 0 ? 0 : ends[ends.length - 1];
+    }
+
+    boolean isEmpty() {
+        return chunks.length == 0;
+    }
+
+    /** Read-only view in id order. */
+    List<Book> asList() {
+        return view;
+    }
+
+    Book get(long id) {
+        int chunk = chunkFor(id);
+        if (chunk < 0) {
+            return null;
+        }
+        int index = indexIn(chunks[chunk], id);
+        return index >= 0 ? chunks[chunk][index] : null;
+    }
+
+    /**
+     * Derives a list with the upserts added or replacing the books with their ids and
+     * the removals dropped. Ids are routed to the chunk whose range holds them; a chunk
+     * that grows past twice the chunk size is split.
+     */
+    BookChunks with(Collection<Book> upserts, Set<Long> removals) {
+        if (upserts.isEmpty() && removals.isEmpty()) {
+            return this;
+        }
+        List<Book> incoming = new ArrayList<>(upserts);
+        incoming.sort(BY_ID);
+        if (chunks.length == 0) {
+            return of(incoming);
+        }
+        Set<Long> replaced = new HashSet<>();
+        Map<Integer, List<Book>> incomingByChunk = new HashMap<>();
+        boolean[] touched = new boolean[chunks.length];
+        for (Book book : incoming) {
+            // Ids below the first chunk's range go into the first chunk
+            int chunk = Math.max(chunkFor(book.getId()), 0);
+            incomingByChunk.computeIfAbsent(chunk, c -> new ArrayList<>()).add(book);
+            touched[chunk] = true;
+            replaced.add(book.getId());
+        }
+        for (Long id : removals) {
+            int chunk = chunkFor(id);
+            if (chunk >= 0 && indexIn(chunks[chunk], id) >= 0) {
+                touched[chunk] = true;
+            }
+        }
+
+        List<Book[]> next = new ArrayList<>(chunks.length + 1);
+        for (int i = 0; i < chunks.length; i++) {
+            if (!touched[i]) {
+                next.add(chunks[i]);
+                continue;
+            }
+            Book[] merged = merge(chunks[i], incomingByChunk.getOrDefault(i, List.of()), replaced, removals);
+            if (merged.length <= 2 * CHUNK_SIZE) {
+                if (merged.length > 0) {
+                    next.add(merged);
+                }
+            } else {
+                for (int from = 0; from < merged.length; from += CHUNK_SIZE) {
+                    next.add(Arrays.copyOfRange(merged, from, Math.min(from + CHUNK_SIZE, merged.length)));
+                }
+            }
+        }
+        return new BookChunks(next.toArray(new Book[0][]));
+    }
+
+    // The shared chunk array at this position; for tests checking what a change copied
+    Book[] chunk(int index) {
+        return chunks[index];
+    }
+
+    int chunkCount() {
+        return chunks.length;
+    }
+
+    private static Book[] merge(Book[] current, List<Book> incoming, Set<Long> replaced, Set<Long> removals) {
+        List<Book> merged = new ArrayList<>(current.length + incoming.size());
+        int i = 0;
+        int j = 0;
+        while (i < current.length || j < incoming.size()) {
+            Book existing = i < current.length ? current[i] : null;
+            Book replacement = j < incoming.size() ? incoming.get(j) : null;
+            if (existing != null && (removals.contains(existing.getId()) || replaced.contains(existing.getId()))) {
+                i++;
+            } else if (replacement == null || (existing != null && existing.getId() < replacement.getId())) {
+                merged.add(existing);
+                i++;
+            } else {
+                merged.add(replacement);
+                j++;
+            }
+        }
+        return merged.toArray(new Book[0]);
+    }
+
+    // The last chunk starting at or below the id, or -1 if the id is below every chunk
+    private int chunkFor(long id) {
+        int low = 0;
+        int high = chunks.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (chunks[mid][0].getId() <= id) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    private static int indexIn(Book[] chunk, long id) {
+        int low = 0;
+        int high = chunk.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = chunk[mid].getId();
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private final class View extends AbstractList<Book> implements RandomAccess {
+
+        @Override
+        public Book get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+            }
+            int chunk = Arrays.binarySearch(ends, index + 1);
+            chunk = chunk >= 0 ? chunk : -chunk - 1;
+            int start = chunk == 0 ? 0 : ends[chunk - 1];
+            return chunks[chunk][index - start];
+        }
+
+        @Override
+        public int size() {
+            return BookChunks.this.size();
+        }
+    }
+}
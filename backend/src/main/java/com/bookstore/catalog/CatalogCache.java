@@ -0,0 +1,198 @@
+// CatalogCache.java
+package com.bookstore.catalog;
+
+import com.bookstore.entity.Book;
+import com.bookstore.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache of the catalog. Reads take the current {@link CatalogSnapshot}
+ * without locking. Every write path calls {@link #refresh} with the ids it touched
+ * after its transaction commits; the rows are re-read and patched into a new
+ * snapshot with the next version number.
+ *
+ * Re-reads run outside the lock, so two refreshes of the same book can finish out
+ * of order. Each read takes a ticket before it queries, and a row is only installed
+ * if no read that started later has already installed that book. A read that started
+ * later saw every commit the earlier one saw, so the cache never moves backwards.
+ * A book's ticket is only kept while a read that started before it is still running.
+ */
+@Component
+public class CatalogCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogCache.class);
+
+    // Derby caps the size of an IN list; refresh larger id sets in slices
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private volatile CatalogSnapshot current = CatalogSnapshot.empty();
+    private volatile boolean loaded;
+
+    private final AtomicLong versions = new AtomicLong();
+
+    // Guarded by this: the last ticket handed out, tickets of reads still running, last
+    // ticket installed per book, and the ticket of the last full load
+    private long lastTicket;
+    private final TreeSet<Long> runningReads = new TreeSet<>();
+    private final Map<Long, Long> installedTickets = new HashMap<>();
+    private long fullLoadTicket;
+
+    public CatalogSnapshot snapshot() {
+        return current;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public long version() {
+        return current.getVersion();
+    }
+
+    /**
+     * Replaces the cache with the full table and returns the rows read, so callers
+     * building other in-memory structures at startup don't have to read them again.
+     */
+    public List<Book> reloadAll() {
+        long ticket = startRead();
+        List<Book> rows;
+        try {
+            rows = bookRepository.findAll();
+            if (!install(ticket, rows)) {
+                return rows;
+            }
+        } finally {
+            finishRead(ticket);
+        }
+        logger.info("Catalog cache loaded with {} books at version {}", current.size(), current.getVersion());
+        return rows;
+    }
+
+    private synchronized boolean install(long ticket, List<Book> rows) {
+        if (ticket < fullLoadTicket) {
+            return false;
+        }
+        // Keep books that a newer refresh already installed over what this read saw
+        Map<Long, Book> merged = new HashMap<>(rows.size() * 2);
+        for (Book row : rows) {
+            merged.put(row.getId(), copyOf(row));
+        }
+        for (Map.Entry<Long, Long> installed : installedTickets.entrySet()) {
+            if (installed.getValue() > ticket) {
+                Book newer = current.getBook(installed.getKey());
+                if (newer != null) {
+                    merged.put(installed.getKey(), newer);
+                } else {
+                    merged.remove(installed.getKey());
+                }
+            }
+        }
+        installedTickets.values().removeIf(t -> t <= ticket);
+        fullLoadTicket = ticket;
+
+        current = CatalogSnapshot.of(versions.incrementAndGet(), merged.values());
+        loaded = true;
+        return true;
+    }
+
+    /**
+     * Re-reads the given books and patches them into a new snapshot. Ids that no
+     * longer exist are removed. Call this after the writing transaction has committed.
+     */
+    public void refresh(Collection<Long> bookIds) {
+        Set<Long> ids = new LinkedHashSet<>(bookIds);
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        long ticket = startRead();
+        try {
+            List<Book> rows = new ArrayList<>(ids.size());
+            List<Long> slice = new ArrayList<>(Math.min(ids.size(), MAX_IDS_PER_QUERY));
+            for (Long id : ids) {
+                slice.add(id);
+                if (slice.size() == MAX_IDS_PER_QUERY) {
+                    rows.addAll(bookRepository.findAllById(slice));
+                    slice.clear();
+                }
+            }
+            if (!slice.isEmpty()) {
+                rows.addAll(bookRepository.findAllById(slice));
+            }
+            patch(ticket, ids, rows);
+        } finally {
+            finishRead(ticket);
+        }
+    }
+
+    private synchronized void patch(long ticket, Set<Long> ids, List<Book> rows) {
+        if (ticket < fullLoadTicket) {
+            return;
+        }
+        Map<Long, Book> upserts = new HashMap<>();
+        for (Book row : rows) {
+            upserts.put(row.getId(), copyOf(row));
+        }
+        Set<Long> removals = new HashSet<>();
+        for (Long id : ids) {
+            if (installedTickets.getOrDefault(id, fullLoadTicket) > ticket) {
+                upserts.remove(id);
+                continue;
+            }
+            installedTickets.put(id, ticket);
+            if (!upserts.containsKey(id)) {
+                removals.add(id);
+            }
+        }
+        if (upserts.isEmpty() && removals.isEmpty()) {
+            return;
+        }
+        current = current.withChanges(versions.incrementAndGet(), upserts, removals);
+    }
+
+    // Tickets are handed out under the lock so a read is registered before any newer
+    // one can finish and prune past it
+    private synchronized long startRead() {
+        long ticket = ++lastTicket;
+        runningReads.add(ticket);
+        return ticket;
+    }
+
+    // A book's ticket only decides against reads that started before it; once every
+    // running read is newer, the entry can go and the book falls back to fullLoadTicket
+    private synchronized void finishRead(long ticket) {
+        runningReads.remove(ticket);
+        long oldestRunning = runningReads.isEmpty() ? lastTicket + 1 : runningReads.first();
+        installedTickets.values().removeIf(t -> t < oldestRunning);
+    }
+
+    synchronized int trackedBooks() {
+        return installedTickets.size();
+    }
+
+    // Cached books are detached copies so no persistence context can mutate them
+    private static Book copyOf(Book book) {
+        Book copy = new Book(book.getTitle(), book.getAuthor(), book.getPrice(),
+                book.getDescription(), book.getCategory(), book.getStock());
+        copy.setId(book.getId());
+        return copy;
+    }
+}
@@ -0,0 +1,151 @@
+// CatalogSnapshot.java
+package com.bookstore.catalog;
+
+import com.bookstore.entity.Book;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable view of the whole catalog at one version. Readers share a snapshot
+ * without locking; writers derive a new one and swap it in. Books are held in
+ * {@link BookChunks}, so a derived snapshot shares everything a change did not touch.
+ */
+public final class CatalogSnapshot {
+
+    private static final Comparator<Book> BY_ID = Comparator.comparing(Book::getId);
+
+    private final long version;
+    private final BookChunks books;
+    private final Map<String, BookChunks> booksByCategory;
+    private final List<String> categories;
+    private final Map<String, CategoryFacet> facets;
+
+    private CatalogSnapshot(long version, BookChunks books, Map<String, BookChunks> booksByCategory,
+                            Map<String, CategoryFacet> facets) {
+        this.version = version;
+        this.books = books;
+        this.booksByCategory = Collections.unmodifiableMap(booksByCategory);
+        this.categories = List.copyOf(booksByCategory.keySet());
+        this.facets = Collections.unmodifiableMap(facets);
+    }
+
+    public static CatalogSnapshot empty() {
+        return new CatalogSnapshot(0, BookChunks.EMPTY, new TreeMap<>(), new TreeMap<>());
+    }
+
+    static CatalogSnapshot of(long version, Collection<Book> catalog) {
+        Map<Long, Book> byId = new HashMap<>(catalog.size() * 2);
+        for (Book book : catalog) {
+            byId.put(book.getId(), book);
+        }
+        List<Book> sorted = new ArrayList<>(byId.values());
+        sorted.sort(BY_ID);
+
+        Map<String, List<Book>> members = new TreeMap<>();
+        for (Book book : sorted) {
+            if (book.getCategory() != null) {
+                members.computeIfAbsent(book.getCategory(), k -> new ArrayList<>()).add(book);
+            }
+        }
+        Map<String, BookChunks> byCategory = new TreeMap<>();
+        Map<String, CategoryFacet> facets = new TreeMap<>();
+        members.forEach((category, list) -> {
+            byCategory.put(category, BookChunks.of(list));
+            facets.put(category, CategoryFacet.of(category, list));
+        });
+        return new CatalogSnapshot(version, BookChunks.of(sorted), byCategory, facets);
+    }
+
+    /**
+     * Derives the next snapshot. Only the chunks holding changed books are copied, in
+     * the full list and in the categories the change touches; facets are adjusted by
+     * the books that left and joined each category rather than recounted.
+     */
+    CatalogSnapshot withChanges(long newVersion, Map<Long, Book> upserts, Set<Long> removals) {
+        // Previous versions of changed books leave their category, new versions join theirs
+        Map<String, List<Book>> leaving = new HashMap<>();
+        Map<String, List<Book>> arriving = new HashMap<>();
+        for (Long id : removals) {
+            Book previous = books.get(id);
+            if (previous != null && previous.getCategory() != null) {
+                leaving.computeIfAbsent(previous.getCategory(), k -> new ArrayList<>()).add(previous);
+            }
+        }
+        for (Book book : upserts.values()) {
+            Book previous = books.get(book.getId());
+            if (previous != null && previous.getCategory() != null) {
+                leaving.computeIfAbsent(previous.getCategory(), k -> new ArrayList<>()).add(previous);
+            }
+            if (book.getCategory() != null) {
+                arriving.computeIfAbsent(book.getCategory(), k -> new ArrayList<>()).add(book);
+            }
+        }
+
+        Map<String, BookChunks> byCategory = new TreeMap<>(booksByCategory);
+        Map<String, CategoryFacet> newFacets = new TreeMap<>(facets);
+        Set<String> touchedCategories = new HashSet<>(leaving.keySet());
+        touchedCategories.addAll(arriving.keySet());
+        for (String category : touchedCategories) {
+            List<Book> left = leaving.getOrDefault(category, List.of());
+            List<Book> joined = arriving.getOrDefault(category, List.of());
+            Set<Long> dropped = new HashSet<>();
+            for (Book book : left) {
+                dropped.add(book.getId());
+            }
+            for (Book book : joined) {
+                dropped.remove(book.getId());
+            }
+
+            BookChunks members = booksByCategory.getOrDefault(category, BookChunks.EMPTY).with(joined, dropped);
+            CategoryFacet facet = facets.get(category);
+            if (members.isEmpty()) {
+                byCategory.remove(category);
+                newFacets.remove(category);
+            } else {
+                byCategory.put(category, members);
+                newFacets.put(category, facet == null
+                        ? CategoryFacet.of(category, members.asList())
+                        : facet.updated(left, joined, members.asList()));
+            }
+        }
+
+        return new CatalogSnapshot(newVersion, books.with(upserts.values(), removals), byCategory, newFacets);
+    }
+
+    public long getVersion() { return version; }
+
+    public int size() { return books.size(); }
+
+    public List<Book> getBooks() { return books.asList(); }
+
+    public Book getBook(Long id) { return id == null ? null : books.get(id); }
+
+    public List<Book> getBooksByCategory(String category) {
+        BookChunks members = booksByCategory.get(category);
+        return members == null ? List.of() : members.asList();
+    }
+
+    public List<String> getCategories() { return categories; }
+
+    public List<CategoryFacet> getCategoryFacets() { return List.copyOf(facets.values()); }
+
+    public CategoryFacet getCategoryFacet(String category) { return facets.get(category); }
+
+    // Facets are rebuilt only for the categories a change touches, so this stays cheap
+    public long getLowStockCount() {
+        long total = 0;
+        for (CategoryFacet facet : facets.values()) {
+            total += facet.getLowStockCount();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,107 @@
+// CategoryFacet.java
+package com.bookstore.catalog;
+
+import com.bookstore.entity.Book;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Per-category entry of the facet index: the sorted ids of its books plus the
+ * counts the storefront sidebar shows.
+ */
+public final class CategoryFacet {
+
+    // Books with less stock than this count as low on the admin dashboard
+    public static final int LOW_STOCK_THRESHOLD = 10;
+
+    private final String category;
+    private final long[] bookIds;
+    private final long bookCount;
+    private final long inStockCount;
+    private final long lowStockCount;
+
+    public CategoryFacet(String category, long[] bookIds, long bookCount, long inStockCount) {
+        this(category, bookIds, bookCount, inStockCount, 0);
+    }
+
+    public CategoryFacet(String category, long[] bookIds, long bookCount, long inStockCount, long lowStockCount) {
+        this.category = category;
+        this.bookIds = bookIds;
+        this.bookCount = bookCount;
+        this.inStockCount = inStockCount;
+        this.lowStockCount = lowStockCount;
+    }
+
+    // books must already be sorted by id
+    static CategoryFacet of(String category, List<Book> books) {
+        long[] ids = new long[books.size()];
+        long inStock = 0;
+        long lowStock = 0;
+        for (int i = 0; i < ids.length; i++) {
+            Book book = books.get(i);
+            ids[i] = book.getId();
+            inStock += inStock(book);
+            lowStock += lowStock(book);
+        }
+        return new CategoryFacet(category, ids, ids.length, inStock, lowStock);
+    }
+
+    /**
+     * The facet after {@code leaving} (previous versions of this category's books) were
+     * replaced by {@code arriving}, with {@code books} the category's books afterwards.
+     * Counts move by the difference; the id list is only rebuilt when books joined or
+     * left, so a stock change costs nothing per book in the category.
+     */
+    CategoryFacet updated(Collection<Book> leaving, Collection<Book> arriving, List<Book> books) {
+        long inStock = inStockCount;
+        long lowStock = lowStockCount;
+        Set<Long> leavingIds = new HashSet<>();
+        for (Book book : leaving) {
+            leavingIds.add(book.getId());
+            inStock -= inStock(book);
+            lowStock -= lowStock(book);
+        }
+        Set<Long> arrivingIds = new HashSet<>();
+        for (Book book : arriving) {
+            arrivingIds.add(book.getId());
+            inStock += inStock(book);
+            lowStock += lowStock(book);
+        }
+        if (!leavingIds.equals(arrivingIds)) {
+            return new CategoryFacet(category, idsOf(books), books.size(), inStock, lowStock);
+        }
+        return new CategoryFacet(category, bookIds, books.size(), inStock, lowStock);
+    }
+
+    private static long[] idsOf(List<Book> books) {
+        long[] ids = new long[books.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = books.get(i).getId();
+        }
+        return ids;
+    }
+
+    private static int inStock(Book book) {
+        return book.getStock() != null && book.getStock() > 0 ? 1 : 0;
+    }
+
+    private static int lowStock(Book book) {
+        return book.getStock() == null || book.getStock() < LOW_STOCK_THRESHOLD ? 1 : 0;
+    }
+
+    public String getCategory() { return category; }
+
+    public long getBookCount() { return bookCount; }
+
+    public long getInStockCount() { return inStockCount; }
+
+    @JsonIgnore
+    public long getLowStockCount() { return lowStockCount; }
+
+    @JsonIgnore
+    public long[] getBookIds() { return bookIds.clone(); }
+}
@@ -0,0 +1,137 @@
+// AdminController.java
+package com.bookstore.controller;
+
+import com.bookstore.journal.OrderEvent;
+import com.bookstore.journal.OrderJournal;
+import com.bookstore.rollup.SalesBackfillJob;
+import com.bookstore.rollup.SalesRollupBackfill;
+import com.bookstore.rollup.SalesRollupService;
+import com.bookstore.service.AdminStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+@CrossOrigin(origins = "http://localhost:4200")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminController {
+
+    private static final int MAX_EVENTS_PER_READ = 1000;
+
+    @Autowired
+    private AdminStatsService adminStatsService;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private SalesRollupBackfill salesRollupBackfill;
+
+    @Autowired
+    private OrderJournal orderJournal;
+
+    // Served from in-memory counters; the dashboard no longer downloads every row to count them
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(adminStatsService.getStats());
+    }
+
+    // Sales reports read only the daily rollups; ranges are inclusive and default to the last 30 days
+    @GetMapping("/sales/daily")
+    public ResponseEntity<?> getDailySales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(salesRollupService.getDailyTotals(from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/sales/categories")
+    public ResponseEntity<?> getCategorySales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String category) {
+        try {
+            return ResponseEntity.ok(salesRollupService.getCategorySales(from, to, category));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/sales/books/top")
+    public ResponseEntity<?> getTopBooks(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(salesRollupService.getTopBooks(from, to, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/sales/books/{bookId}")
+    public ResponseEntity<?> getBookSales(
+            @PathVariable Long bookId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(salesRollupService.getBookSales(bookId, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Rebuilds the rollups from order history in the background; poll GET for progress
+    @PostMapping("/sales/backfill")
+    public ResponseEntity<?> startSalesBackfill(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(salesRollupBackfill.start(from, to));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/sales/backfill")
+    public ResponseEntity<SalesBackfillJob> getSalesBackfill() {
+        return salesRollupBackfill.getCurrentJob()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Replays the order journal for consumers outside the application: pass the last
+    // sequence handled as "after" to continue where the previous read stopped. When
+    // "after" is below firstSequence - 1, the events in between are no longer retained.
+    @GetMapping("/order-events")
+    public ResponseEntity<?> getOrderEvents(@RequestParam(defaultValue = "0") long after,
+                                            @RequestParam(defaultValue = "100") int limit) {
+        if (!orderJournal.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Order journal is disabled");
+        }
+        if (after < 0 || limit < 1 || limit > MAX_EVENTS_PER_READ) {
+            return ResponseEntity.badRequest().body("after must not be negative and limit must be between 1 and " + MAX_EVENTS_PER_READ);
+        }
+        List<OrderEvent> events = orderJournal.read(after, limit);
+        Map<String, Object> response = new HashMap<>();
+        response.put("events", events);
+        response.put("nextAfter", events.isEmpty() ? after : events.get(events.size() - 1).getSequence());
+        response.put("firstSequence", orderJournal.getFirstSequence());
+        response.put("lastSequence", orderJournal.getLastSequence());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -7,6 +7,9 @@ import com.bookstore.dto.AuthResponse;
 import com.bookstore.entity.User;
 import com.bookstore.service.UserService;
 import com.bookstore.security.JwtUtil;
+import com.bookstore.security.TokenDenylist;
+import com.bookstore.security.TokenVerifier;
+import io.jsonwebtoken.Claims;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,6 +23,8 @@ import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "http://localhost:4200")
@@ -37,6 +42,12 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
     
+    @Autowired
+    private TokenDenylist tokenDenylist;
+    
+    @Autowired
+    private TokenVerifier tokenVerifier;
+    
     @PostMapping("/register")
     public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request) {
         try {
@@ -82,7 +93,7 @@ public class AuthController {
                     .orElseThrow(() -> new RuntimeException("User not found after authentication"));
             
             // Generate JWT token
-            String token = jwtUtil.generateToken(user.getUsername());
+            String token = jwtUtil.generateToken(user);
             
             logger.info("Login successful for user: {}", user.getUsername());
             return ResponseEntity.ok(new AuthResponse(
@@ -112,25 +123,38 @@ public class AuthController {
             
             String token = authHeader.substring(7);
             
-            if (jwtUtil.validateToken(token)) {
-                String username = jwtUtil.getUsernameFromToken(token);
-                User user = userService.findByUsername(username)
-                        .orElseThrow(() -> new RuntimeException("User not found"));
-                
-                logger.debug("Token validation successful for user: {}", username);
+            // Same checks as an authenticated request: signature, expiry, revocation, token version
+            TokenVerifier.VerifiedToken verified = tokenVerifier.verify(token);
+            if (verified != null) {
+                logger.debug("Token validation successful for user: {}", verified.getUsername());
                 return ResponseEntity.ok(new AuthResponse(
                     "Token is valid",
                     token,
-                    user.getUsername(),
-                    user.getRole().toString()
+                    verified.getUsername(),
+                    verified.getRole()
                 ));
             } else {
                 logger.warn("Token validation failed");
-                return ResponseEntity.status(401).body("Token is invalid or expired");
+                return ResponseEntity.status(401).body("Token is invalid, expired or revoked");
             }
         } catch (Exception e) {
             logger.error("Token validation error: {}", e.getMessage());
             return ResponseEntity.status(401).body("Token validation failed: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+    
+    // Revokes the presented token until it expires; other sessions of the user stay signed in
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.badRequest().body("Invalid authorization header");
+        }
+        
+        Claims claims = jwtUtil.parseToken(authHeader.substring(7));
+        if (claims != null) {
+            tokenDenylist.revoke(claims.getId(), claims.getExpiration());
+            logger.info("Logout for user: {}", claims.getSubject());
+        }
+        return ResponseEntity.ok(Map.of("message", "Logged out"));
+    }
+}
@@ -1,15 +1,26 @@
 // BookController.java
 package com.bookstore.controller;
 
+import com.bookstore.dto.BookSearchResult;
+import com.bookstore.dto.BookSuggestion;
+import com.bookstore.dto.BookSummary;
 import com.bookstore.entity.Book;
+import com.bookstore.importer.ImportJob;
+import com.bookstore.importer.ImportJobService;
 import com.bookstore.service.BookService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.time.Duration;
 import java.util.List;
-import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/books")
@@ -19,27 +30,48 @@ public class BookController {
     @Autowired
     private BookService bookService;
     
+    @Autowired
+    private ImportJobService importJobService;
+    
+    private static final String SEARCH_TRUNCATED_HEADER = "X-Search-Truncated";
+    
+    // Lists show stock levels, so clients revalidate on every use; a 304 costs nothing
+    private static final CacheControl CATALOG_LIST_CACHE = CacheControl.noCache();
+    private static final CacheControl CATEGORIES_CACHE = CacheControl.maxAge(Duration.ofMinutes(1)).mustRevalidate();
+    
     @GetMapping
-    public List<Book> getAllBooks() {
-        return bookService.getAllBooks();
+    public ResponseEntity<StreamingResponseBody> getAllBooks(WebRequest request) {
+        return catalogRead(request, CATALOG_LIST_CACHE, () -> ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(bookService::writeAllBooks));
     }
     
     @GetMapping("/paginated")
     public ResponseEntity<?> getBooksPaginated(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        try {
-            return ResponseEntity.ok(bookService.getBooksPaginated(page, size));
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body("Failed to get books: " + e.getMessage());
-        }
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            WebRequest request) {
+        return catalogRead(request, CATALOG_LIST_CACHE, () -> {
+            try {
+                // Any cursor parameter (even empty, for the first page) switches to keyset paging
+                if (cursor != null) {
+                    return ResponseEntity.ok(bookService.getBooksByCursor(cursor, sort, size, withTotal));
+                }
+                return ResponseEntity.ok(bookService.getBooksPaginated(page, size));
+            } catch (Exception e) {
+                return ResponseEntity.badRequest().body("Failed to get books: " + e.getMessage());
+            }
+        });
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Book> getBookById(@PathVariable Long id) {
-        return bookService.getBookById(id)
+    public ResponseEntity<Book> getBookById(@PathVariable Long id, WebRequest request) {
+        return catalogRead(request, CATALOG_LIST_CACHE, () -> bookService.getBookById(id)
                 .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+                .orElse(ResponseEntity.notFound().build()));
     }
     
     @PostMapping
@@ -70,19 +102,41 @@ public class BookController {
         }
     }
     
+    // A partially typed last word with too many completions only uses the most common
+    // ones; the header tells the client to suggest a longer prefix
     @GetMapping("/search")
-    public List<Book> searchBooks(@RequestParam String q) {
-        return bookService.searchBooks(q);
+    public ResponseEntity<List<BookSummary>> searchBooks(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "false") boolean fuzzy) {
+        BookSearchResult result = bookService.searchBooks(q, fuzzy);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (result.isTruncated()) {
+            response.header(SEARCH_TRUNCATED_HEADER, "true");
+        }
+        return response.body(result.getBooks());
+    }
+    
+    @GetMapping("/suggest")
+    public List<BookSuggestion> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "8") int limit) {
+        return bookService.suggest(prefix, limit);
     }
     
     @GetMapping("/category/{category}")
-    public List<Book> getBooksByCategory(@PathVariable String category) {
-        return bookService.getBooksByCategory(category);
+    public ResponseEntity<StreamingResponseBody> getBooksByCategory(@PathVariable String category, WebRequest request) {
+        return catalogRead(request, CATALOG_LIST_CACHE, () -> ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> bookService.writeBooksByCategory(category, out)));
     }
     
     @GetMapping("/categories")
-    public List<String> getAllCategories() {
-        return bookService.getAllCategories();
+    public ResponseEntity<?> getAllCategories(
+            @RequestParam(defaultValue = "false") boolean withCounts,
+            WebRequest request) {
+        return catalogRead(request, CATEGORIES_CACHE, () -> withCounts
+                ? ResponseEntity.ok(bookService.getCategoryFacets())
+                : ResponseEntity.ok(bookService.getAllCategories()));
     }
     
     @PostMapping("/upload-csv")
@@ -97,11 +151,70 @@ public class BookController {
                 return ResponseEntity.badRequest().body("Please upload a CSV file");
             }
             
-            int booksAdded = bookService.uploadBooksFromCSV(file);
-            return ResponseEntity.ok(Map.of("booksAdded", booksAdded));
+            // The import runs in the background; poll /import-jobs/{id} for progress
+            ImportJob job = importJobService.submit(file);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
             
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Failed to upload CSV: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+    
+    @GetMapping("/import-jobs")
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<ImportJob> getImportJobs() {
+        return importJobService.getJobs();
+    }
+    
+    @GetMapping("/import-jobs/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ImportJob> getImportJob(@PathVariable String jobId) {
+        return importJobService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @PostMapping("/import-jobs/{jobId}/cancel")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> cancelImportJob(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(importJobService.cancel(jobId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @PostMapping("/import-jobs/{jobId}/resume")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> resumeImportJob(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(importJobService.resume(jobId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    /**
+     * Catalog reads are tagged with the catalog version as a strong ETag. A request
+     * whose If-None-Match still matches gets a 304 before the service is called.
+     */
+    private <T> ResponseEntity<T> catalogRead(WebRequest request, CacheControl cacheControl,
+                                              Supplier<ResponseEntity<T>> read) {
+        String etag = bookService.getCatalogETag();
+        // checkNotModified also sets the ETag header on the response
+        if (etag != null && request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        }
+        ResponseEntity<T> response = read.get();
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .cacheControl(cacheControl)
+                .body(response.getBody());
+    }
+}
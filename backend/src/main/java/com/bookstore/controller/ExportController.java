@@ -0,0 +1,69 @@
+// ExportController.java
+package com.bookstore.controller;
+
+import com.bookstore.export.ExportFormat;
+import com.bookstore.export.ExportResource;
+import com.bookstore.export.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/admin/export")
+@CrossOrigin(origins = "http://localhost:4200")
+@PreAuthorize("hasRole('ADMIN')")
+public class ExportController {
+
+    private static final String WATERMARK_HEADER = "X-Export-Watermark";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private ExportService exportService;
+
+    // GET /api/admin/export/{books|orders|users}?format=csv|ndjson&since=0&gzip=false
+    // Exports rows with since < id <= watermark; the watermark is returned in a header
+    // and is the "since" of the next incremental run. Written on the request thread so
+    // large exports are not cut off by the async request timeout.
+    @GetMapping("/{resource}")
+    public void export(@PathVariable String resource,
+                       @RequestParam(defaultValue = "csv") String format,
+                       @RequestParam(defaultValue = "0") long since,
+                       @RequestParam(defaultValue = "false") boolean gzip,
+                       HttpServletResponse response) throws IOException {
+        ExportResource exportResource;
+        ExportFormat exportFormat;
+        try {
+            exportResource = ExportResource.parse(resource);
+            exportFormat = ExportFormat.parse(format);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        if (since < 0) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "since must not be negative");
+            return;
+        }
+
+        long upTo = exportService.watermark(exportResource);
+        String fileName = exportResource.getTable() + "." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip" : exportFormat.getContentType() + ";charset=UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + fileName + "\"");
+        response.setHeader("Cache-Control", "no-store");
+        response.setHeader(WATERMARK_HEADER, String.valueOf(upTo));
+
+        OutputStream out = new BufferedOutputStream(response.getOutputStream(), BUFFER_SIZE);
+        if (gzip) {
+            out = new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+        try (OutputStream body = out) {
+            exportService.export(exportResource, exportFormat, since, upTo, body);
+        }
+    }
+}
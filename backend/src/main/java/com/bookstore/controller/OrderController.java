@@ -1,15 +1,21 @@
 // OrderController.java - UPDATED WITH IMPROVED ADMIN ENDPOINT
 package com.bookstore.controller;
 
+import com.bookstore.dto.OrderFilter;
 import com.bookstore.dto.OrderRequest;
+import com.bookstore.dto.OrderStatusUpdateRequest;
 import com.bookstore.entity.Order;
 import com.bookstore.entity.OrderStatus;
 import com.bookstore.entity.User;
+import com.bookstore.service.InsufficientStockException;
+import com.bookstore.service.OrderIdempotencyService;
+import com.bookstore.service.OrderIngestionService;
 import com.bookstore.service.OrderService;
 import com.bookstore.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -18,10 +24,12 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -34,11 +42,18 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
     
+    @Autowired
+    private OrderIngestionService orderIngestionService;
+    
+    @Autowired
+    private OrderIdempotencyService orderIdempotencyService;
+    
     @Autowired
     private UserService userService;
     
     @PostMapping
-    public ResponseEntity<Map<String, Object>> createOrder(@Valid @RequestBody OrderRequest request, Authentication auth) {
+    public ResponseEntity<Map<String, Object>> createOrder(@Valid @RequestBody OrderRequest request, Authentication auth,
+                                                           @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         Map<String, Object> response = new HashMap<>();
         
         try {
@@ -68,6 +83,12 @@ public class OrderController {
                 return ResponseEntity.badRequest().body(response);
             }
             
+            if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > OrderIdempotencyService.MAX_KEY_LENGTH)) {
+                response.put("success", false);
+                response.put("message", "Idempotency-Key must be 1 to " + OrderIdempotencyService.MAX_KEY_LENGTH + " characters");
+                return ResponseEntity.badRequest().body(response);
+            }
+            
             logger.debug("Looking up user by username: {}", username);
             User user = userService.findByUsername(username)
                     .orElseThrow(() -> {
@@ -75,21 +96,52 @@ public class OrderController {
                         return new RuntimeException("User not found: " + username);
                     });
             
+            // A retried checkout gets the original result instead of a second order
+            if (idempotencyKey != null) {
+                Map<String, Object> original = findIdempotentResponse(user, idempotencyKey);
+                if (original != null) {
+                    logger.info("Replaying order {} for idempotency key", original.get("orderId"));
+                    return ResponseEntity.ok(original);
+                }
+            }
+            
             logger.info("Creating order for user: {} with {} items", user.getUsername(), request.getItems().size());
-            Order order = orderService.createOrder(user, request.getItems(), request.getShippingAddress());
+            Order order;
+            try {
+                order = orderIngestionService.isEnabled()
+                        ? orderIngestionService.placeOrder(user, request.getItems(), request.getShippingAddress(), idempotencyKey)
+                        : orderService.createOrder(user, request.getItems(), request.getShippingAddress(), idempotencyKey);
+            } catch (RuntimeException e) {
+                // Lost a race with a concurrent retry under the same key; its order stands
+                if (idempotencyKey != null && OrderIdempotencyService.isDuplicateKey(e)) {
+                    Map<String, Object> original = findIdempotentResponse(user, idempotencyKey);
+                    if (original != null) {
+                        return ResponseEntity.ok(original);
+                    }
+                }
+                throw e;
+            }
             
             logger.info("Order created successfully with ID: {}", order.getId());
             
-            // Create a simplified response to avoid serialization issues
-            response.put("success", true);
-            response.put("message", "Order created successfully");
-            response.put("orderId", order.getId());
-            response.put("totalAmount", order.getTotalAmount());
-            response.put("status", order.getStatus().toString());
-            response.put("orderDate", order.getOrderDate().toString());
+            response.putAll(orderCreatedResponse(order));
+            if (idempotencyKey != null) {
+                orderIdempotencyService.putResponse(user.getId(), idempotencyKey, response);
+            }
             
             return ResponseEntity.ok(response);
             
+        } catch (InsufficientStockException e) {
+            logger.info("Order rejected for insufficient stock: {}", e.getMessage());
+            response.put("success", false);
+            response.put("message", "Failed to create order: " + e.getMessage());
+            response.put("shortfalls", e.getShortfalls());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        } catch (IllegalStateException e) {
+            logger.warn("Order rejected: {}", e.getMessage());
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
         } catch (Exception e) {
             logger.error("Failed to create order: {}", e.getMessage(), e);
             response.put("success", false);
@@ -98,6 +150,33 @@ public class OrderController {
         }
     }
     
+    private Map<String, Object> findIdempotentResponse(User user, String idempotencyKey) {
+        Map<String, Object> cached = orderIdempotencyService.getResponse(user.getId(), idempotencyKey);
+        if (cached != null) {
+            return cached;
+        }
+        Optional<Order> order = orderIdempotencyService.findOrderId(user.getId(), idempotencyKey)
+                .flatMap(orderService::getOrderById);
+        if (order.isEmpty()) {
+            return null;
+        }
+        Map<String, Object> response = orderCreatedResponse(order.get());
+        orderIdempotencyService.putResponse(user.getId(), idempotencyKey, response);
+        return response;
+    }
+    
+    // Create a simplified response to avoid serialization issues
+    private static Map<String, Object> orderCreatedResponse(Order order) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Order created successfully");
+        response.put("orderId", order.getId());
+        response.put("totalAmount", order.getTotalAmount());
+        response.put("status", order.getStatus().toString());
+        response.put("orderDate", order.getOrderDate().toString());
+        return response;
+    }
+    
     @GetMapping("/user")
     public ResponseEntity<?> getUserOrders(Authentication auth) {
         try {
@@ -113,40 +192,8 @@ public class OrderController {
             User user = userService.findByUsername(username)
                     .orElseThrow(() -> new RuntimeException("User not found: " + username));
             
-            List<Order> orders = orderService.getUserOrders(user);
-            logger.info("Found {} orders for user: {}", orders.size(), username);
-            
-            // Convert orders to DTOs to avoid circular reference issues
-            List<Map<String, Object>> orderDtos = orders.stream().map(order -> {
-                Map<String, Object> orderDto = new HashMap<>();
-                orderDto.put("id", order.getId());
-                orderDto.put("orderDate", order.getOrderDate());
-                orderDto.put("totalAmount", order.getTotalAmount());
-                orderDto.put("status", order.getStatus().toString());
-                orderDto.put("address", order.getAddress());
-                
-                // Convert order items
-                List<Map<String, Object>> itemDtos = order.getOrderItems().stream().map(item -> {
-                    Map<String, Object> itemDto = new HashMap<>();
-                    itemDto.put("id", item.getId());
-                    itemDto.put("quantity", item.getQuantity());
-                    itemDto.put("price", item.getPrice());
-                    
-                    // Book details
-                    Map<String, Object> bookDto = new HashMap<>();
-                    bookDto.put("id", item.getBook().getId());
-                    bookDto.put("title", item.getBook().getTitle());
-                    bookDto.put("author", item.getBook().getAuthor());
-                    bookDto.put("category", item.getBook().getCategory());
-                    bookDto.put("price", item.getBook().getPrice());
-                    itemDto.put("book", bookDto);
-                    
-                    return itemDto;
-                }).collect(Collectors.toList());
-                
-                orderDto.put("orderItems", itemDtos);
-                return orderDto;
-            }).collect(Collectors.toList());
+            List<Map<String, Object>> orderDtos = orderService.getUserOrders(user);
+            logger.info("Found {} orders for user: {}", orderDtos.size(), username);
             
             return ResponseEntity.ok(Map.of(
                 "success", true, 
@@ -168,63 +215,47 @@ public class OrderController {
     
     @GetMapping("/admin")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Map<String, Object>> getAllOrdersForAdmin(Authentication auth) {
+    public ResponseEntity<Map<String, Object>> getAllOrdersForAdmin(
+            Authentication auth,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) BigDecimal minTotal,
+            @RequestParam(required = false) BigDecimal maxTotal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
         Map<String, Object> response = new HashMap<>();
         
         try {
             logger.info("Admin order retrieval requested by: {}", auth != null ? auth.getName() : "unknown");
             
-            List<Order> orders = orderService.getAllOrders();
-            
-            // Convert orders to DTOs similar to user orders for consistency
-            List<Map<String, Object>> orderDtos = orders.stream().map(order -> {
-                Map<String, Object> orderDto = new HashMap<>();
-                orderDto.put("id", order.getId());
-                orderDto.put("orderDate", order.getOrderDate());
-                orderDto.put("totalAmount", order.getTotalAmount());
-                orderDto.put("status", order.getStatus().toString());
-                orderDto.put("address", order.getAddress());
-                
-                // Add user information for admin view
-                if (order.getUser() != null) {
-                    Map<String, Object> userDto = new HashMap<>();
-                    userDto.put("id", order.getUser().getId());
-                    userDto.put("username", order.getUser().getUsername());
-                    userDto.put("email", order.getUser().getEmail());
-                    orderDto.put("user", userDto);
+            OrderFilter filter = new OrderFilter();
+            if (status != null && !status.isBlank() && !status.equalsIgnoreCase("ALL")) {
+                try {
+                    filter.setStatus(OrderStatus.valueOf(status.trim().toUpperCase()));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Invalid status: " + status);
                 }
-                
-                // Convert order items
-                List<Map<String, Object>> itemDtos = order.getOrderItems().stream().map(item -> {
-                    Map<String, Object> itemDto = new HashMap<>();
-                    itemDto.put("id", item.getId());
-                    itemDto.put("quantity", item.getQuantity());
-                    itemDto.put("price", item.getPrice());
-                    
-                    // Book details
-                    Map<String, Object> bookDto = new HashMap<>();
-                    bookDto.put("id", item.getBook().getId());
-                    bookDto.put("title", item.getBook().getTitle());
-                    bookDto.put("author", item.getBook().getAuthor());
-                    bookDto.put("category", item.getBook().getCategory());
-                    bookDto.put("price", item.getBook().getPrice());
-                    itemDto.put("book", bookDto);
-                    
-                    return itemDto;
-                }).collect(Collectors.toList());
-                
-                orderDto.put("orderItems", itemDtos);
-                return orderDto;
-            }).collect(Collectors.toList());
+            }
+            filter.setFrom(from);
+            filter.setTo(to);
+            filter.setUsername(username == null || username.isBlank() ? null : username.trim());
+            filter.setMinTotal(minTotal);
+            filter.setMaxTotal(maxTotal);
             
+            response.putAll(orderService.getOrdersPage(filter, cursor, size));
             response.put("success", true);
-            response.put("orders", orderDtos);
-            response.put("count", orderDtos.size());
             response.put("message", "Orders retrieved successfully");
             
-            logger.info("Retrieved {} orders for admin view", orderDtos.size());
+            logger.info("Retrieved {} orders for admin view", response.get("count"));
             return ResponseEntity.ok(response);
             
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            response.put("orders", List.of());
+            return ResponseEntity.badRequest().body(response);
         } catch (Exception e) {
             logger.error("Failed to fetch all orders for admin: {}", e.getMessage(), e);
             response.put("success", false);
@@ -288,4 +319,42 @@ public class OrderController {
             return ResponseEntity.ok(response); // Return 200 with error info for consistency
         }
     }
-}
\ No newline at end of file
+    
+    // Applies one status to many orders in a single transaction; cancelling returns their stock
+    @PutMapping("/admin/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> updateOrderStatuses(@Valid @RequestBody OrderStatusUpdateRequest request, Authentication auth) {
+        Map<String, Object> response = new HashMap<>();
+        
+        OrderStatus status;
+        try {
+            status = OrderStatus.valueOf(request.getStatus().trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", "Invalid order status: " + request.getStatus());
+            return ResponseEntity.badRequest().body(response);
+        }
+        
+        try {
+            response.putAll(orderService.updateOrderStatuses(request.getOrderIds(), status));
+            response.put("success", true);
+            logger.info("Bulk status update to {} by admin {}: {} updated, {} rejected", status,
+                    auth != null ? auth.getName() : "unknown",
+                    ((List<?>) response.get("updated")).size(), ((List<?>) response.get("rejected")).size());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (IllegalStateException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        } catch (Exception e) {
+            logger.error("Bulk status update to {} failed: {}", status, e.getMessage(), e);
+            response.put("success", false);
+            response.put("message", "Failed to update order statuses: " + e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+}
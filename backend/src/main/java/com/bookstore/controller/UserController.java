@@ -3,6 +3,7 @@ package com.bookstore.controller;
 
 import com.bookstore.dto.UserProfileDto;
 import com.bookstore.entity.User;
+import com.bookstore.security.JwtUtil;
 import com.bookstore.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,6 +26,9 @@ public class UserController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private JwtUtil jwtUtil;
+    
     @GetMapping("/profile/{username}")
     public ResponseEntity<?> getUserProfile(@PathVariable String username) {
         try {
@@ -109,7 +113,11 @@ public class UserController {
             boolean success = userService.changePassword(username, currentPassword, newPassword);
             if (success) {
                 logger.info("Password changed successfully for user: {}", username);
-                return ResponseEntity.ok(Map.of("message", "Password changed successfully", "success", true));
+                // Earlier tokens were retired with the old password; hand the caller a fresh one
+                User user = userService.findByUsername(username)
+                        .orElseThrow(() -> new RuntimeException("User not found"));
+                return ResponseEntity.ok(Map.of("message", "Password changed successfully", "success", true,
+                        "token", jwtUtil.generateToken(user)));
             } else {
                 return ResponseEntity.badRequest().body(Map.of("message", "Current password is incorrect", "success", false));
             }
@@ -0,0 +1,28 @@
+// BookSales.java
+package com.bookstore.dto;
+
+import java.math.BigDecimal;
+
+// A book's units and revenue over a date range, summed from the daily sales rollups.
+// Title and author are null when the book has since been deleted.
+public class BookSales {
+    private final Long bookId;
+    private final String title;
+    private final String author;
+    private final Long units;
+    private final BigDecimal revenue;
+
+    public BookSales(Long bookId, String title, String author, Long units, BigDecimal revenue) {
+        this.bookId = bookId;
+        this.title = title;
+        this.author = author;
+        this.units = units;
+        this.revenue = revenue;
+    }
+
+    public Long getBookId() { return bookId; }
+    public String getTitle() { return title; }
+    public String getAuthor() { return author; }
+    public Long getUnits() { return units; }
+    public BigDecimal getRevenue() { return revenue; }
+}
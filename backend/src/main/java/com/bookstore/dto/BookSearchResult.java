@@ -0,0 +1,21 @@
+// BookSearchResult.java
+package com.bookstore.dto;
+
+import java.util.List;
+
+/**
+ * Books matching a search, best first. {@code truncated} is set when a partially typed
+ * last word had more completions than the index scores, so some matches may be missing.
+ */
+public class BookSearchResult {
+    private final List<BookSummary> books;
+    private final boolean truncated;
+
+    public BookSearchResult(List<BookSummary> books, boolean truncated) {
+        this.books = books;
+        this.truncated = truncated;
+    }
+
+    public List<BookSummary> getBooks() { return books; }
+    public boolean isTruncated() { return truncated; }
+}
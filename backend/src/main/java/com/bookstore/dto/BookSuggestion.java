@@ -0,0 +1,50 @@
+// BookSuggestion.java
+package com.bookstore.dto;
+
+public class BookSuggestion {
+    private String text;
+    private String type;
+    private Long bookId;
+    private long popularity;
+
+    public BookSuggestion() {}
+
+    public BookSuggestion(String text, String type, Long bookId, long popularity) {
+        this.text = text;
+        this.type = type;
+        this.bookId = bookId;
+        this.popularity = popularity;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(Long bookId) {
+        this.bookId = bookId;
+    }
+
+    public long getPopularity() {
+        return popularity;
+    }
+
+    public void setPopularity(long popularity) {
+        this.popularity = popularity;
+    }
+}
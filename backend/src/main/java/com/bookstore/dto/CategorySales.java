@@ -0,0 +1,25 @@
+// CategorySales.java
+package com.bookstore.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Units and revenue of one category on one day, read from the daily sales rollups
+public class CategorySales {
+    private final LocalDate day;
+    private final String category;
+    private final Long units;
+    private final BigDecimal revenue;
+
+    public CategorySales(LocalDate day, String category, Long units, BigDecimal revenue) {
+        this.day = day;
+        this.category = category;
+        this.units = units;
+        this.revenue = revenue;
+    }
+
+    public LocalDate getDay() { return day; }
+    public String getCategory() { return category; }
+    public Long getUnits() { return units; }
+    public BigDecimal getRevenue() { return revenue; }
+}
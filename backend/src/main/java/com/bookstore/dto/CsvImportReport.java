@@ -0,0 +1,92 @@
+// CsvImportReport.java
+package com.bookstore.dto;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Updated by the import thread while status requests read it, hence the volatile fields
+public class CsvImportReport {
+
+    public static class RowRejection {
+        private long line;
+        private String reason;
+
+        public RowRejection() {}
+
+        public RowRejection(long line, String reason) {
+            this.line = line;
+            this.reason = reason;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public void setLine(long line) {
+            this.line = line;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public void setReason(String reason) {
+            this.reason = reason;
+        }
+    }
+
+    private volatile long rowsParsed;
+    private volatile long booksAdded;
+    private volatile long rowsRejected;
+    private volatile int chunksCommitted;
+    private volatile List<RowRejection> rejections = new CopyOnWriteArrayList<>();
+    private volatile boolean rejectionsTruncated;
+
+    public long getRowsParsed() {
+        return rowsParsed;
+    }
+
+    public void setRowsParsed(long rowsParsed) {
+        this.rowsParsed = rowsParsed;
+    }
+
+    public long getBooksAdded() {
+        return booksAdded;
+    }
+
+    public void setBooksAdded(long booksAdded) {
+        this.booksAdded = booksAdded;
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public void setRowsRejected(long rowsRejected) {
+        this.rowsRejected = rowsRejected;
+    }
+
+    public int getChunksCommitted() {
+        return chunksCommitted;
+    }
+
+    public void setChunksCommitted(int chunksCommitted) {
+        this.chunksCommitted = chunksCommitted;
+    }
+
+    public List<RowRejection> getRejections() {
+        return rejections;
+    }
+
+    public void setRejections(List<RowRejection> rejections) {
+        this.rejections = rejections;
+    }
+
+    public boolean isRejectionsTruncated() {
+        return rejectionsTruncated;
+    }
+
+    public void setRejectionsTruncated(boolean rejectionsTruncated) {
+        this.rejectionsTruncated = rejectionsTruncated;
+    }
+}
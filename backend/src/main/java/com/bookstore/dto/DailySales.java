@@ -0,0 +1,22 @@
+// DailySales.java
+package com.bookstore.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Units and revenue for one day, read from the daily sales rollups
+public class DailySales {
+    private final LocalDate day;
+    private final Long units;
+    private final BigDecimal revenue;
+
+    public DailySales(LocalDate day, Long units, BigDecimal revenue) {
+        this.day = day;
+        this.units = units;
+        this.revenue = revenue;
+    }
+
+    public LocalDate getDay() { return day; }
+    public Long getUnits() { return units; }
+    public BigDecimal getRevenue() { return revenue; }
+}
@@ -0,0 +1,36 @@
+// OrderFilter.java
+package com.bookstore.dto;
+
+import com.bookstore.entity.OrderStatus;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Admin order listing criteria; null fields do not filter. Dates are inclusive.
+public class OrderFilter {
+    private OrderStatus status;
+    private LocalDate from;
+    private LocalDate to;
+    private String username;
+    private BigDecimal minTotal;
+    private BigDecimal maxTotal;
+
+    public OrderFilter() {}
+
+    public OrderStatus getStatus() { return status; }
+    public void setStatus(OrderStatus status) { this.status = status; }
+
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public BigDecimal getMinTotal() { return minTotal; }
+    public void setMinTotal(BigDecimal minTotal) { this.minTotal = minTotal; }
+
+    public BigDecimal getMaxTotal() { return maxTotal; }
+    public void setMaxTotal(BigDecimal maxTotal) { this.maxTotal = maxTotal; }
+}
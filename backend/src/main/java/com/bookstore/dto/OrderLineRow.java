@@ -0,0 +1,69 @@
+// OrderLineRow.java
+package com.bookstore.dto;
+
+import com.bookstore.entity.OrderStatus;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One row of an order listing: the order, its customer and one of its items with the
+ * book, flattened by a single join query. An order without items yields one row with
+ * null item and book columns.
+ */
+public class OrderLineRow {
+    private final Long orderId;
+    private final LocalDateTime orderDate;
+    private final BigDecimal totalAmount;
+    private final OrderStatus status;
+    private final String address;
+    private final Long userId;
+    private final String username;
+    private final String email;
+    private final Long itemId;
+    private final Integer quantity;
+    private final BigDecimal itemPrice;
+    private final Long bookId;
+    private final String title;
+    private final String author;
+    private final String category;
+    private final BigDecimal bookPrice;
+
+    public OrderLineRow(Long orderId, LocalDateTime orderDate, BigDecimal totalAmount, OrderStatus status,
+                        String address, Long userId, String username, String email, Long itemId,
+                        Integer quantity, BigDecimal itemPrice, Long bookId, String title, String author,
+                        String category, BigDecimal bookPrice) {
+        this.orderId = orderId;
+        this.orderDate = orderDate;
+        this.totalAmount = totalAmount;
+        this.status = status;
+        this.address = address;
+        this.userId = userId;
+        this.username = username;
+        this.email = email;
+        this.itemId = itemId;
+        this.quantity = quantity;
+        this.itemPrice = itemPrice;
+        this.bookId = bookId;
+        this.title = title;
+        this.author = author;
+        this.category = category;
+        this.bookPrice = bookPrice;
+    }
+
+    public Long getOrderId() { return orderId; }
+    public LocalDateTime getOrderDate() { return orderDate; }
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public OrderStatus getStatus() { return status; }
+    public String getAddress() { return address; }
+    public Long getUserId() { return userId; }
+    public String getUsername() { return username; }
+    public String getEmail() { return email; }
+    public Long getItemId() { return itemId; }
+    public Integer getQuantity() { return quantity; }
+    public BigDecimal getItemPrice() { return itemPrice; }
+    public Long getBookId() { return bookId; }
+    public String getTitle() { return title; }
+    public String getAuthor() { return author; }
+    public String getCategory() { return category; }
+    public BigDecimal getBookPrice() { return bookPrice; }
+}
@@ -0,0 +1,32 @@
+// OrderStatusUpdateRequest.java
+package com.bookstore.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+public class OrderStatusUpdateRequest {
+    @NotEmpty
+    private List<Long> orderIds;
+
+    @NotBlank
+    private String status;
+
+    public OrderStatusUpdateRequest() {}
+
+    public List<Long> getOrderIds() {
+        return orderIds;
+    }
+
+    public void setOrderIds(List<Long> orderIds) {
+        this.orderIds = orderIds;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
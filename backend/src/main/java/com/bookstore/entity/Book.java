@@ -8,7 +8,11 @@ import jakarta.validation.constraints.Positive;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "books")
+@Table(name = "books", indexes = {
+    @Index(name = "idx_books_title_id", columnList = "title, id"),
+    @Index(name = "idx_books_price_id", columnList = "price, id"),
+    @Index(name = "idx_books_category_id", columnList = "category, id")
+})
 public class Book {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
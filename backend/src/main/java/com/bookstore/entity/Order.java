@@ -9,7 +9,12 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+// Descending to match the newest-first listings; Derby does not scan an index backwards
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_date_id", columnList = "order_date DESC, id DESC"),
+    @Index(name = "idx_orders_status_date_id", columnList = "status, order_date DESC, id DESC"),
+    @Index(name = "idx_orders_user_date_id", columnList = "user_id, order_date DESC, id DESC")
+})
 public class Order {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -2,5 +2,18 @@
 package com.bookstore.entity;
 
 public enum OrderStatus {
-    PENDING, SHIPPED, DELIVERED, CANCELLED
-}
\ No newline at end of file
+    PENDING, SHIPPED, DELIVERED, CANCELLED;
+
+    // Orders only move forward. Cancelling returns the stock, so only orders that have
+    // not shipped can be cancelled, and delivered or cancelled orders are final.
+    public boolean canTransitionTo(OrderStatus next) {
+        switch (this) {
+            case PENDING:
+                return next == SHIPPED || next == DELIVERED || next == CANCELLED;
+            case SHIPPED:
+                return next == DELIVERED;
+            default:
+                return false;
+        }
+    }
+}
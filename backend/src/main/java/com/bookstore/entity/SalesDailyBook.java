@@ -0,0 +1,50 @@
+// SalesDailyBook.java
+package com.bookstore.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Units and revenue of one book on one day, over orders that are not cancelled
+@Entity
+@Table(name = "sales_daily_book", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_sales_daily_book_day_book", columnNames = {"sale_day", "book_id"})
+}, indexes = {
+    @Index(name = "idx_sales_daily_book_book_day", columnList = "book_id, sale_day")
+})
+public class SalesDailyBook {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sale_day", nullable = false)
+    private LocalDate saleDay;
+
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+
+    @Column(nullable = false)
+    private Long units;
+
+    @Column(nullable = false)
+    private BigDecimal revenue;
+
+    // Constructors
+    public SalesDailyBook() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public LocalDate getSaleDay() { return saleDay; }
+    public void setSaleDay(LocalDate saleDay) { this.saleDay = saleDay; }
+
+    public Long getBookId() { return bookId; }
+    public void setBookId(Long bookId) { this.bookId = bookId; }
+
+    public Long getUnits() { return units; }
+    public void setUnits(Long units) { this.units = units; }
+
+    public BigDecimal getRevenue() { return revenue; }
+    public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+}
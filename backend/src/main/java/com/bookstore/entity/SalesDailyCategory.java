@@ -0,0 +1,56 @@
+// SalesDailyCategory.java
+package com.bookstore.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Units and revenue of one category on one day, over orders that are not cancelled. A
+// category's day is split over stripes by book id so concurrent checkouts of different
+// books do not queue on one row; readers sum the stripes.
+@Entity
+@Table(name = "sales_daily_category", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_sales_daily_category_day_category", columnNames = {"sale_day", "category", "stripe"})
+})
+public class SalesDailyCategory {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sale_day", nullable = false)
+    private LocalDate saleDay;
+
+    @Column(nullable = false)
+    private String category;
+
+    @Column(nullable = false)
+    private Integer stripe;
+
+    @Column(nullable = false)
+    private Long units;
+
+    @Column(nullable = false)
+    private BigDecimal revenue;
+
+    // Constructors
+    public SalesDailyCategory() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public LocalDate getSaleDay() { return saleDay; }
+    public void setSaleDay(LocalDate saleDay) { this.saleDay = saleDay; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public Integer getStripe() { return stripe; }
+    public void setStripe(Integer stripe) { this.stripe = stripe; }
+
+    public Long getUnits() { return units; }
+    public void setUnits(Long units) { this.units = units; }
+
+    public BigDecimal getRevenue() { return revenue; }
+    public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+}
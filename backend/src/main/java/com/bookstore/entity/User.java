@@ -9,6 +9,7 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
@@ -25,6 +26,7 @@ public class User implements UserDetails {
     
     @NotBlank
     @Size(min = 3, max = 50)
+    @Column(unique = true)
     private String username;
     
     @NotBlank
@@ -49,6 +51,11 @@ public class User implements UserDetails {
     @Column(name = "created_date")
     private LocalDateTime createdDate = LocalDateTime.now();
     
+    // Carried in issued tokens; bumping it makes every earlier token of this user stale
+    @JsonIgnore
+    @Column(name = "token_version")
+    private Integer tokenVersion = 0;
+    
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
     @JsonBackReference // This prevents circular reference with Order entity
     private List<Order> orders;
@@ -133,6 +140,10 @@ public class User implements UserDetails {
     public LocalDateTime getCreatedDate() { return createdDate; }
     public void setCreatedDate(LocalDateTime createdDate) { this.createdDate = createdDate; }
     
+    // Rows created before the column existed read as version 0
+    public int getTokenVersion() { return tokenVersion == null ? 0 : tokenVersion; }
+    public void setTokenVersion(int tokenVersion) { this.tokenVersion = tokenVersion; }
+    
     public List<Order> getOrders() { return orders; }
     public void setOrders(List<Order> orders) { this.orders = orders; }
 }
\ No newline at end of file
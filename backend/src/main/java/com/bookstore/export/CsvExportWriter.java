@@ -0,0 +1,97 @@
+// CsvExportWriter.java
+package com.bookstore.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * RFC 4180 CSV. Records with child rows are written as one line per child, repeating
+ * the parent's columns; a record without children gets one line with empty child columns.
+ */
+final class CsvExportWriter implements ExportWriter {
+
+    private final Writer out;
+    private int itemColumnCount;
+
+    CsvExportWriter(OutputStream out) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @Override
+    public void begin(String[] columns, String[] itemColumns) throws IOException {
+        itemColumnCount = itemColumns == null ? 0 : itemColumns.length;
+        writeFields(columns, itemColumns);
+    }
+
+    @Override
+    public void record(Object[] values, List<Object[]> items) throws IOException {
+        if (itemColumnCount == 0 || items.isEmpty()) {
+            writeFields(values, itemColumnCount == 0 ? null : new Object[itemColumnCount]);
+            return;
+        }
+        for (Object[] item : items) {
+            writeFields(values, item);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeFields(Object[] values, Object[] more) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            writeField(values[i]);
+        }
+        if (more != null) {
+            for (Object value : more) {
+                out.write(',');
+                writeField(value);
+            }
+        }
+        out.write("\r\n");
+    }
+
+    private void writeField(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (!needsQuotes(text)) {
+            out.write(text);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    private static boolean needsQuotes(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,26 @@
+// ExportResource.java
+package com.bookstore.export;
+
+// Tables that can be exported; each is exported in id order
+public enum ExportResource {
+    BOOKS("books"),
+    ORDERS("orders"),
+    USERS("users");
+
+    private final String table;
+
+    ExportResource(String table) {
+        this.table = table;
+    }
+
+    public String getTable() { return table; }
+
+    public static ExportResource parse(String value) {
+        for (ExportResource resource : values()) {
+            if (resource.table.equalsIgnoreCase(value)) {
+                return resource;
+            }
+        }
+        throw new IllegalArgumentException("Unknown export: " + value);
+    }
+}
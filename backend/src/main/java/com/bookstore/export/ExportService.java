@@ -0,0 +1,183 @@
+// ExportService.java
+package com.bookstore.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Clob;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk exports read straight from a forward-only JDBC cursor and write each row as it
+ * arrives, so memory use does not grow with the table: at most one order and its items
+ * are held at a time.
+ *
+ * Exports are incremental by id. The caller fixes the upper bound with
+ * {@link #watermark} before streaming and passes it as {@code since} next time; ids are
+ * assigned in commit order under Derby's locking reads, so no row is skipped between
+ * two runs. Changes to rows that were already exported (an order's status, a book's
+ * stock) are not picked up this way; the order journal carries status changes.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int FLUSH_EVERY = 500;
+
+    private static final String[] BOOK_COLUMNS =
+            {"id", "title", "author", "price", "category", "stock", "description"};
+    private static final String BOOKS_SQL =
+            "SELECT id, title, author, price, category, stock, description FROM books " +
+            "WHERE id > ? AND id <= ? ORDER BY id";
+
+    // The password hash is never exported
+    private static final String[] USER_COLUMNS =
+            {"id", "username", "email", "customerId", "role", "age", "address", "createdDate"};
+    private static final String USERS_SQL =
+            "SELECT id, username, email, customer_id, role, age, address, created_date FROM users " +
+            "WHERE id > ? AND id <= ? ORDER BY id";
+
+    private static final String[] ORDER_COLUMNS =
+            {"id", "orderDate", "status", "totalAmount", "address", "userId", "username"};
+    private static final String[] ORDER_ITEM_COLUMNS = {"itemId", "bookId", "quantity", "price"};
+    private static final String ORDERS_SQL =
+            "SELECT o.id, o.order_date, o.status, o.total_amount, o.address, o.user_id, u.username, " +
+            "i.id, i.book_id, i.quantity, i.price " +
+            "FROM orders o LEFT JOIN users u ON u.id = o.user_id " +
+            "LEFT JOIN order_items i ON i.order_id = o.id " +
+            "WHERE o.id > ? AND o.id <= ? ORDER BY o.id, i.id";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private JdbcTemplate cursor;
+
+    @PostConstruct
+    void init() {
+        cursor = new JdbcTemplate(dataSource);
+        cursor.setFetchSize(FETCH_SIZE);
+    }
+
+    /** Highest id currently in the table; export up to it and resume from it next time. */
+    public long watermark(ExportResource resource) {
+        Long max = cursor.queryForObject("SELECT MAX(id) FROM " + resource.getTable(), Long.class);
+        return max == null ? 0 : max;
+    }
+
+    /** Writes the rows with {@code since < id <= upTo}; returns the number of records. */
+    public long export(ExportResource resource, ExportFormat format, long since, long upTo,
+                       OutputStream out) throws IOException {
+        long started = System.currentTimeMillis();
+        long count;
+        try (ExportWriter writer = format == ExportFormat.CSV
+                ? new CsvExportWriter(out)
+                : new NdjsonExportWriter(objectMapper.getFactory(), out)) {
+            switch (resource) {
+                case BOOKS -> count = exportRows(writer, BOOK_COLUMNS, BOOKS_SQL, since, upTo);
+                case USERS -> count = exportRows(writer, USER_COLUMNS, USERS_SQL, since, upTo);
+                case ORDERS -> count = exportOrders(writer, since, upTo);
+                default -> throw new IllegalArgumentException("Unknown export: " + resource);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        logger.info("Exported {} {} as {} (id {} to {}) in {} ms",
+                count, resource.getTable(), format, since, upTo, System.currentTimeMillis() - started);
+        return count;
+    }
+
+    private long exportRows(ExportWriter writer, String[] columns, String sql, long since, long upTo) throws IOException {
+        writer.begin(columns, null);
+        long[] count = {0};
+        cursor.query(sql, rs -> {
+            Object[] values = new Object[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                values[i] = value(rs, i + 1);
+            }
+            write(writer, values, List.of(), ++count[0]);
+        }, since, upTo);
+        return count[0];
+    }
+
+    // Rows arrive ordered by order id, so an order is complete when the id changes
+    private long exportOrders(ExportWriter writer, long since, long upTo) throws IOException {
+        writer.begin(ORDER_COLUMNS, ORDER_ITEM_COLUMNS);
+        OrderRows rows = new OrderRows();
+        cursor.query(ORDERS_SQL, rs -> {
+            long orderId = rs.getLong(1);
+            if (rows.order == null || rows.orderId != orderId) {
+                rows.writeTo(writer);
+                rows.orderId = orderId;
+                rows.order = new Object[ORDER_COLUMNS.length];
+                for (int i = 0; i < ORDER_COLUMNS.length; i++) {
+                    rows.order[i] = value(rs, i + 1);
+                }
+            }
+            if (rs.getObject(ORDER_COLUMNS.length + 1) != null) {
+                Object[] item = new Object[ORDER_ITEM_COLUMNS.length];
+                for (int i = 0; i < ORDER_ITEM_COLUMNS.length; i++) {
+                    item[i] = value(rs, ORDER_COLUMNS.length + i + 1);
+                }
+                rows.items.add(item);
+            }
+        }, since, upTo);
+        rows.writeTo(writer);
+        return rows.count;
+    }
+
+    private static void write(ExportWriter writer, Object[] values, List<Object[]> items, long count) {
+        try {
+            writer.record(values, items);
+            if (count % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Object value(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        if (value instanceof Clob) {
+            return rs.getString(column);
+        }
+        return value;
+    }
+
+    private static final class OrderRows {
+        private long orderId;
+        private Object[] order;
+        private final List<Object[]> items = new ArrayList<>();
+        private long count;
+
+        void writeTo(ExportWriter writer) {
+            if (order == null) {
+                return;
+            }
+            write(writer, order, items, ++count);
+            order = null;
+            items.clear();
+        }
+    }
+}
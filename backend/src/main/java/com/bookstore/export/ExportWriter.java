@@ -0,0 +1,19 @@
+// ExportWriter.java
+package com.bookstore.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes export records one at a time. A record may carry child rows (order items);
+ * how they are laid out is up to the format.
+ */
+interface ExportWriter extends Closeable {
+
+    void begin(String[] columns, String[] itemColumns) throws IOException;
+
+    void record(Object[] values, List<Object[]> items) throws IOException;
+
+    void flush() throws IOException;
+}
@@ -0,0 +1,76 @@
+// NdjsonExportWriter.java
+package com.bookstore.export;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * One JSON object per line. Child rows are nested in an "items" array so each line
+ * is a complete record.
+ */
+final class NdjsonExportWriter implements ExportWriter {
+
+    private final JsonGenerator generator;
+    private String[] columns;
+    private String[] itemColumns;
+
+    NdjsonExportWriter(JsonFactory factory, OutputStream out) throws IOException {
+        this.generator = factory.createGenerator(out, JsonEncoding.UTF8);
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void begin(String[] columns, String[] itemColumns) {
+        this.columns = columns;
+        this.itemColumns = itemColumns;
+    }
+
+    @Override
+    public void record(Object[] values, List<Object[]> items) throws IOException {
+        generator.writeStartObject();
+        writeFields(columns, values);
+        if (itemColumns != null) {
+            generator.writeArrayFieldStart("items");
+            for (Object[] item : items) {
+                generator.writeStartObject();
+                writeFields(itemColumns, item);
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+
+    private void writeFields(String[] names, Object[] values) throws IOException {
+        for (int i = 0; i < names.length; i++) {
+            generator.writeFieldName(names[i]);
+            Object value = values[i];
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof BigDecimal decimal) {
+                generator.writeNumber(decimal);
+            } else if (value instanceof Long || value instanceof Integer) {
+                generator.writeNumber(((Number) value).longValue());
+            } else {
+                generator.writeString(value.toString());
+            }
+        }
+    }
+}
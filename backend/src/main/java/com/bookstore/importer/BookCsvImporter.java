@@ -0,0 +1,350 @@
+// BookCsvImporter.java
+package com.bookstore.importer;
+
+import com.bookstore.dto.CsvImportReport;
+import com.bookstore.entity.Book;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Streams a book CSV into the database for an {@link ImportJob}. The job thread
+ * parses records and hands them out in chunks to a validation pool; it then writes
+ * validated chunks back in file order with one commit per chunk. At most a small
+ * window of chunks is in flight, so memory does not grow with the file.
+ *
+ * Each row's id is taken from the generated keys of its own insert, so the books
+ * reported for a chunk are exactly the rows it wrote, whatever else writes to the
+ * table meanwhile. Rows go through one statement executed per row rather than a
+ * batch, because Derby only returns the last key of a batch.
+ *
+ * Expected columns: title, author, price, description, category, stock. The first
+ * record is a header and is skipped.
+ */
+@Component
+public class BookCsvImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookCsvImporter.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO books (title, author, price, description, category, stock) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final int COLUMNS = 6;
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final int MAX_REPORTED_REJECTIONS = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${catalog.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${catalog.import.validation-threads:0}")
+    private int validationThreads;
+
+    private ExecutorService validationPool;
+    private int maxChunksInFlight;
+    private TransactionTemplate chunkTransaction;
+
+    @PostConstruct
+    void init() {
+        int threads = validationThreads > 0
+                ? validationThreads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        AtomicInteger counter = new AtomicInteger();
+        validationPool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "csv-validate-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        maxChunksInFlight = threads * 2;
+
+        chunkTransaction = new TransactionTemplate(transactionManager);
+        chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        validationPool.shutdownNow();
+    }
+
+    /**
+     * Runs the job over the given CSV stream, resuming after the rows it has already
+     * committed. {@code onChunkCommitted} receives the books each chunk inserted, with
+     * their ids, right after the chunk commits. Returns false if the job was
+     * cancelled before the end of the file; chunks not yet committed are discarded.
+     */
+    public boolean run(ImportJob job, InputStream input, Consumer<List<Book>> onChunkCommitted) throws IOException {
+        CsvImportReport report = job.getReport();
+        long skip = job.getRowsCommitted();
+        report.setRowsParsed(skip);
+
+        Deque<CompletableFuture<ValidatedChunk>> inFlight = new ArrayDeque<>();
+        CsvReader reader = new CsvReader(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+        CsvReader.MalformedCsvException malformed = null;
+        try {
+            boolean header = true;
+            List<RawRow> chunk = new ArrayList<>(chunkSize);
+            while (true) {
+                List<String> record;
+                try {
+                    record = reader.readRecord();
+                } catch (CsvReader.MalformedCsvException e) {
+                    malformed = e;
+                    break;
+                }
+                if (record == null) {
+                    break;
+                }
+                if (header) {
+                    header = false;
+                    continue;
+                }
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+                report.setRowsParsed(report.getRowsParsed() + 1);
+                chunk.add(new RawRow(reader.getRecordLine(), record));
+                if (chunk.size() == chunkSize) {
+                    if (job.isCancelRequested()) {
+                        return false;
+                    }
+                    List<RawRow> rows = chunk;
+                    inFlight.add(CompletableFuture.supplyAsync(() -> validate(rows), validationPool));
+                    chunk = new ArrayList<>(chunkSize);
+                    if (inFlight.size() >= maxChunksInFlight) {
+                        write(job, inFlight.poll().join(), onChunkCommitted);
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                List<RawRow> rows = chunk;
+                inFlight.add(CompletableFuture.supplyAsync(() -> validate(rows), validationPool));
+            }
+            while (!inFlight.isEmpty()) {
+                if (job.isCancelRequested()) {
+                    return false;
+                }
+                write(job, inFlight.poll().join(), onChunkCommitted);
+            }
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+
+        if (malformed != null) {
+            report.setRowsParsed(report.getRowsParsed() + 1);
+            reject(report, malformed.getLine(), "Unterminated quoted field; the rest of the file was not read");
+        }
+        logger.info("Import {} parsed {} rows, added {} books, rejected {} rows", job.getId(),
+                report.getRowsParsed(), report.getBooksAdded(), report.getRowsRejected());
+        return true;
+    }
+
+    private void write(ImportJob job, ValidatedChunk chunk, Consumer<List<Book>> onChunkCommitted) {
+        CsvImportReport report = job.getReport();
+        List<CsvImportReport.RowRejection> rejections = new ArrayList<>(chunk.rejections);
+        List<Book> stored = new ArrayList<>(chunk.books.size());
+        if (!chunk.books.isEmpty()) {
+            try {
+                long[] ids = chunkTransaction.execute(status -> insertAll(chunk.books));
+                // Ids are only assigned once the chunk has committed
+                for (int i = 0; i < ids.length; i++) {
+                    chunk.books.get(i).setId(ids[i]);
+                }
+                stored.addAll(chunk.books);
+            } catch (DataAccessException chunkFailure) {
+                // One bad row aborts the whole chunk; retry row by row so only that row is rejected
+                for (int i = 0; i < chunk.books.size(); i++) {
+                    Book book = chunk.books.get(i);
+                    try {
+                        book.setId(chunkTransaction.execute(status -> insertAll(List.of(book)))[0]);
+                        stored.add(book);
+                    } catch (DataAccessException rowFailure) {
+                        rejections.add(new CsvImportReport.RowRejection(chunk.lines.get(i),
+                                "Rejected by database: " + NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage()));
+                    }
+                }
+            }
+        }
+
+        // Counted only once the chunk is durable, so a resumed run does not count it twice
+        rejections.sort(Comparator.comparingLong(CsvImportReport.RowRejection::getLine));
+        for (CsvImportReport.RowRejection rejection : rejections) {
+            reject(report, rejection.getLine(), rejection.getReason());
+        }
+        job.setRowsCommitted(job.getRowsCommitted() + chunk.records);
+        report.setChunksCommitted(report.getChunksCommitted() + 1);
+        if (!stored.isEmpty()) {
+            report.setBooksAdded(report.getBooksAdded() + stored.size());
+            onChunkCommitted.accept(stored);
+        }
+    }
+
+    // Inserts the books in order and returns their generated ids
+    private long[] insertAll(List<Book> books) {
+        return jdbcTemplate.execute(
+                (Connection connection) -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                (PreparedStatement ps) -> {
+                    long[] ids = new long[books.size()];
+                    for (int i = 0; i < ids.length; i++) {
+                        bind(ps, books.get(i));
+                        ps.executeUpdate();
+                        try (ResultSet keys = ps.getGeneratedKeys()) {
+                            if (!keys.next()) {
+                                throw new IllegalStateException("No id was generated for an imported book");
+                            }
+                            ids[i] = keys.getLong(1);
+                        }
+                    }
+                    return ids;
+                });
+    }
+
+    private static void bind(PreparedStatement ps, Book book) throws SQLException {
+        ps.setString(1, book.getTitle());
+        ps.setString(2, book.getAuthor());
+        ps.setBigDecimal(3, book.getPrice());
+        ps.setString(4, book.getDescription());
+        ps.setString(5, book.getCategory());
+        ps.setInt(6, book.getStock());
+    }
+
+    private static void reject(CsvImportReport report, long line, String reason) {
+        report.setRowsRejected(report.getRowsRejected() + 1);
+        if (report.getRejections().size() < MAX_REPORTED_REJECTIONS) {
+            report.getRejections().add(new CsvImportReport.RowRejection(line, reason));
+        } else {
+            report.setRejectionsTruncated(true);
+        }
+    }
+
+    private static ValidatedChunk validate(List<RawRow> rows) {
+        ValidatedChunk chunk = new ValidatedChunk(rows.size());
+        for (RawRow row : rows) {
+            String problem = null;
+            Book book = null;
+            try {
+                book = toBook(row.fields);
+            } catch (IllegalArgumentException e) {
+                problem = e.getMessage();
+            }
+            if (problem == null) {
+                chunk.books.add(book);
+                chunk.lines.add(row.line);
+            } else {
+                chunk.rejections.add(new CsvImportReport.RowRejection(row.line, problem));
+            }
+        }
+        return chunk;
+    }
+
+    private static Book toBook(List<String> fields) {
+        if (fields.size() < COLUMNS) {
+            throw new IllegalArgumentException("Expected " + COLUMNS + " columns but found " + fields.size());
+        }
+        Book book = new Book();
+        book.setTitle(requiredText(fields.get(0), "Title"));
+        book.setAuthor(requiredText(fields.get(1), "Author"));
+        book.setPrice(parsePrice(fields.get(2).trim()));
+        book.setDescription(fields.get(3).trim());
+        book.setCategory(requiredText(fields.get(4), "Category"));
+        book.setStock(parseStock(fields.get(5).trim()));
+        return book;
+    }
+
+    private static String requiredText(String value, String column) {
+        String text = value.trim();
+        if (text.isEmpty()) {
+            throw new IllegalArgumentException(column + " is required");
+        }
+        if (text.length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException(column + " is longer than " + MAX_TEXT_LENGTH + " characters");
+        }
+        return text;
+    }
+
+    private static BigDecimal parsePrice(String value) {
+        BigDecimal price;
+        try {
+            price = new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Price '" + value + "' is not a number");
+        }
+        if (price.signum() <= 0) {
+            throw new IllegalArgumentException("Price must be greater than zero");
+        }
+        return price;
+    }
+
+    private static int parseStock(String value) {
+        int stock;
+        try {
+            stock = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Stock '" + value + "' is not a whole number");
+        }
+        if (stock < 0) {
+            throw new IllegalArgumentException("Stock must not be negative");
+        }
+        return stock;
+    }
+
+    private static final class RawRow {
+        final long line;
+        final List<String> fields;
+
+        RawRow(long line, List<String> fields) {
+            this.line = line;
+            this.fields = fields;
+        }
+    }
+
+    private static final class ValidatedChunk {
+        final List<Book> books;
+        final List<Long> lines;
+        final List<CsvImportReport.RowRejection> rejections = new ArrayList<>();
+        final int records;
+
+        ValidatedChunk(int capacity) {
+            records = capacity;
+            books = new ArrayList<>(capacity);
+            lines = new ArrayList<>(capacity);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+// CsvReader.java
+package com.bookstore.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 reader: quoted fields may contain commas, line breaks and
+ * doubled quotes, and records end with CRLF or LF. Only the current record is
+ * held in memory, so input size does not matter.
+ */
+public class CsvReader implements Closeable {
+
+    public static class MalformedCsvException extends IOException {
+        private final long line;
+
+        public MalformedCsvException(String message, long line) {
+            super(message + " (line " + line + ")");
+            this.line = line;
+        }
+
+        public long getLine() {
+            return line;
+        }
+    }
+
+    private static final int BYTE_ORDER_MARK = 0xFEFF;
+
+    private final Reader in;
+    private final char[] buffer = new char[16 * 1024];
+    private int position;
+    private int limit;
+    private int pushedBack = -2;
+    private boolean started;
+
+    private long line = 1;
+    private long recordLine;
+
+    public CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /** Physical line on which the most recently returned record started. */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    /**
+     * Returns the next record's fields, or null at end of input. Blank lines are
+     * skipped.
+     */
+    public List<String> readRecord() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            if (!started) {
+                started = true;
+                if (c == BYTE_ORDER_MARK) {
+                    c = read();
+                    if (c == -1) {
+                        return null;
+                    }
+                }
+            }
+            if (c == '\n') {
+                line++;
+                continue;
+            }
+            if (c == '\r') {
+                skipLineFeed();
+                line++;
+                continue;
+            }
+            return parseRecord(c);
+        }
+    }
+
+    private List<String> parseRecord(int first) throws IOException {
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        boolean quoted = false;
+
+        int c = first;
+        while (true) {
+            if (c == -1) {
+                if (inQuotes) {
+                    throw new MalformedCsvException("Unterminated quoted field", recordLine);
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+
+            if (inQuotes) {
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        unread(next);
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                quoted = false;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    skipLineFeed();
+                }
+                line++;
+                fields.add(field.toString());
+                return fields;
+            } else if (c == '"' && field.length() == 0 && !quoted) {
+                inQuotes = true;
+                quoted = true;
+            } else {
+                // Lenient about stray quotes inside unquoted fields, as most spreadsheet exports are
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private void skipLineFeed() throws IOException {
+        int next = read();
+        if (next != '\n') {
+            unread(next);
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        if (position == limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
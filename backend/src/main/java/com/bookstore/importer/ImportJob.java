@@ -0,0 +1,123 @@
+// ImportJob.java
+package com.bookstore.importer;
+
+import com.bookstore.dto.CsvImportReport;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.Future;
+
+/**
+ * A bulk import running in the background. The uploaded file is kept on disk until
+ * the job completes, so a failed or cancelled job can resume after the last chunk
+ * it committed.
+ */
+public class ImportJob {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED;
+
+        boolean isFinished() {
+            return this == COMPLETED || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    private final String id;
+    private final String fileName;
+    private final Path file;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+    private final CsvImportReport report = new CsvImportReport();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+    private volatile boolean cancelRequested;
+    private volatile Future<?> future;
+
+    // Data records covered by committed chunks; a resumed run skips this many
+    private volatile long rowsCommitted;
+
+    private volatile long activeMillis;
+    private volatile long runStartedNanos;
+
+    ImportJob(String id, String fileName, Path file) {
+        this.id = id;
+        this.fileName = fileName;
+        this.file = file;
+    }
+
+    public String getId() { return id; }
+
+    public String getFileName() { return fileName; }
+
+    public Status getStatus() { return status; }
+
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+
+    public String getError() { return error; }
+
+    public CsvImportReport getReport() { return report; }
+
+    public long getRowsCommitted() { return rowsCommitted; }
+
+    public boolean isResumable() {
+        return status == Status.FAILED || status == Status.CANCELLED;
+    }
+
+    public long getElapsedMillis() {
+        long elapsed = activeMillis;
+        if (status == Status.RUNNING) {
+            elapsed += (System.nanoTime() - runStartedNanos) / 1_000_000;
+        }
+        return elapsed;
+    }
+
+    public long getRowsPerSecond() {
+        long elapsed = getElapsedMillis();
+        return elapsed == 0 ? 0 : report.getRowsParsed() * 1000 / elapsed;
+    }
+
+    @JsonIgnore
+    public Path getFile() { return file; }
+
+    @JsonIgnore
+    public boolean isCancelRequested() { return cancelRequested; }
+
+    void requestCancel() { cancelRequested = true; }
+
+    void setFuture(Future<?> future) { this.future = future; }
+
+    Future<?> getFuture() { return future; }
+
+    void setRowsCommitted(long rowsCommitted) { this.rowsCommitted = rowsCommitted; }
+
+    void queued() {
+        cancelRequested = false;
+        status = Status.QUEUED;
+        error = null;
+        finishedAt = null;
+    }
+
+    void started() {
+        if (startedAt == null) {
+            startedAt = LocalDateTime.now();
+        }
+        runStartedNanos = System.nanoTime();
+        status = Status.RUNNING;
+    }
+
+    void finished(Status outcome, String error) {
+        if (status == Status.RUNNING) {
+            activeMillis += (System.nanoTime() - runStartedNanos) / 1_000_000;
+        }
+        this.error = error;
+        finishedAt = LocalDateTime.now();
+        status = outcome;
+    }
+}
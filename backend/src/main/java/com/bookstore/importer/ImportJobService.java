@@ -0,0 +1,197 @@
+// ImportJobService.java
+package com.bookstore.importer;
+
+import com.bookstore.service.BookService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs CSV imports as background jobs. Imports execute one at a time on a single
+ * worker with a bounded queue, so a burst of uploads queues rather than competing
+ * for the database; each import still only reports the rows it inserted itself.
+ */
+@Service
+public class ImportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportJobService.class);
+
+    private static final int MAX_FINISHED_JOBS = 20;
+
+    @Autowired
+    private BookCsvImporter importer;
+
+    @Autowired
+    private BookService bookService;
+
+    @Value("${catalog.import.queue-capacity:4}")
+    private int queueCapacity;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "csv-import");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public ImportJob submit(MultipartFile file) throws IOException {
+        Path path = Files.createTempFile("book-import-", ".csv");
+        try {
+            file.transferTo(path);
+        } catch (IOException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), file.getOriginalFilename(), path);
+        jobs.put(job.getId(), job);
+        try {
+            schedule(job);
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            deleteFile(job);
+            throw new IllegalStateException("Too many imports are queued, try again later");
+        }
+        evictFinishedJobs();
+        return job;
+    }
+
+    public Optional<ImportJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    public List<ImportJob> getJobs() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing(ImportJob::getSubmittedAt).reversed())
+                .toList();
+    }
+
+    public ImportJob cancel(String id) {
+        ImportJob job = findJob(id);
+        if (job.getStatus().isFinished()) {
+            throw new IllegalStateException("Import has already finished");
+        }
+        job.requestCancel();
+        if (job.getStatus() == ImportJob.Status.QUEUED) {
+            Future<?> future = job.getFuture();
+            if (future != null) {
+                future.cancel(false);
+            }
+            job.finished(ImportJob.Status.CANCELLED, null);
+        }
+        // A running job stops before its next chunk and marks itself cancelled
+        return job;
+    }
+
+    public ImportJob resume(String id) {
+        ImportJob job = findJob(id);
+        if (!job.isResumable()) {
+            throw new IllegalStateException("Only failed or cancelled imports can be resumed");
+        }
+        if (!Files.exists(job.getFile())) {
+            throw new IllegalStateException("The uploaded file is no longer available");
+        }
+        try {
+            schedule(job);
+        } catch (RejectedExecutionException e) {
+            job.finished(ImportJob.Status.CANCELLED, "Too many imports are queued, try again later");
+            throw new IllegalStateException("Too many imports are queued, try again later");
+        }
+        return job;
+    }
+
+    private ImportJob findJob(String id) {
+        ImportJob job = jobs.get(id);
+        if (job == null) {
+            throw new RuntimeException("Import job not found");
+        }
+        return job;
+    }
+
+    private void schedule(ImportJob job) {
+        job.queued();
+        job.setFuture(executor.submit(() -> runJob(job)));
+    }
+
+    private void runJob(ImportJob job) {
+        if (job.isCancelRequested()) {
+            job.finished(ImportJob.Status.CANCELLED, null);
+            return;
+        }
+
+        job.started();
+        long addedBefore = job.getReport().getBooksAdded();
+        ImportJob.Status outcome;
+        String error = null;
+        try (InputStream input = Files.newInputStream(job.getFile())) {
+            outcome = importer.run(job, input, bookService::indexImported)
+                    ? ImportJob.Status.COMPLETED
+                    : ImportJob.Status.CANCELLED;
+        } catch (Exception e) {
+            logger.error("Import {} failed after {} committed rows", job.getId(), job.getRowsCommitted(), e);
+            outcome = ImportJob.Status.FAILED;
+            error = e.getMessage();
+        }
+
+        if (job.getReport().getBooksAdded() > addedBefore) {
+            bookService.reloadCatalog();
+        }
+        if (outcome == ImportJob.Status.COMPLETED) {
+            deleteFile(job);
+        }
+        job.finished(outcome, error);
+    }
+
+    // Keeps the most recent finished jobs; older ones are dropped along with their files
+    private void evictFinishedJobs() {
+        List<ImportJob> finished = jobs.values().stream()
+                .filter(job -> job.getStatus().isFinished())
+                .sorted(Comparator.comparing(ImportJob::getFinishedAt, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+        for (int i = 0; i < finished.size() - MAX_FINISHED_JOBS; i++) {
+            ImportJob job = finished.get(i);
+            jobs.remove(job.getId());
+            deleteFile(job);
+        }
+    }
+
+    private void deleteFile(ImportJob job) {
+        try {
+            Files.deleteIfExists(job.getFile());
+        } catch (IOException e) {
+            logger.warn("Could not delete import file {}", job.getFile(), e);
+        }
+    }
+}
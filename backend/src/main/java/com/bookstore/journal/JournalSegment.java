@@ -0,0 +1,168 @@
+// JournalSegment.java
+package com.bookstore.journal;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.zip.CRC32C;
+
+/**
+ * One fixed-size file of the order journal, memory-mapped for its whole length and
+ * named after the sequence of its first event. Each frame is a payload length, a
+ * CRC32C of the payload, then the payload. The file is zero-filled when created, so
+ * a zero length marks where the written frames end.
+ *
+ * A frame's bytes are written before {@code end} moves past it, so readers in this
+ * process that read {@code end} first only ever see complete frames.
+ */
+final class JournalSegment {
+
+    static final int FRAME_HEADER = 8;
+
+    private final Path file;
+    private final long baseSequence;
+    private final MappedByteBuffer buffer;
+
+    private volatile int end;
+    private volatile long lastSequence;
+    private volatile boolean sealed;
+
+    private JournalSegment(Path file, long baseSequence, MappedByteBuffer buffer) {
+        this.file = file;
+        this.baseSequence = baseSequence;
+        this.buffer = buffer;
+        this.lastSequence = baseSequence - 1;
+    }
+
+    static String fileName(long baseSequence) {
+        return String.format("%020d.log", baseSequence);
+    }
+
+    static long baseSequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - ".log".length()));
+    }
+
+    static JournalSegment create(Path directory, long baseSequence, int size) throws IOException {
+        Path file = directory.resolve(fileName(baseSequence));
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(size);
+            MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            return new JournalSegment(file, baseSequence, buffer);
+        }
+    }
+
+    /**
+     * Maps an existing segment and finds the end of its valid frames. A torn frame from
+     * a crash fails its checksum and ends the scan; in the segment that will be written
+     * next, everything from there on is zeroed so it cannot be mistaken for data later.
+     */
+    static JournalSegment open(Path file, boolean writable) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), writable ? "rw" : "r")) {
+            MappedByteBuffer buffer = raf.getChannel().map(
+                    writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, 0, raf.length());
+            JournalSegment segment = new JournalSegment(file, baseSequenceOf(file), buffer);
+            segment.recover(writable);
+            if (!writable) {
+                segment.sealed = true;
+            }
+            return segment;
+        }
+    }
+
+    private void recover(boolean writable) {
+        int position = 0;
+        int lastFrame = -1;
+        while (true) {
+            int length = validFrameLength(position);
+            if (length < 0) {
+                break;
+            }
+            lastFrame = position;
+            position += FRAME_HEADER + length;
+        }
+        end = position;
+        if (lastFrame >= 0) {
+            lastSequence = read(lastFrame).getSequence();
+        }
+
+        if (writable) {
+            for (int i = position; i < buffer.capacity(); i++) {
+                if (buffer.get(i) != 0) {
+                    buffer.put(i, (byte) 0);
+                }
+            }
+        }
+    }
+
+    // Payload length of an intact frame at the position, or -1
+    private int validFrameLength(int position) {
+        if (position + FRAME_HEADER > buffer.capacity()) {
+            return -1;
+        }
+        int length = buffer.getInt(position);
+        if (length <= 0 || length > buffer.capacity() - position - FRAME_HEADER) {
+            return -1;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(position + FRAME_HEADER, length));
+        return (int) crc.getValue() == buffer.getInt(position + 4) ? length : -1;
+    }
+
+    /** Appends a frame if it fits; the caller serializes appends. */
+    boolean tryAppend(byte[] payload, long sequence) {
+        int position = end;
+        if (position + FRAME_HEADER + payload.length > buffer.capacity()) {
+            return false;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        buffer.put(position + FRAME_HEADER, payload);
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.putInt(position, payload.length);
+        lastSequence = sequence;
+        end = position + FRAME_HEADER + payload.length;
+        return true;
+    }
+
+    OrderEvent read(int position) {
+        int length = buffer.getInt(position);
+        ByteBuffer payload = buffer.slice(position + FRAME_HEADER, length);
+        return OrderEventCodec.decode(payload);
+    }
+
+    int nextPosition(int position) {
+        return position + FRAME_HEADER + buffer.getInt(position);
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void seal() {
+        sealed = true;
+    }
+
+    boolean isSealed() {
+        return sealed;
+    }
+
+    int end() {
+        return end;
+    }
+
+    long getBaseSequence() {
+        return baseSequence;
+    }
+
+    long getLastSequence() {
+        return lastSequence;
+    }
+
+    Path getFile() {
+        return file;
+    }
+}
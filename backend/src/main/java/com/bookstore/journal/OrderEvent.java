@@ -0,0 +1,95 @@
+// OrderEvent.java
+package com.bookstore.journal;
+
+import com.bookstore.entity.Order;
+import com.bookstore.entity.OrderItem;
+import com.bookstore.entity.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One entry of the order journal. Created events carry the order's lines so a consumer
+ * can rebuild sales figures by replay; status events carry the old and new status.
+ * The sequence is assigned by the journal when the event is appended.
+ */
+public final class OrderEvent {
+
+    public enum Type {
+        ORDER_CREATED, STATUS_CHANGED, CANCELLED
+    }
+
+    private final long sequence;
+    private final Instant timestamp;
+    private final Type type;
+    private final long orderId;
+    private final Long userId;
+    private final OrderStatus fromStatus;
+    private final OrderStatus toStatus;
+    private final BigDecimal totalAmount;
+    private final List<Line> lines;
+
+    OrderEvent(long sequence, Instant timestamp, Type type, long orderId, Long userId,
+               OrderStatus fromStatus, OrderStatus toStatus, BigDecimal totalAmount, List<Line> lines) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.type = type;
+        this.orderId = orderId;
+        this.userId = userId;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+        this.totalAmount = totalAmount;
+        this.lines = List.copyOf(lines);
+    }
+
+    public static OrderEvent created(Order order) {
+        List<Line> lines = new ArrayList<>();
+        if (order.getOrderItems() != null) {
+            for (OrderItem item : order.getOrderItems()) {
+                lines.add(new Line(item.getBook().getId(), item.getQuantity(), item.getPrice()));
+            }
+        }
+        Long userId = order.getUser() == null ? null : order.getUser().getId();
+        return new OrderEvent(0, Instant.now(), Type.ORDER_CREATED, order.getId(), userId,
+                null, order.getStatus(), order.getTotalAmount(), lines);
+    }
+
+    public static OrderEvent statusChanged(Order order, OrderStatus from, OrderStatus to) {
+        Type type = to == OrderStatus.CANCELLED ? Type.CANCELLED : Type.STATUS_CHANGED;
+        Long userId = order.getUser() == null ? null : order.getUser().getId();
+        return new OrderEvent(0, Instant.now(), type, order.getId(), userId,
+                from, to, order.getTotalAmount(), List.of());
+    }
+
+    OrderEvent withSequence(long sequence) {
+        return new OrderEvent(sequence, timestamp, type, orderId, userId, fromStatus, toStatus, totalAmount, lines);
+    }
+
+    public long getSequence() { return sequence; }
+    public Instant getTimestamp() { return timestamp; }
+    public Type getType() { return type; }
+    public long getOrderId() { return orderId; }
+    public Long getUserId() { return userId; }
+    public OrderStatus getFromStatus() { return fromStatus; }
+    public OrderStatus getToStatus() { return toStatus; }
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public List<Line> getLines() { return lines; }
+
+    public static final class Line {
+        private final long bookId;
+        private final int quantity;
+        private final BigDecimal price;
+
+        public Line(long bookId, int quantity, BigDecimal price) {
+            this.bookId = bookId;
+            this.quantity = quantity;
+            this.price = price;
+        }
+
+        public long getBookId() { return bookId; }
+        public int getQuantity() { return quantity; }
+        public BigDecimal getPrice() { return price; }
+    }
+}
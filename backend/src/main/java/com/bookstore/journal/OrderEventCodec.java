@@ -0,0 +1,128 @@
+// OrderEventCodec.java
+package com.bookstore.journal;
+
+import com.bookstore.entity.OrderStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary form of an order event. Integers are LEB128 varints, signed ones zigzag
+ * encoded, so a typical status change takes about twenty bytes and a created event a
+ * few more per line. Amounts are written as scale plus unscaled value.
+ *
+ * Layout: version, sequence, epoch millis, type, order id, user id + 1 (0 = none),
+ * from status ordinal + 1 (0 = none), to status likewise, total, line count, then
+ * book id, quantity and price per line.
+ */
+final class OrderEventCodec {
+
+    private static final int VERSION = 1;
+    private static final OrderEvent.Type[] TYPES = OrderEvent.Type.values();
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private OrderEventCodec() {}
+
+    static byte[] encode(OrderEvent event) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32 + event.getLines().size() * 12);
+        writeVarLong(out, VERSION);
+        writeVarLong(out, event.getSequence());
+        writeVarLong(out, event.getTimestamp().toEpochMilli());
+        writeVarLong(out, event.getType().ordinal());
+        writeVarLong(out, event.getOrderId());
+        writeVarLong(out, event.getUserId() == null ? 0 : event.getUserId() + 1);
+        writeVarLong(out, event.getFromStatus() == null ? 0 : event.getFromStatus().ordinal() + 1);
+        writeVarLong(out, event.getToStatus() == null ? 0 : event.getToStatus().ordinal() + 1);
+        writeAmount(out, event.getTotalAmount());
+        writeVarLong(out, event.getLines().size());
+        for (OrderEvent.Line line : event.getLines()) {
+            writeVarLong(out, line.getBookId());
+            writeVarLong(out, line.getQuantity());
+            writeAmount(out, line.getPrice());
+        }
+        return out.toByteArray();
+    }
+
+    static OrderEvent decode(ByteBuffer in) {
+        long version = readVarLong(in);
+        if (version != VERSION) {
+            throw new IllegalStateException("Unsupported order event version " + version);
+        }
+        long sequence = readVarLong(in);
+        Instant timestamp = Instant.ofEpochMilli(readVarLong(in));
+        OrderEvent.Type type = TYPES[(int) readVarLong(in)];
+        long orderId = readVarLong(in);
+        long user = readVarLong(in);
+        OrderStatus from = status(readVarLong(in));
+        OrderStatus to = status(readVarLong(in));
+        BigDecimal total = readAmount(in);
+        int lineCount = (int) readVarLong(in);
+        List<OrderEvent.Line> lines = new ArrayList<>(lineCount);
+        for (int i = 0; i < lineCount; i++) {
+            long bookId = readVarLong(in);
+            int quantity = (int) readVarLong(in);
+            lines.add(new OrderEvent.Line(bookId, quantity, readAmount(in)));
+        }
+        return new OrderEvent(sequence, timestamp, type, orderId, user == 0 ? null : user - 1,
+                from, to, total, lines);
+    }
+
+    // Scale 0 stands for null; otherwise the stored scale is one more than the real one
+    private static void writeAmount(ByteArrayOutputStream out, BigDecimal amount) {
+        if (amount == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        BigInteger unscaled = amount.unscaledValue();
+        if (amount.scale() < 0 || unscaled.bitLength() > 63) {
+            throw new IllegalArgumentException("Amount cannot be journaled: " + amount);
+        }
+        writeVarLong(out, amount.scale() + 1);
+        writeVarLong(out, zigzag(unscaled.longValue()));
+    }
+
+    private static BigDecimal readAmount(ByteBuffer in) {
+        int scale = (int) readVarLong(in);
+        if (scale == 0) {
+            return null;
+        }
+        return BigDecimal.valueOf(unzigzag(readVarLong(in)), scale - 1);
+    }
+
+    private static OrderStatus status(long code) {
+        return code == 0 ? null : STATUSES[(int) code - 1];
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint in order journal");
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
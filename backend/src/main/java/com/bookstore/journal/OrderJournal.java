@@ -0,0 +1,337 @@
+// OrderJournal.java
+package com.bookstore.journal;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of order events on memory-mapped segment files. Every event
+ * gets the next sequence number; when a segment is full a new one starts at that
+ * sequence. Events are appended after the order change commits, so the journal never
+ * holds a change that was rolled back, while a crash between commit and append can
+ * drop an event: the orders table stays the record of truth.
+ *
+ * Durability follows {@code orders.journal.fsync}: ALWAYS forces each append to disk,
+ * INTERVAL forces pending appends on a timer, NONE leaves it to the operating system.
+ * Readers in this process tail the journal through {@link OrderJournalReader} or
+ * {@link #subscribe}.
+ *
+ * The journal is off unless {@code orders.journal.enabled} is set, and then needs
+ * {@code orders.journal.dir}, an absolute path for the segments. Only the
+ * newest {@code orders.journal.retention-segments} segments are kept (0 keeps all);
+ * older ones are deleted when the journal rolls, so a consumer that falls further
+ * behind resumes at {@link #getFirstSequence} and must rebuild the gap from the orders
+ * table.
+ */
+@Component
+public class OrderJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderJournal.class);
+
+    public enum FsyncPolicy {
+        NONE, INTERVAL, ALWAYS
+    }
+
+    @Value("${orders.journal.enabled:false}")
+    private boolean enabled;
+
+    @Value("${orders.journal.dir:}")
+    private String directoryName;
+
+    @Value("${orders.journal.segment-size-mb:64}")
+    private int segmentSizeMb;
+
+    @Value("${orders.journal.fsync:INTERVAL}")
+    private FsyncPolicy fsyncPolicy;
+
+    @Value("${orders.journal.fsync-interval-ms:1000}")
+    private long fsyncIntervalMillis;
+
+    @Value("${orders.journal.retention-segments:16}")
+    private int retentionSegments;
+
+    private final ConcurrentSkipListMap<Long, JournalSegment> segments = new ConcurrentSkipListMap<>();
+    private final Object appended = new Object();
+
+    private Path directory;
+    private volatile JournalSegment active;
+    private volatile long lastSequence;
+    private volatile boolean dirty;
+    private ScheduledExecutorService flusher;
+
+    @PostConstruct
+    void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        if (directoryName == null || directoryName.isBlank()) {
+            throw new IllegalStateException("orders.journal.dir must be set when the order journal is enabled");
+        }
+        directory = Paths.get(directoryName);
+        if (!directory.isAbsolute()) {
+            throw new IllegalStateException("orders.journal.dir must be an absolute path: " + directoryName);
+        }
+        Files.createDirectories(directory);
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(file -> file.getFileName().toString().endsWith(".log"))
+                    .sorted()
+                    .toList();
+        }
+        for (int i = 0; i < files.size(); i++) {
+            JournalSegment segment = JournalSegment.open(files.get(i), i == files.size() - 1);
+            segments.put(segment.getBaseSequence(), segment);
+        }
+        if (segments.isEmpty()) {
+            segments.put(1L, JournalSegment.create(directory, 1, segmentSize()));
+        }
+        active = segments.lastEntry().getValue();
+        lastSequence = active.getLastSequence();
+        synchronized (this) {
+            removeExpiredSegments();
+        }
+
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "order-journal-fsync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::forceIfDirty, fsyncIntervalMillis, fsyncIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        logger.info("Order journal opened at {}: {} segments, last sequence {}, fsync {}",
+                directory.toAbsolutePath(), segments.size(), lastSequence, fsyncPolicy);
+    }
+
+    @PreDestroy
+    void close() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        if (active != null && fsyncPolicy != FsyncPolicy.NONE) {
+            active.force();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    /** The oldest sequence still retained; earlier events have been deleted. */
+    public long getFirstSequence() {
+        return segments.firstKey();
+    }
+
+    /**
+     * Journals an event for a change that has already committed. Failures are logged
+     * rather than thrown, since the change itself cannot be undone at this point.
+     */
+    public void record(OrderEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            append(event);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Could not journal {} for order {}", event.getType(), event.getOrderId(), e);
+        }
+    }
+
+    /** Appends the event and returns the sequence it was given. */
+    public long append(OrderEvent event) throws IOException {
+        if (!enabled) {
+            throw new IllegalStateException("Order journal is disabled");
+        }
+        long sequence;
+        synchronized (this) {
+            sequence = lastSequence + 1;
+            byte[] payload = OrderEventCodec.encode(event.withSequence(sequence));
+            if (!active.tryAppend(payload, sequence)) {
+                roll(sequence);
+                if (!active.tryAppend(payload, sequence)) {
+                    throw new IllegalArgumentException("Order event of " + payload.length + " bytes exceeds the segment size");
+                }
+            }
+            lastSequence = sequence;
+            if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                active.force();
+            } else {
+                dirty = true;
+            }
+        }
+        synchronized (appended) {
+            appended.notifyAll();
+        }
+        return sequence;
+    }
+
+    /** A reader positioned after the given sequence; 0 reads from the oldest event. */
+    public OrderJournalReader openReader(long afterSequence) {
+        if (!enabled) {
+            throw new IllegalStateException("Order journal is disabled");
+        }
+        return new OrderJournalReader(this, afterSequence);
+    }
+
+    /** Up to {@code limit} events after the given sequence, without waiting for more. */
+    public List<OrderEvent> read(long afterSequence, int limit) {
+        OrderJournalReader reader = openReader(afterSequence);
+        List<OrderEvent> events = new ArrayList<>(Math.min(limit, 1024));
+        OrderEvent event;
+        while (events.size() < limit && (event = reader.poll()) != null) {
+            events.add(event);
+        }
+        return events;
+    }
+
+    /**
+     * Delivers every event after {@code afterSequence} to the consumer on a dedicated
+     * thread, then keeps tailing. A consumer that throws stops its subscription; it can
+     * resubscribe after the last sequence it handled.
+     */
+    public Subscription subscribe(String name, long afterSequence, Consumer<OrderEvent> consumer) {
+        OrderJournalReader reader = openReader(afterSequence);
+        Subscription subscription = new Subscription(name, reader);
+        Thread thread = new Thread(() -> {
+            while (subscription.running) {
+                OrderEvent event = reader.poll();
+                if (event == null) {
+                    try {
+                        awaitAppend(reader.getLastSequence(), 1000);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    continue;
+                }
+                try {
+                    consumer.accept(event);
+                } catch (RuntimeException e) {
+                    logger.error("Order journal subscriber {} stopped at sequence {}", name, event.getSequence(), e);
+                    subscription.running = false;
+                }
+            }
+        }, "order-journal-" + name);
+        thread.setDaemon(true);
+        subscription.thread = thread;
+        thread.start();
+        return subscription;
+    }
+
+    /** Waits until an event after the given sequence exists or the timeout passes. */
+    boolean awaitAppend(long afterSequence, long timeoutMillis) throws InterruptedException {
+        synchronized (appended) {
+            if (lastSequence <= afterSequence) {
+                appended.wait(timeoutMillis);
+            }
+        }
+        return lastSequence > afterSequence;
+    }
+
+    // The segment holding the sequence, or the oldest one when it has been removed
+    JournalSegment segmentFor(long sequence) {
+        Map.Entry<Long, JournalSegment> entry = segments.floorEntry(sequence);
+        return entry != null ? entry.getValue() : segments.firstEntry().getValue();
+    }
+
+    JournalSegment segmentAfter(JournalSegment segment) {
+        Map.Entry<Long, JournalSegment> entry = segments.higherEntry(segment.getBaseSequence());
+        return entry == null ? null : entry.getValue();
+    }
+
+    // Called with the append lock held
+    private void roll(long nextSequence) throws IOException {
+        JournalSegment full = active;
+        if (fsyncPolicy != FsyncPolicy.NONE) {
+            full.force();
+        }
+        JournalSegment next = JournalSegment.create(directory, nextSequence, segmentSize());
+        segments.put(nextSequence, next);
+        active = next;
+        full.seal();
+        logger.info("Order journal rolled to segment {}", next.getFile().getFileName());
+        removeExpiredSegments();
+    }
+
+    // Called with the append lock held. A reader still inside a removed segment keeps
+    // reading its mapping and then moves on to the oldest segment left.
+    private void removeExpiredSegments() {
+        if (retentionSegments <= 0) {
+            return;
+        }
+        while (segments.size() > retentionSegments) {
+            JournalSegment expired = segments.pollFirstEntry().getValue();
+            try {
+                Files.deleteIfExists(expired.getFile());
+                logger.info("Order journal removed segment {}", expired.getFile().getFileName());
+            } catch (IOException e) {
+                logger.warn("Could not delete order journal segment {}", expired.getFile(), e);
+            }
+        }
+    }
+
+    private void forceIfDirty() {
+        if (dirty) {
+            dirty = false;
+            try {
+                active.force();
+            } catch (RuntimeException e) {
+                logger.warn("Order journal fsync failed", e);
+                dirty = true;
+            }
+        }
+    }
+
+    private int segmentSize() {
+        return segmentSizeMb * 1024 * 1024;
+    }
+
+    public static final class Subscription implements AutoCloseable {
+        private final String name;
+        private final OrderJournalReader reader;
+        private volatile boolean running = true;
+        private volatile Thread thread;
+
+        private Subscription(String name, OrderJournalReader reader) {
+            this.name = name;
+            this.reader = reader;
+        }
+
+        public String getName() { return name; }
+
+        public boolean isRunning() { return running; }
+
+        /** Sequence of the last event read; after a failure, the event the consumer rejected. */
+        public long getLastSequence() { return reader.getLastSequence(); }
+
+        @Override
+        public void close() {
+            running = false;
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+    }
+}
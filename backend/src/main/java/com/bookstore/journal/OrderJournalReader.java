@@ -0,0 +1,62 @@
+// OrderJournalReader.java
+package com.bookstore.journal;
+
+/**
+ * Tails the order journal from a sequence onwards, moving to the next segment when the
+ * current one is sealed. Not thread-safe: each consumer uses its own reader.
+ */
+public class OrderJournalReader {
+
+    private final OrderJournal journal;
+    private JournalSegment segment;
+    private int position;
+    private volatile long lastSequence;
+
+    OrderJournalReader(OrderJournal journal, long afterSequence) {
+        this.journal = journal;
+        this.segment = journal.segmentFor(afterSequence + 1);
+        this.lastSequence = afterSequence;
+    }
+
+    /** The next event, or null when the reader has caught up with the writer. */
+    public OrderEvent poll() {
+        while (true) {
+            if (position < segment.end()) {
+                OrderEvent event = segment.read(position);
+                position = segment.nextPosition(position);
+                // Skips what precedes the starting sequence in its segment
+                if (event.getSequence() <= lastSequence) {
+                    continue;
+                }
+                lastSequence = event.getSequence();
+                return event;
+            }
+            if (!segment.isSealed()) {
+                return null;
+            }
+            // Sealing follows the segment's last append, so end() is final once sealed is seen
+            if (position < segment.end()) {
+                continue;
+            }
+            JournalSegment next = journal.segmentAfter(segment);
+            if (next == null) {
+                return null;
+            }
+            segment = next;
+            position = 0;
+        }
+    }
+
+    /** Waits up to the timeout for the next event; null if none arrived. */
+    public OrderEvent take(long timeoutMillis) throws InterruptedException {
+        OrderEvent event = poll();
+        if (event == null && journal.awaitAppend(lastSequence, timeoutMillis)) {
+            event = poll();
+        }
+        return event;
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+}
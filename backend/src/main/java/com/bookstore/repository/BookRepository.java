@@ -1,12 +1,20 @@
 // BookRepository.java
 package com.bookstore.repository;
 
+import com.bookstore.dto.BookSummary;
 import com.bookstore.entity.Book;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
@@ -14,6 +22,24 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     List<Book> findByAuthorContainingIgnoreCase(String author);
     List<Book> findByCategory(String category);
     
+    // Constructor expression for list rows, which never read the description LOB
+    String SUMMARY = "new com.bookstore.dto.BookSummary(b.id, b.title, b.author, b.price, b.category, b.stock)";
+    
+    @Query("SELECT " + SUMMARY + " FROM Book b ORDER BY b.id")
+    List<BookSummary> findAllSummaries();
+    
+    @Query("SELECT " + SUMMARY + " FROM Book b WHERE b.id IN :ids")
+    List<BookSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Cursor-backed streams for writing large lists; callers hold a read-only transaction
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("SELECT " + SUMMARY + " FROM Book b ORDER BY b.id")
+    Stream<BookSummary> streamSummaries();
+    
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("SELECT " + SUMMARY + " FROM Book b WHERE b.category = :category ORDER BY b.id")
+    Stream<BookSummary> streamSummariesByCategory(@Param("category") String category);
+    
     @Query("SELECT b FROM Book b WHERE " +
            "LOWER(b.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(b.author) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
@@ -21,4 +47,35 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     
     @Query("SELECT DISTINCT b.category FROM Book b")
     List<String> findAllCategories();
+    
+    @Query("SELECT b.category, COUNT(b), SUM(CASE WHEN b.stock > 0 THEN 1 ELSE 0 END) FROM Book b GROUP BY b.category ORDER BY b.category")
+    List<Object[]> countBooksByCategory();
+    
+    @Query("SELECT i.book.id, SUM(i.quantity) FROM OrderItem i GROUP BY i.book.id")
+    List<Object[]> sumUnitsSoldByBook();
+    
+    long countByStockLessThan(Integer stock);
+    
+    @Query("SELECT b.stock FROM Book b WHERE b.id = :id")
+    Optional<Integer> findStockById(@Param("id") Long id);
+    
+    // Keyset pagination: seek past the last (sort key, id) seen instead of using OFFSET.
+    // The leading ">=" on the sort key gives Derby a start position on the (key, id) index.
+    @Query("SELECT " + SUMMARY + " FROM Book b ORDER BY b.id")
+    List<BookSummary> findPageOrderById(Pageable pageable);
+    
+    @Query("SELECT " + SUMMARY + " FROM Book b WHERE b.id > :id ORDER BY b.id")
+    List<BookSummary> findPageAfterId(@Param("id") Long id, Pageable pageable);
+    
+    @Query("SELECT " + SUMMARY + " FROM Book b ORDER BY b.title, b.id")
+    List<BookSummary> findPageOrderByTitle(Pageable pageable);
+    
+    @Query("SELECT " + SUMMARY + " FROM Book b WHERE b.title >= :title AND (b.title > :title OR b.id > :id) ORDER BY b.title, b.id")
+    List<BookSummary> findPageAfterTitle(@Param("title") String title, @Param("id") Long id, Pageable pageable);
+    
+    @Query("SELECT " + SUMMARY + " FROM Book b ORDER BY b.price, b.id")
+    List<BookSummary> findPageOrderByPrice(Pageable pageable);
+    
+    @Query("SELECT " + SUMMARY + " FROM Book b WHERE b.price >= :price AND (b.price > :price OR b.id > :id) ORDER BY b.price, b.id")
+    List<BookSummary> findPageAfterPrice(@Param("price") BigDecimal price, @Param("id") Long id, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+// OrderBatchWriter.java
+package com.bookstore.repository;
+
+import com.bookstore.entity.Order;
+import com.bookstore.entity.OrderItem;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes a new order and its lines with plain JDBC. Order ids are IDENTITY columns,
+ * which stops Hibernate from batching the inserts; here the order row costs one
+ * statement and all of its lines share a single batch whatever the cart size.
+ */
+@Repository
+public class OrderBatchWriter {
+
+    private static final String INSERT_ORDER_SQL =
+            "INSERT INTO orders (user_id, order_date, total_amount, status, address) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ITEM_SQL =
+            "INSERT INTO order_items (order_id, book_id, quantity, price) VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_IDEMPOTENCY_KEY_SQL =
+            "INSERT INTO order_idempotency_keys (user_id, idempotency_key, order_id, created_at) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the order and its items in the caller's transaction and sets the
+     * generated order id. The order is not attached to the persistence context.
+     */
+    public Order insert(Order order) {
+        insertAll(List.of(order));
+        return order;
+    }
+
+    /**
+     * Inserts several orders in the caller's transaction: one statement per order row
+     * for its generated id, then the items of every order in a single batch.
+     */
+    public void insertAll(List<Order> orders) {
+        List<OrderItem> items = new ArrayList<>();
+        for (Order order : orders) {
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(INSERT_ORDER_SQL, Statement.RETURN_GENERATED_KEYS);
+                ps.setLong(1, order.getUser().getId());
+                ps.setTimestamp(2, Timestamp.valueOf(order.getOrderDate()));
+                ps.setBigDecimal(3, order.getTotalAmount());
+                ps.setString(4, order.getStatus().name());
+                ps.setString(5, order.getAddress());
+                return ps;
+            }, keyHolder);
+            order.setId(keyHolder.getKey().longValue());
+            items.addAll(order.getOrderItems());
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, items, items.size(), OrderBatchWriter::bindItem);
+    }
+
+    /**
+     * Records the order created for a client's idempotency key. Throws
+     * {@link org.springframework.dao.DuplicateKeyException} when the user has already
+     * used the key; the caller's transaction should then roll back.
+     */
+    public void insertIdempotencyKey(Long userId, String idempotencyKey, Long orderId) {
+        jdbcTemplate.update(INSERT_IDEMPOTENCY_KEY_SQL, userId, idempotencyKey, orderId,
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private static void bindItem(PreparedStatement ps, OrderItem item) throws SQLException {
+        ps.setLong(1, item.getOrder().getId());
+        ps.setLong(2, item.getBook().getId());
+        ps.setInt(3, item.getQuantity());
+        ps.setBigDecimal(4, item.getPrice());
+    }
+}
@@ -0,0 +1,15 @@
+// OrderIdempotencyKeyRepository.java
+package com.bookstore.repository;
+
+import com.bookstore.entity.OrderIdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface OrderIdempotencyKeyRepository extends JpaRepository<OrderIdempotencyKey, Long> {
+    @Query("SELECT k.orderId FROM OrderIdempotencyKey k WHERE k.userId = :userId AND k.idempotencyKey = :key")
+    Optional<Long> findOrderId(@Param("userId") Long userId, @Param("key") String key);
+}
@@ -1,14 +1,43 @@
 // OrderRepository.java
 package com.bookstore.repository;
 
+import com.bookstore.dto.OrderLineRow;
 import com.bookstore.entity.Order;
+import com.bookstore.entity.OrderStatus;
 import com.bookstore.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
-    List<Order> findByUserOrderByOrderDateDesc(User user);
-    List<Order> findAllByOrderByOrderDateDesc();
-}
\ No newline at end of file
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
+    // Order listings as flat rows: order, customer, item and book in one statement,
+    // newest order first with each order's rows adjacent
+    String LINE_ROWS = "SELECT new com.bookstore.dto.OrderLineRow(o.id, o.orderDate, o.totalAmount, o.status, o.address, " +
+            "u.id, u.username, u.email, i.id, i.quantity, i.price, b.id, b.title, b.author, b.category, b.price) " +
+            "FROM Order o LEFT JOIN o.user u LEFT JOIN o.orderItems i LEFT JOIN i.book b ";
+    String LINE_ROWS_ORDER = " ORDER BY o.orderDate DESC, o.id DESC, i.id";
+
+    @Query(LINE_ROWS + "WHERE o.user = :user" + LINE_ROWS_ORDER)
+    List<OrderLineRow> findLineRowsByUser(@Param("user") User user);
+
+    // Per-status order count and revenue; seeds the dashboard counters at startup
+    @Query("SELECT o.status, COUNT(o), SUM(o.totalAmount) FROM Order o GROUP BY o.status")
+    List<Object[]> summarizeByStatus();
+
+    // Conditional transition; fewer rows than ids means another transaction changed a status first
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :to WHERE o.id IN :ids AND o.status = :from")
+    int updateStatusIfCurrent(@Param("ids") Collection<Long> ids, @Param("from") OrderStatus from, @Param("to") OrderStatus to);
+
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderItems WHERE o.id IN :ids")
+    List<Order> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Loads a page whose ids were selected by findPageIds
+    @Query(LINE_ROWS + "WHERE o.id IN :ids" + LINE_ROWS_ORDER)
+    List<OrderLineRow> findLineRowsByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,14 @@
+// OrderRepositoryCustom.java
+package com.bookstore.repository;
+
+import com.bookstore.dto.OrderFilter;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OrderRepositoryCustom {
+    /**
+     * Ids of the orders matching {@code filter}, newest first by (order date, id),
+     * starting after the given pair when it is not null.
+     */
+    List<Long> findPageIds(OrderFilter filter, LocalDateTime afterOrderDate, Long afterId, int limit);
+}
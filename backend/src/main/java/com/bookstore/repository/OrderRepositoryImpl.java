@@ -0,0 +1,66 @@
+// OrderRepositoryImpl.java
+package com.bookstore.repository;
+
+import com.bookstore.dto.OrderFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the admin listing query from the filters that are actually set, so each
+ * combination gets a plain predicate list the indexes on orders can serve. Only ids
+ * are selected here; the page is then loaded with one projection query.
+ */
+public class OrderRepositoryImpl implements OrderRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> findPageIds(OrderFilter filter, LocalDateTime afterOrderDate, Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder("SELECT o.id FROM Order o WHERE 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+
+        if (filter.getStatus() != null) {
+            jpql.append(" AND o.status = :status");
+            params.put("status", filter.getStatus());
+        }
+        if (filter.getFrom() != null) {
+            jpql.append(" AND o.orderDate >= :from");
+            params.put("from", filter.getFrom().atStartOfDay());
+        }
+        if (filter.getTo() != null) {
+            jpql.append(" AND o.orderDate < :to");
+            params.put("to", filter.getTo().plusDays(1).atStartOfDay());
+        }
+        if (filter.getUsername() != null) {
+            jpql.append(" AND o.user.username = :username");
+            params.put("username", filter.getUsername());
+        }
+        if (filter.getMinTotal() != null) {
+            jpql.append(" AND o.totalAmount >= :minTotal");
+            params.put("minTotal", filter.getMinTotal());
+        }
+        if (filter.getMaxTotal() != null) {
+            jpql.append(" AND o.totalAmount <= :maxTotal");
+            params.put("maxTotal", filter.getMaxTotal());
+        }
+        // Keyset seek: strictly below the last (order date, id) of the previous page; the
+        // leading "<=" bounds the index scan, the disjunction only drops the ties already seen
+        if (afterOrderDate != null) {
+            jpql.append(" AND o.orderDate <= :afterDate AND (o.orderDate < :afterDate OR o.id < :afterId)");
+            params.put("afterDate", afterOrderDate);
+            params.put("afterId", afterId);
+        }
+        jpql.append(" ORDER BY o.orderDate DESC, o.id DESC");
+
+        TypedQuery<Long> query = entityManager.createQuery(jpql.toString(), Long.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+}
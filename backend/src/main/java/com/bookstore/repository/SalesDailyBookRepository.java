@@ -0,0 +1,27 @@
+// SalesDailyBookRepository.java
+package com.bookstore.repository;
+
+import com.bookstore.dto.BookSales;
+import com.bookstore.dto.DailySales;
+import com.bookstore.entity.SalesDailyBook;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SalesDailyBookRepository extends JpaRepository<SalesDailyBook, Long> {
+    // Best sellers by units over a range; the book join only supplies display fields
+    @Query("SELECT new com.bookstore.dto.BookSales(r.bookId, b.title, b.author, SUM(r.units), SUM(r.revenue)) " +
+           "FROM SalesDailyBook r LEFT JOIN Book b ON b.id = r.bookId " +
+           "WHERE r.saleDay BETWEEN :from AND :to " +
+           "GROUP BY r.bookId, b.title, b.author ORDER BY SUM(r.units) DESC, r.bookId")
+    List<BookSales> findTopBooks(@Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+
+    @Query("SELECT new com.bookstore.dto.DailySales(r.saleDay, r.units, r.revenue) FROM SalesDailyBook r " +
+           "WHERE r.bookId = :bookId AND r.saleDay BETWEEN :from AND :to ORDER BY r.saleDay")
+    List<DailySales> findDailyByBook(@Param("bookId") Long bookId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
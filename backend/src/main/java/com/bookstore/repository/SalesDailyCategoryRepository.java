@@ -0,0 +1,25 @@
+// SalesDailyCategoryRepository.java
+package com.bookstore.repository;
+
+import com.bookstore.dto.CategorySales;
+import com.bookstore.dto.DailySales;
+import com.bookstore.entity.SalesDailyCategory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SalesDailyCategoryRepository extends JpaRepository<SalesDailyCategory, Long> {
+    // Every sale is in exactly one category row, so summing a day's categories gives the day's total
+    @Query("SELECT new com.bookstore.dto.DailySales(c.saleDay, SUM(c.units), SUM(c.revenue)) FROM SalesDailyCategory c " +
+           "WHERE c.saleDay BETWEEN :from AND :to GROUP BY c.saleDay ORDER BY c.saleDay")
+    List<DailySales> findDailyTotals(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new com.bookstore.dto.CategorySales(c.saleDay, c.category, SUM(c.units), SUM(c.revenue)) FROM SalesDailyCategory c " +
+           "WHERE c.saleDay BETWEEN :from AND :to AND (:category IS NULL OR c.category = :category) " +
+           "GROUP BY c.saleDay, c.category ORDER BY c.saleDay, c.category")
+    List<CategorySales> findDaily(@Param("from") LocalDate from, @Param("to") LocalDate to, @Param("category") String category);
+}
@@ -0,0 +1,94 @@
+// SalesBackfillJob.java
+package com.bookstore.rollup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress of a rollup backfill. Days are rebuilt independently, so a day that fails
+ * does not stop the others and the same range can simply be run again.
+ */
+public class SalesBackfillJob {
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    private final LocalDate from;
+    private final LocalDate to;
+    private final int parallelism;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final long startedNanos = System.nanoTime();
+    private final AtomicInteger daysRebuilt = new AtomicInteger();
+    private final AtomicInteger daysFailed = new AtomicInteger();
+
+    private volatile Status status = Status.RUNNING;
+    private volatile LocalDateTime finishedAt;
+    private volatile long elapsedMillis;
+    private volatile String error;
+
+    SalesBackfillJob(LocalDate from, LocalDate to, int parallelism) {
+        this.from = from;
+        this.to = to;
+        this.parallelism = parallelism;
+    }
+
+    public LocalDate getFrom() { return from; }
+
+    public LocalDate getTo() { return to; }
+
+    public int getParallelism() { return parallelism; }
+
+    public Status getStatus() { return status; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+
+    public String getError() { return error; }
+
+    public long getDaysTotal() {
+        return ChronoUnit.DAYS.between(from, to) + 1;
+    }
+
+    public int getDaysRebuilt() { return daysRebuilt.get(); }
+
+    public int getDaysFailed() { return daysFailed.get(); }
+
+    public long getElapsedMillis() {
+        return status == Status.RUNNING ? (System.nanoTime() - startedNanos) / 1_000_000 : elapsedMillis;
+    }
+
+    boolean isRunning() {
+        return status == Status.RUNNING;
+    }
+
+    void dayRebuilt() {
+        daysRebuilt.incrementAndGet();
+    }
+
+    // Keeps the first error; the log has the rest
+    synchronized void dayFailed(LocalDate day, Exception e) {
+        daysFailed.incrementAndGet();
+        if (error == null) {
+            error = day + ": " + e.getMessage();
+        }
+    }
+
+    void finished() {
+        elapsedMillis = (System.nanoTime() - startedNanos) / 1_000_000;
+        finishedAt = LocalDateTime.now();
+        status = daysFailed.get() == 0 ? Status.COMPLETED : Status.FAILED;
+    }
+
+    void failed(Exception e) {
+        if (error == null) {
+            error = e.getMessage();
+        }
+        elapsedMillis = (System.nanoTime() - startedNanos) / 1_000_000;
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+}
@@ -0,0 +1,91 @@
+// SalesDeltas.java
+package com.bookstore.rollup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Changes to the daily rollups, summed per (day, book) and (day, category, stripe). Rows
+ * come out sorted by day and then by key, the order of the rollup tables' unique
+ * indexes, so every writer locks rollup rows in the same order.
+ *
+ * A book's sales always go to the same stripe of its category, chosen by book id, so
+ * two checkouts only share a category row when they share a book row as well or their
+ * books happen to fall in the same one of {@value #CATEGORY_STRIPES} stripes.
+ */
+public final class SalesDeltas {
+
+    static final String UNCATEGORIZED = "Uncategorized";
+    static final int CATEGORY_STRIPES = 16;
+
+    private final Map<LocalDate, Map<Long, Row>> books = new TreeMap<>();
+    private final Map<LocalDate, Map<CategoryStripe, Row>> categories = new TreeMap<>();
+
+    public void add(LocalDate day, Long bookId, String category, long units, BigDecimal revenue) {
+        String categoryKey = category == null ? UNCATEGORIZED : category;
+        books.computeIfAbsent(day, d -> new TreeMap<>())
+                .computeIfAbsent(bookId, id -> new Row(day, id))
+                .add(units, revenue);
+        categories.computeIfAbsent(day, d -> new TreeMap<>())
+                .computeIfAbsent(new CategoryStripe(categoryKey, stripeOf(bookId)), c -> new Row(day, c))
+                .add(units, revenue);
+    }
+
+    static int stripeOf(long bookId) {
+        return (int) Math.floorMod(bookId, (long) CATEGORY_STRIPES);
+    }
+
+    public boolean isEmpty() {
+        return books.isEmpty();
+    }
+
+    List<Row> bookRows() {
+        return rows(books);
+    }
+
+    List<Row> categoryRows() {
+        return rows(categories);
+    }
+
+    // Rows that cancel out, such as an order cancelled and restored in one batch, are skipped
+    private static List<Row> rows(Map<LocalDate, ? extends Map<?, Row>> byDay) {
+        List<Row> rows = new ArrayList<>();
+        for (Map<?, Row> day : byDay.values()) {
+            for (Row row : day.values()) {
+                if (row.units != 0 || row.revenue.signum() != 0) {
+                    rows.add(row);
+                }
+            }
+        }
+        return rows;
+    }
+
+    record CategoryStripe(String category, int stripe) implements Comparable<CategoryStripe> {
+        @Override
+        public int compareTo(CategoryStripe other) {
+            int byCategory = category.compareTo(other.category);
+            return byCategory != 0 ? byCategory : Integer.compare(stripe, other.stripe);
+        }
+    }
+
+    static final class Row {
+        final LocalDate day;
+        final Object key;
+        long units;
+        BigDecimal revenue = BigDecimal.ZERO;
+
+        Row(LocalDate day, Object key) {
+            this.day = day;
+            this.key = key;
+        }
+
+        void add(long units, BigDecimal revenue) {
+            this.units += units;
+            this.revenue = this.revenue.add(revenue);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+// SalesRollupBackfill.java
+package com.bookstore.rollup;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Rebuilds the daily rollups from order history. The date range is split in halves on
+ * a fork/join pool until each task holds one day, and every day is recomputed and
+ * replaced in its own transaction, so live orders keep flowing and a rerun over the
+ * same range is harmless. One backfill runs at a time.
+ */
+@Service
+public class SalesRollupBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesRollupBackfill.class);
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private SalesRollupWriter salesRollupWriter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Each worker holds a connection while it rebuilds a day
+    @Value("${sales.rollup.backfill-parallelism:4}")
+    private int parallelism;
+
+    private TransactionTemplate dayTransaction;
+    private volatile SalesBackfillJob currentJob;
+
+    @PostConstruct
+    void init() {
+        dayTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Starts a backfill over the inclusive range. Without a start date it begins at the
+     * first order; without an end date it runs through today.
+     */
+    public synchronized SalesBackfillJob start(LocalDate from, LocalDate to) {
+        if (currentJob != null && currentJob.isRunning()) {
+            throw new IllegalStateException("A sales backfill is already running");
+        }
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from;
+        if (start == null) {
+            LocalDate firstOrderDay = salesRollupWriter.earliestOrderDay();
+            start = firstOrderDay == null || firstOrderDay.isAfter(end) ? end : firstOrderDay;
+        }
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+
+        SalesBackfillJob job = new SalesBackfillJob(start, end, parallelism);
+        currentJob = job;
+        Thread runner = new Thread(() -> run(job), "sales-backfill");
+        runner.setDaemon(true);
+        runner.start();
+        return job;
+    }
+
+    public Optional<SalesBackfillJob> getCurrentJob() {
+        return Optional.ofNullable(currentJob);
+    }
+
+    private void run(SalesBackfillJob job) {
+        logger.info("Sales backfill started for {} to {} with {} workers", job.getFrom(), job.getTo(), parallelism);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            Map<Long, String> categories = new ConcurrentHashMap<>(salesRollupWriter.loadCategories());
+            pool.invoke(new DayRange(job, categories, job.getFrom(), job.getTo()));
+            job.finished();
+            logger.info("Sales backfill finished: {} days rebuilt, {} failed in {} ms",
+                    job.getDaysRebuilt(), job.getDaysFailed(), job.getElapsedMillis());
+        } catch (Exception e) {
+            logger.error("Sales backfill failed", e);
+            job.failed(e);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void rebuildDay(SalesBackfillJob job, Map<Long, String> categories, LocalDate day) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Set<Long> missing = dayTransaction.execute(status -> {
+                    Set<Long> unknown = salesRollupWriter.rebuildDay(day, categories);
+                    if (!unknown.isEmpty()) {
+                        status.setRollbackOnly();
+                    }
+                    return unknown;
+                });
+                if (missing.isEmpty()) {
+                    job.dayRebuilt();
+                    return;
+                }
+                // Books added since the backfill started; deleted ones are filed as uncategorized
+                categories.putAll(salesRollupWriter.loadCategories());
+                missing.forEach(bookId -> categories.putIfAbsent(bookId, SalesDeltas.UNCATEGORIZED));
+            } catch (ConcurrencyFailureException | DuplicateKeyException e) {
+                // A checkout or status change touched the same day; the rebuild starts over
+                if (attempt >= MAX_ATTEMPTS) {
+                    logger.warn("Sales backfill gave up on {} after {} attempts", day, attempt, e);
+                    job.dayFailed(day, e);
+                    return;
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Sales backfill failed for {}", day, e);
+                job.dayFailed(day, e);
+                return;
+            }
+        }
+    }
+
+    // Splits the range in half until a task covers a single day
+    private class DayRange extends RecursiveAction {
+        private final SalesBackfillJob job;
+        private final Map<Long, String> categories;
+        private final LocalDate from;
+        private final LocalDate to;
+
+        DayRange(SalesBackfillJob job, Map<Long, String> categories, LocalDate from, LocalDate to) {
+            this.job = job;
+            this.categories = categories;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (from.equals(to)) {
+                rebuildDay(job, categories, from);
+                return;
+            }
+            LocalDate middle = from.plusDays(ChronoUnit.DAYS.between(from, to) / 2);
+            invokeAll(new DayRange(job, categories, from, middle),
+                    new DayRange(job, categories, middle.plusDays(1), to));
+        }
+    }
+}
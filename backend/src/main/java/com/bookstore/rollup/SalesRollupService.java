@@ -0,0 +1,186 @@
+// SalesRollupService.java
+package com.bookstore.rollup;
+
+import com.bookstore.catalog.CatalogCache;
+import com.bookstore.dto.BookSales;
+import com.bookstore.dto.BookSummary;
+import com.bookstore.dto.CategorySales;
+import com.bookstore.dto.DailySales;
+import com.bookstore.entity.Book;
+import com.bookstore.entity.Order;
+import com.bookstore.entity.OrderItem;
+import com.bookstore.entity.OrderStatus;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.SalesDailyBookRepository;
+import com.bookstore.repository.SalesDailyCategoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Daily sales rollups per book and per category, kept in step with orders inside the
+ * transactions that write them: placing an order adds its lines to the order's day,
+ * and moving an order into or out of CANCELLED subtracts or restores them. Reports
+ * read only the rollup tables, so their cost follows the number of days and books in
+ * range rather than the number of orders.
+ *
+ * A sale is filed under the category its book has when the sale is recorded; a
+ * backfill files it under the book's current category.
+ */
+@Service
+public class SalesRollupService {
+
+    public static final int MAX_RANGE_DAYS = 366;
+    public static final int MAX_TOP_BOOKS = 100;
+    private static final int DEFAULT_RANGE_DAYS = 30;
+
+    @Autowired
+    private SalesRollupWriter salesRollupWriter;
+
+    @Autowired
+    private SalesDailyBookRepository salesDailyBookRepository;
+
+    @Autowired
+    private SalesDailyCategoryRepository salesDailyCategoryRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    /**
+     * Adds new orders to the rollups. Call after their stock is reserved and before the
+     * orders are inserted, keeping the lock order described on {@link SalesRollupWriter}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void ordersPlaced(Collection<Order> orders) {
+        List<Order> counted = new ArrayList<>();
+        for (Order order : orders) {
+            if (order.getStatus() != OrderStatus.CANCELLED) {
+                counted.add(order);
+            }
+        }
+        apply(counted, 1);
+    }
+
+    /**
+     * Moves orders from their current status to {@code to}. Call after any restocking
+     * and before the order rows themselves are updated, for the same reason as above.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void ordersStatusChanged(Collection<Order> orders, OrderStatus to) {
+        boolean counted = to != OrderStatus.CANCELLED;
+        List<Order> changed = new ArrayList<>();
+        for (Order order : orders) {
+            boolean wasCounted = order.getStatus() != OrderStatus.CANCELLED;
+            if (wasCounted != counted) {
+                changed.add(order);
+            }
+        }
+        apply(changed, counted ? 1 : -1);
+    }
+
+    public List<DailySales> getDailyTotals(LocalDate from, LocalDate to) {
+        LocalDate start = rangeStart(from, to);
+        return salesDailyCategoryRepository.findDailyTotals(start, rangeEnd(to));
+    }
+
+    public List<CategorySales> getCategorySales(LocalDate from, LocalDate to, String category) {
+        LocalDate start = rangeStart(from, to);
+        String filter = category == null || category.isBlank() ? null : category.trim();
+        return salesDailyCategoryRepository.findDaily(start, rangeEnd(to), filter);
+    }
+
+    public List<DailySales> getBookSales(Long bookId, LocalDate from, LocalDate to) {
+        LocalDate start = rangeStart(from, to);
+        return salesDailyBookRepository.findDailyByBook(bookId, start, rangeEnd(to));
+    }
+
+    public List<BookSales> getTopBooks(LocalDate from, LocalDate to, int limit) {
+        if (limit < 1 || limit > MAX_TOP_BOOKS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_TOP_BOOKS);
+        }
+        LocalDate start = rangeStart(from, to);
+        return salesDailyBookRepository.findTopBooks(start, rangeEnd(to), PageRequest.of(0, limit));
+    }
+
+    private void apply(List<Order> orders, int sign) {
+        Set<Long> bookIds = new HashSet<>();
+        for (Order order : orders) {
+            for (OrderItem item : lines(order)) {
+                bookIds.add(item.getBook().getId());
+            }
+        }
+        if (bookIds.isEmpty()) {
+            return;
+        }
+        Map<Long, String> categories = categoriesOf(bookIds);
+
+        SalesDeltas deltas = new SalesDeltas();
+        for (Order order : orders) {
+            LocalDate day = order.getOrderDate().toLocalDate();
+            for (OrderItem item : lines(order)) {
+                Long bookId = item.getBook().getId();
+                long units = (long) sign * item.getQuantity();
+                BigDecimal revenue = item.getPrice().multiply(BigDecimal.valueOf(units));
+                deltas.add(day, bookId, categories.get(bookId), units, revenue);
+            }
+        }
+        salesRollupWriter.apply(deltas);
+    }
+
+    private static List<OrderItem> lines(Order order) {
+        return order.getOrderItems() == null ? List.of() : order.getOrderItems();
+    }
+
+    // Categories come from the catalog snapshot; only books it lacks cost a query
+    private Map<Long, String> categoriesOf(Set<Long> bookIds) {
+        Map<Long, String> categories = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        for (Long bookId : bookIds) {
+            Book book = catalogCache.isLoaded() ? catalogCache.snapshot().getBook(bookId) : null;
+            if (book != null) {
+                categories.put(bookId, book.getCategory());
+            } else {
+                missing.add(bookId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (BookSummary book : bookRepository.findSummariesByIdIn(missing)) {
+                categories.put(book.getId(), book.getCategory());
+            }
+        }
+        return categories;
+    }
+
+    // Ranges are inclusive, default to the last 30 days and are capped at a year
+    private static LocalDate rangeStart(LocalDate from, LocalDate to) {
+        LocalDate end = rangeEnd(to);
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Date range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+        return start;
+    }
+
+    private static LocalDate rangeEnd(LocalDate to) {
+        return to != null ? to : LocalDate.now();
+    }
+}
@@ -0,0 +1,154 @@
+// SalesRollupWriter.java
+package com.bookstore.rollup;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Writes the daily sales rollups with plain JDBC in the caller's transaction.
+ *
+ * Rollup rows are locked after the books an order reserves and before the order rows
+ * themselves: checkout reserves stock, applies its deltas, then inserts the order;
+ * status changes return any stock, apply their deltas, then update the orders; a day
+ * rebuild deletes the day's rollup rows before reading that day's orders. With book
+ * rows always locked before category stripe rows, and each in index order, these
+ * writers cannot deadlock.
+ */
+@Repository
+public class SalesRollupWriter {
+
+    private static final String UPDATE_BOOK_SQL =
+            "UPDATE sales_daily_book SET units = units + ?, revenue = revenue + ? WHERE sale_day = ? AND book_id = ?";
+    private static final String INSERT_BOOK_SQL =
+            "INSERT INTO sales_daily_book (units, revenue, sale_day, book_id) VALUES (?, ?, ?, ?)";
+    private static final String DELETE_BOOK_DAY_SQL = "DELETE FROM sales_daily_book WHERE sale_day = ?";
+
+    private static final String UPDATE_CATEGORY_SQL =
+            "UPDATE sales_daily_category SET units = units + ?, revenue = revenue + ? " +
+            "WHERE sale_day = ? AND category = ? AND stripe = ?";
+    private static final String INSERT_CATEGORY_SQL =
+            "INSERT INTO sales_daily_category (units, revenue, sale_day, category, stripe) VALUES (?, ?, ?, ?, ?)";
+    private static final String DELETE_CATEGORY_DAY_SQL = "DELETE FROM sales_daily_category WHERE sale_day = ?";
+
+    private static final String DAY_SALES_SQL =
+            "SELECT i.book_id, SUM(CAST(i.quantity AS BIGINT)), SUM(i.quantity * i.price) " +
+            "FROM orders o JOIN order_items i ON i.order_id = o.id " +
+            "WHERE o.order_date >= ? AND o.order_date < ? AND o.status <> 'CANCELLED' " +
+            "GROUP BY i.book_id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /** Adds the deltas to the rollups, creating the rows a day has not had yet. */
+    public void apply(SalesDeltas deltas) {
+        upsert(UPDATE_BOOK_SQL, INSERT_BOOK_SQL, deltas.bookRows(), SalesRollupWriter::bindBookRow);
+        upsert(UPDATE_CATEGORY_SQL, INSERT_CATEGORY_SQL, deltas.categoryRows(), SalesRollupWriter::bindCategoryRow);
+    }
+
+    /**
+     * Replaces one day's rollups with totals recomputed from its orders. Returns the ids
+     * of sold books missing from {@code categories} without writing anything; the caller
+     * should roll back, look them up outside the transaction and try again, since reading
+     * books here could wait on a checkout that is itself waiting on this day's rows.
+     */
+    Set<Long> rebuildDay(LocalDate day, Map<Long, String> categories) {
+        Date sqlDay = Date.valueOf(day);
+        jdbcTemplate.update(DELETE_BOOK_DAY_SQL, sqlDay);
+        jdbcTemplate.update(DELETE_CATEGORY_DAY_SQL, sqlDay);
+
+        SalesDeltas totals = new SalesDeltas();
+        Set<Long> missing = new TreeSet<>();
+        jdbcTemplate.query(DAY_SALES_SQL, rs -> {
+            long bookId = rs.getLong(1);
+            if (!categories.containsKey(bookId)) {
+                missing.add(bookId);
+            } else {
+                totals.add(day, bookId, categories.get(bookId), rs.getLong(2), rs.getBigDecimal(3));
+            }
+        }, Timestamp.valueOf(day.atStartOfDay()), Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
+        if (!missing.isEmpty()) {
+            return missing;
+        }
+
+        insertAll(INSERT_BOOK_SQL, totals.bookRows(), SalesRollupWriter::bindBookRow);
+        insertAll(INSERT_CATEGORY_SQL, totals.categoryRows(), SalesRollupWriter::bindCategoryRow);
+        return missing;
+    }
+
+    Map<Long, String> loadCategories() {
+        Map<Long, String> categories = new HashMap<>();
+        jdbcTemplate.query("SELECT id, category FROM books", rs -> {
+            String category = rs.getString(2);
+            categories.put(rs.getLong(1), category == null ? SalesDeltas.UNCATEGORIZED : category);
+        });
+        return categories;
+    }
+
+    LocalDate earliestOrderDay() {
+        Timestamp first = jdbcTemplate.queryForObject("SELECT MIN(order_date) FROM orders", Timestamp.class);
+        return first == null ? null : first.toLocalDateTime().toLocalDate();
+    }
+
+    private void upsert(String updateSql, String insertSql, List<SalesDeltas.Row> rows,
+                        ParameterizedPreparedStatementSetter<SalesDeltas.Row> binder) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(updateSql, rows, rows.size(), binder);
+
+        List<SalesDeltas.Row> missing = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (counts[0][i] == 0) {
+                missing.add(rows.get(i));
+            }
+        }
+        for (SalesDeltas.Row row : missing) {
+            try {
+                jdbcTemplate.update(insertSql, ps -> binder.setValues(ps, row));
+            } catch (DuplicateKeyException e) {
+                // Another transaction created the row first; add to it instead
+                jdbcTemplate.update(updateSql, ps -> binder.setValues(ps, row));
+            }
+        }
+    }
+
+    private void insertAll(String insertSql, List<SalesDeltas.Row> rows,
+                           ParameterizedPreparedStatementSetter<SalesDeltas.Row> binder) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(insertSql, rows, rows.size(), binder);
+        }
+    }
+
+    private static void bindBookRow(PreparedStatement ps, SalesDeltas.Row row) throws SQLException {
+        bindTotals(ps, row);
+        ps.setLong(4, (Long) row.key);
+    }
+
+    private static void bindCategoryRow(PreparedStatement ps, SalesDeltas.Row row) throws SQLException {
+        bindTotals(ps, row);
+        SalesDeltas.CategoryStripe key = (SalesDeltas.CategoryStripe) row.key;
+        ps.setString(4, key.category());
+        ps.setInt(5, key.stripe());
+    }
+
+    private static void bindTotals(PreparedStatement ps, SalesDeltas.Row row) throws SQLException {
+        ps.setLong(1, row.units);
+        ps.setBigDecimal(2, row.revenue);
+        ps.setDate(3, Date.valueOf(row.day));
+    }
+}
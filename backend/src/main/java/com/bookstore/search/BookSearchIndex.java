@@ -0,0 +1,309 @@
+// BookSearchIndex.java
+package com.bookstore.search;
+
+import com.bookstore.entity.Book;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over the book catalog. Title, author, category and
+ * description are tokenized into one posting list per term; queries are AND-ed
+ * across terms and ranked with BM25 using field-boosted term frequencies.
+ */
+@Component
+public class BookSearchIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private static final float TITLE_BOOST = 3.0f;
+    private static final float AUTHOR_BOOST = 2.0f;
+    private static final float CATEGORY_BOOST = 1.5f;
+    private static final float DESCRIPTION_BOOST = 1.0f;
+
+    // Upper bound on the postings a trailing partial word may pull in; a short prefix
+    // over a large catalog can expand to thousands of terms
+    static final int MAX_PREFIX_POSTINGS = 20_000;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term -> (book id -> boosted term frequency)
+    private final TreeMap<String, Map<Long, Float>> postings = new TreeMap<>();
+
+    // book id -> what was indexed for it, needed to unindex on update/delete
+    private final Map<Long, IndexedBook> books = new HashMap<>();
+
+    private double totalLength;
+
+    private static final class IndexedBook {
+        private final Set<String> terms;
+        private final float length;
+
+        private IndexedBook(Set<String> terms, float length) {
+            this.terms = terms;
+            this.length = length;
+        }
+    }
+
+    public void rebuild(Collection<Book> catalog) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            books.clear();
+            totalLength = 0;
+            for (Book book : catalog) {
+                add(book);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Book book) {
+        if (book == null || book.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            unindex(book.getId());
+            add(book);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void indexAll(Collection<Book> batch) {
+        lock.writeLock().lock();
+        try {
+            for (Book book : batch) {
+                if (book.getId() != null) {
+                    unindex(book.getId());
+                    add(book);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            unindex(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return books.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of books matching every term of the query, best match first.
+     * The last term is treated as a prefix unless the query ends in a separator,
+     * so partially typed words from the storefront search box still match. When the
+     * prefix expands past {@link #MAX_PREFIX_POSTINGS}, only its most frequent
+     * completions are used and the result is marked as truncated.
+     */
+    public Result search(String query) {
+        List<String> tokens = TextAnalyzer.tokenize(query);
+        if (tokens.isEmpty()) {
+            return Result.EMPTY;
+        }
+
+        char lastChar = query.charAt(query.length() - 1);
+        boolean lastIsPrefix = Character.isLetterOrDigit(lastChar);
+        String prefix = lastIsPrefix ? tokens.remove(tokens.size() - 1) : null;
+        Set<String> exactTerms = new LinkedHashSet<>(tokens);
+
+        lock.readLock().lock();
+        try {
+            if (books.isEmpty()) {
+                return Result.EMPTY;
+            }
+            double avgLength = totalLength / books.size();
+
+            List<Map<Long, Float>> clauses = new ArrayList<>();
+            for (String term : exactTerms) {
+                Map<Long, Float> postingList = postings.get(term);
+                if (postingList == null) {
+                    return Result.EMPTY;
+                }
+                clauses.add(score(postingList, avgLength));
+            }
+            boolean truncated = false;
+            if (prefix != null) {
+                List<Map<Long, Float>> expansions =
+                        new ArrayList<>(postings.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values());
+                if (expansions.isEmpty()) {
+                    return Result.EMPTY;
+                }
+                List<Map<Long, Float>> used = withinBudget(expansions);
+                truncated = used.size() < expansions.size();
+                clauses.add(scorePrefix(used, avgLength));
+            }
+
+            return new Result(intersectAndRank(clauses), truncated);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Book book) {
+        Map<String, Float> termFrequencies = new HashMap<>();
+        float length = 0;
+        length += addField(termFrequencies, book.getTitle(), TITLE_BOOST);
+        length += addField(termFrequencies, book.getAuthor(), AUTHOR_BOOST);
+        length += addField(termFrequencies, book.getCategory(), CATEGORY_BOOST);
+        length += addField(termFrequencies, book.getDescription(), DESCRIPTION_BOOST);
+
+        Long id = book.getId();
+        for (Map.Entry<String, Float> entry : termFrequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), k -> new HashMap<>()).put(id, entry.getValue());
+        }
+        books.put(id, new IndexedBook(termFrequencies.keySet(), length));
+        totalLength += length;
+    }
+
+    private static float addField(Map<String, Float> termFrequencies, String text, float boost) {
+        List<String> tokens = TextAnalyzer.tokenize(text);
+        for (String token : tokens) {
+            termFrequencies.merge(token, boost, Float::sum);
+        }
+        return tokens.size() * boost;
+    }
+
+    private void unindex(Long bookId) {
+        IndexedBook previous = books.remove(bookId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms) {
+            Map<Long, Float> postingList = postings.get(term);
+            if (postingList != null) {
+                postingList.remove(bookId);
+                if (postingList.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= previous.length;
+    }
+
+    private Map<Long, Float> score(Map<Long, Float> postingList, double avgLength) {
+        double idf = idf(postingList.size());
+        Map<Long, Float> scores = new HashMap<>(postingList.size() * 2);
+        for (Map.Entry<Long, Float> entry : postingList.entrySet()) {
+            scores.put(entry.getKey(), bm25(idf, entry.getValue(), books.get(entry.getKey()).length, avgLength));
+        }
+        return scores;
+    }
+
+    // The posting lists of a prefix's expansions that fit the postings budget. Over the
+    // budget, the terms in the most books are kept, since they are most likely meant.
+    private static List<Map<Long, Float>> withinBudget(List<Map<Long, Float>> expansions) {
+        long total = 0;
+        for (Map<Long, Float> postingList : expansions) {
+            total += postingList.size();
+        }
+        if (total <= MAX_PREFIX_POSTINGS) {
+            return expansions;
+        }
+
+        List<Map<Long, Float>> postingLists = new ArrayList<>(expansions);
+        postingLists.sort(Comparator.comparingInt((Map<Long, Float> postingList) -> postingList.size()).reversed());
+        List<Map<Long, Float>> kept = new ArrayList<>();
+        long budget = MAX_PREFIX_POSTINGS;
+        for (Map<Long, Float> postingList : postingLists) {
+            // The most frequent completion is always kept, even on its own over budget
+            if (!kept.isEmpty() && postingList.size() > budget) {
+                break;
+            }
+            kept.add(postingList);
+            budget -= postingList.size();
+        }
+        return kept;
+    }
+
+    private Map<Long, Float> scorePrefix(List<Map<Long, Float>> expansions, double avgLength) {
+        Map<Long, Float> scores = new HashMap<>();
+        for (Map<Long, Float> postingList : expansions) {
+            // A book matching several expansions keeps its best one rather than the sum
+            score(postingList, avgLength).forEach((id, s) -> scores.merge(id, s, Math::max));
+        }
+        return scores;
+    }
+
+    private double idf(int documentFrequency) {
+        int n = books.size();
+        return Math.log(1.0 + (n - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private static float bm25(double idf, float tf, float length, double avgLength) {
+        double norm = K1 * (1 - B + B * (avgLength > 0 ? length / avgLength : 1.0));
+        return (float) (idf * (tf * (K1 + 1)) / (tf + norm));
+    }
+
+    /** Ranked ids, and whether a prefix expansion was cut to fit the postings budget. */
+    public static final class Result {
+        static final Result EMPTY = new Result(List.of(), false);
+
+        private final List<Long> ids;
+        private final boolean truncated;
+
+        Result(List<Long> ids, boolean truncated) {
+            this.ids = ids;
+            this.truncated = truncated;
+        }
+
+        public List<Long> getIds() { return ids; }
+        public boolean isTruncated() { return truncated; }
+    }
+
+    private static List<Long> intersectAndRank(List<Map<Long, Float>> clauses) {
+        clauses.sort(Comparator.comparingInt(Map::size));
+        Map<Long, Float> smallest = clauses.get(0);
+
+        List<Map.Entry<Long, Float>> matches = new ArrayList<>();
+        for (Map.Entry<Long, Float> candidate : smallest.entrySet()) {
+            float total = candidate.getValue();
+            boolean matchesAll = true;
+            for (int i = 1; i < clauses.size(); i++) {
+                Float s = clauses.get(i).get(candidate.getKey());
+                if (s == null) {
+                    matchesAll = false;
+                    break;
+                }
+                total += s;
+            }
+            if (matchesAll) {
+                matches.add(Map.entry(candidate.getKey(), total));
+            }
+        }
+
+        matches.sort(Map.Entry.<Long, Float>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+        List<Long> ids = new ArrayList<>(matches.size());
+        for (Map.Entry<Long, Float> match : matches) {
+            ids.add(match.getKey());
+        }
+        return ids;
+    }
+}
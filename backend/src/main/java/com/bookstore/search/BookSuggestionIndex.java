@@ -0,0 +1,371 @@
+// BookSuggestionIndex.java
+package com.bookstore.search;
+
+import com.bookstore.dto.BookSuggestion;
+import com.bookstore.entity.Book;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix trie over book titles and author names for typeahead. Every word start
+ * of a title or author is a key, so "gats" finds "The Great Gatsby". Each node
+ * caches the best {@link #MAX_SUGGESTIONS} completions below it, which makes a
+ * lookup a walk down the prefix plus a copy, independent of catalog size.
+ */
+@Component
+public class BookSuggestionIndex {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final String TITLE = "title";
+    private static final String AUTHOR = "author";
+
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingLong((Entry e) -> e.popularity).reversed()
+            .thenComparing(e -> e.text);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Node root = new Node();
+
+    // "title:<id>" / "author:<normalized name>" -> entry currently in the trie
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    private final Map<Long, Book> booksById = new HashMap<>();
+    private final Map<Long, Long> unitsSold = new HashMap<>();
+    private final Map<String, Set<Long>> booksByAuthor = new HashMap<>();
+
+    private static final class Entry {
+        private final String text;
+        private final String type;
+        private final Long bookId;
+        private final long popularity;
+
+        private Entry(String text, String type, Long bookId, long popularity) {
+            this.text = text;
+            this.type = type;
+            this.bookId = bookId;
+            this.popularity = popularity;
+        }
+    }
+
+    private static final class Node {
+        private char[] labels = new char[0];
+        private Node[] children = new Node[0];
+        private Entry[] terminals = new Entry[0];
+        private Entry[] best = new Entry[0];
+
+        private Node child(char c) {
+            int i = Arrays.binarySearch(labels, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        private Node childOrCreate(char c) {
+            int i = Arrays.binarySearch(labels, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            int at = -i - 1;
+            Node created = new Node();
+            labels = insertChar(labels, at, c);
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, at);
+            grown[at] = created;
+            System.arraycopy(children, at, grown, at + 1, children.length - at);
+            children = grown;
+            return created;
+        }
+
+        private void removeChild(char c) {
+            int i = Arrays.binarySearch(labels, c);
+            if (i < 0) {
+                return;
+            }
+            char[] fewerLabels = new char[labels.length - 1];
+            Node[] fewerChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, fewerLabels, 0, i);
+            System.arraycopy(labels, i + 1, fewerLabels, i, labels.length - i - 1);
+            System.arraycopy(children, 0, fewerChildren, 0, i);
+            System.arraycopy(children, i + 1, fewerChildren, i, children.length - i - 1);
+            labels = fewerLabels;
+            children = fewerChildren;
+        }
+
+        private boolean isEmpty() {
+            return terminals.length == 0 && children.length == 0;
+        }
+
+        private static char[] insertChar(char[] source, int at, char c) {
+            char[] grown = new char[source.length + 1];
+            System.arraycopy(source, 0, grown, 0, at);
+            grown[at] = c;
+            System.arraycopy(source, at, grown, at + 1, source.length - at);
+            return grown;
+        }
+    }
+
+    public void rebuild(Collection<Book> catalog, Map<Long, Long> sales) {
+        lock.writeLock().lock();
+        try {
+            root = new Node();
+            entries.clear();
+            booksById.clear();
+            booksByAuthor.clear();
+            unitsSold.clear();
+            unitsSold.putAll(sales);
+
+            for (Book book : catalog) {
+                if (book.getId() == null) {
+                    continue;
+                }
+                booksById.put(book.getId(), book);
+                String author = authorKey(book);
+                if (author != null) {
+                    booksByAuthor.computeIfAbsent(author, k -> new HashSet<>()).add(book.getId());
+                }
+            }
+            for (Book book : booksById.values()) {
+                refreshTitle(book.getId());
+            }
+            for (String author : booksByAuthor.keySet()) {
+                refreshAuthor(author);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void upsert(Book book) {
+        if (book == null || book.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            String previousAuthor = detach(book.getId());
+            booksById.put(book.getId(), book);
+            String author = authorKey(book);
+            if (author != null) {
+                booksByAuthor.computeIfAbsent(author, k -> new HashSet<>()).add(book.getId());
+                refreshAuthor(author);
+            }
+            if (previousAuthor != null && !previousAuthor.equals(author)) {
+                refreshAuthor(previousAuthor);
+            }
+            refreshTitle(book.getId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            String previousAuthor = detach(bookId);
+            refreshTitle(bookId);
+            if (previousAuthor != null) {
+                refreshAuthor(previousAuthor);
+            }
+            unitsSold.remove(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void recordSale(Long bookId, int quantity) {
+        lock.writeLock().lock();
+        try {
+            unitsSold.merge(bookId, (long) quantity, Long::sum);
+            Book book = booksById.get(bookId);
+            if (book == null) {
+                return;
+            }
+            refreshTitle(bookId);
+            String author = authorKey(book);
+            if (author != null) {
+                refreshAuthor(author);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<BookSuggestion> suggest(String prefix, int limit) {
+        String key = String.join(" ", TextAnalyzer.tokenize(prefix));
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+
+            int n = Math.min(limit, node.best.length);
+            List<BookSuggestion> suggestions = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                Entry e = node.best[i];
+                suggestions.add(new BookSuggestion(e.text, e.type, e.bookId, e.popularity));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Removes the book from the author grouping and returns its former author key
+    private String detach(Long bookId) {
+        Book previous = booksById.remove(bookId);
+        if (previous == null) {
+            return null;
+        }
+        String author = authorKey(previous);
+        if (author != null) {
+            Set<Long> ids = booksByAuthor.get(author);
+            if (ids != null) {
+                ids.remove(bookId);
+                if (ids.isEmpty()) {
+                    booksByAuthor.remove(author);
+                }
+            }
+        }
+        return author;
+    }
+
+    private void refreshTitle(Long bookId) {
+        Book book = booksById.get(bookId);
+        Entry replacement = null;
+        if (book != null && book.getTitle() != null && !book.getTitle().isBlank()) {
+            replacement = new Entry(book.getTitle(), TITLE, bookId, unitsSold.getOrDefault(bookId, 0L));
+        }
+        replace(TITLE + ":" + bookId, replacement);
+    }
+
+    private void refreshAuthor(String author) {
+        Set<Long> ids = booksByAuthor.get(author);
+        Entry replacement = null;
+        if (ids != null && !ids.isEmpty()) {
+            long popularity = 0;
+            String displayName = null;
+            for (Long id : ids) {
+                popularity += unitsSold.getOrDefault(id, 0L);
+                if (displayName == null) {
+                    displayName = booksById.get(id).getAuthor().trim();
+                }
+            }
+            replacement = new Entry(displayName, AUTHOR, null, popularity);
+        }
+        replace(AUTHOR + ":" + author, replacement);
+    }
+
+    private void replace(String entryKey, Entry replacement) {
+        Entry previous = replacement != null ? entries.put(entryKey, replacement) : entries.remove(entryKey);
+        if (previous != null) {
+            for (String key : keysFor(previous.text)) {
+                removeFromPath(key, previous);
+            }
+        }
+        if (replacement != null) {
+            for (String key : keysFor(replacement.text)) {
+                addToPath(key, replacement);
+            }
+        }
+    }
+
+    private void addToPath(String key, Entry entry) {
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].childOrCreate(key.charAt(i));
+        }
+        Node leaf = path[key.length()];
+        leaf.terminals = Arrays.copyOf(leaf.terminals, leaf.terminals.length + 1);
+        leaf.terminals[leaf.terminals.length - 1] = entry;
+        recomputeUpwards(path);
+    }
+
+    private void removeFromPath(String key, Entry entry) {
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].child(key.charAt(i));
+            if (path[i + 1] == null) {
+                return;
+            }
+        }
+        Node leaf = path[key.length()];
+        leaf.terminals = Arrays.stream(leaf.terminals).filter(e -> e != entry).toArray(Entry[]::new);
+
+        for (int i = key.length(); i > 0; i--) {
+            if (path[i].isEmpty()) {
+                path[i - 1].removeChild(key.charAt(i - 1));
+                path[i] = null;
+            }
+        }
+        recomputeUpwards(path);
+    }
+
+    private static void recomputeUpwards(Node[] path) {
+        for (int i = path.length - 1; i >= 0; i--) {
+            if (path[i] != null) {
+                recompute(path[i]);
+            }
+        }
+    }
+
+    private static void recompute(Node node) {
+        List<Entry> candidates = new ArrayList<>(Arrays.asList(node.terminals));
+        for (Node child : node.children) {
+            for (Entry e : child.best) {
+                // The same entry can sit under several word-start keys; count it once
+                if (!containsInstance(candidates, e)) {
+                    candidates.add(e);
+                }
+            }
+        }
+        candidates.sort(RANKING);
+        int n = Math.min(MAX_SUGGESTIONS, candidates.size());
+        node.best = candidates.subList(0, n).toArray(new Entry[0]);
+    }
+
+    private static boolean containsInstance(List<Entry> list, Entry entry) {
+        for (Entry e : list) {
+            if (e == entry) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<String> keysFor(String text) {
+        List<String> tokens = TextAnalyzer.tokenize(text);
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            keys.add(String.join(" ", tokens.subList(i, tokens.size())));
+        }
+        return keys;
+    }
+
+    private static String authorKey(Book book) {
+        if (book.getAuthor() == null || book.getAuthor().isBlank()) {
+            return null;
+        }
+        String key = String.join(" ", TextAnalyzer.tokenize(book.getAuthor()));
+        return key.isEmpty() ? null : key;
+    }
+}
@@ -0,0 +1,289 @@
+// TrigramIndex.java
+package com.bookstore.search;
+
+import com.bookstore.entity.Book;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typo-tolerant lookup over title and author words. The distinct words of the
+ * catalog are indexed by their character trigrams; a misspelled query word is
+ * matched by counting shared trigrams, filtered with the q-gram lemma and then
+ * verified with a bounded edit distance. Work therefore scales with the size of
+ * the vocabulary touched by the query's trigrams, not with the number of books.
+ * Words too short for the lemma to rule anything out, such as a four-letter word
+ * with one typo or a one-letter prefix, are checked against the whole vocabulary
+ * with the same bounded edit distance instead.
+ */
+@Component
+public class TrigramIndex {
+
+    private static final char BOUNDARY = '$';
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Set<Long>> booksByTerm = new HashMap<>();
+    private final Map<String, Set<String>> termsByTrigram = new HashMap<>();
+    private final Map<Long, Set<String>> termsByBook = new HashMap<>();
+
+    public void rebuild(Collection<Book> catalog) {
+        lock.writeLock().lock();
+        try {
+            booksByTerm.clear();
+            termsByTrigram.clear();
+            termsByBook.clear();
+            for (Book book : catalog) {
+                add(book);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Book book) {
+        if (book == null || book.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            unindex(book.getId());
+            add(book);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            unindex(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns ids of books where every query word is within a few edits of some
+     * title or author word, closest matches first.
+     */
+    public List<Long> search(String query) {
+        List<String> tokens = TextAnalyzer.tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        boolean lastIsPrefix = Character.isLetterOrDigit(query.charAt(query.length() - 1));
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(tokens));
+        String lastWord = tokens.get(tokens.size() - 1);
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Float> scores = null;
+            for (String word : words) {
+                boolean prefix = lastIsPrefix && word.equals(lastWord);
+                Map<Long, Float> clause = matchWord(word, prefix);
+                if (clause.isEmpty()) {
+                    return List.of();
+                }
+                if (scores == null) {
+                    scores = clause;
+                } else {
+                    Map<Long, Float> intersection = new HashMap<>();
+                    for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+                        Float s = clause.get(entry.getKey());
+                        if (s != null) {
+                            intersection.put(entry.getKey(), entry.getValue() + s);
+                        }
+                    }
+                    if (intersection.isEmpty()) {
+                        return List.of();
+                    }
+                    scores = intersection;
+                }
+            }
+
+            List<Map.Entry<Long, Float>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Long, Float>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey()));
+            List<Long> ids = new ArrayList<>(ranked.size());
+            for (Map.Entry<Long, Float> entry : ranked) {
+                ids.add(entry.getKey());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // book id -> best similarity of any word within the edit budget
+    private Map<Long, Float> matchWord(String word, boolean prefix) {
+        int maxEdits = maxEdits(word.length());
+        Set<String> grams = trigrams(word, !prefix);
+
+        // q-gram lemma: an insertion, deletion or substitution destroys at most three
+        // trigrams, and an adjacent transposition, one edit here, at most four
+        int minShared = grams.size() - 4 * maxEdits;
+        Collection<String> candidates;
+        if (minShared > 0) {
+            Map<String, Integer> shared = new HashMap<>();
+            for (String gram : grams) {
+                Set<String> terms = termsByTrigram.get(gram);
+                if (terms != null) {
+                    for (String term : terms) {
+                        shared.merge(term, 1, Integer::sum);
+                    }
+                }
+            }
+            candidates = new ArrayList<>();
+            for (Map.Entry<String, Integer> candidate : shared.entrySet()) {
+                if (candidate.getValue() >= minShared) {
+                    candidates.add(candidate.getKey());
+                }
+            }
+        } else {
+            candidates = booksByTerm.keySet();
+        }
+
+        Map<Long, Float> matches = new HashMap<>();
+        for (String term : candidates) {
+            if (!prefix && Math.abs(term.length() - word.length()) > maxEdits) {
+                continue;
+            }
+            int distance = editDistance(word, term, maxEdits, prefix);
+            if (distance > maxEdits) {
+                continue;
+            }
+
+            float similarity = 1.0f - (float) distance / word.length();
+            for (Long bookId : booksByTerm.get(term)) {
+                matches.merge(bookId, similarity, Math::max);
+            }
+        }
+        return matches;
+    }
+
+    private static int maxEdits(int length) {
+        if (length <= 2) {
+            return 0;
+        }
+        return length <= 5 ? 1 : 2;
+    }
+
+    private void add(Book book) {
+        Set<String> terms = new HashSet<>(TextAnalyzer.tokenize(book.getTitle()));
+        terms.addAll(TextAnalyzer.tokenize(book.getAuthor()));
+
+        Long id = book.getId();
+        for (String term : terms) {
+            Set<Long> books = booksByTerm.get(term);
+            if (books == null) {
+                books = new HashSet<>();
+                booksByTerm.put(term, books);
+                for (String gram : trigrams(term, true)) {
+                    termsByTrigram.computeIfAbsent(gram, k -> new HashSet<>()).add(term);
+                }
+            }
+            books.add(id);
+        }
+        termsByBook.put(id, terms);
+    }
+
+    private void unindex(Long bookId) {
+        Set<String> terms = termsByBook.remove(bookId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Set<Long> books = booksByTerm.get(term);
+            if (books == null) {
+                continue;
+            }
+            books.remove(bookId);
+            if (books.isEmpty()) {
+                booksByTerm.remove(term);
+                for (String gram : trigrams(term, true)) {
+                    Set<String> postingList = termsByTrigram.get(gram);
+                    if (postingList != null) {
+                        postingList.remove(term);
+                        if (postingList.isEmpty()) {
+                            termsByTrigram.remove(gram);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static Set<String> trigrams(String term, boolean closeEnd) {
+        String padded = BOUNDARY + term + (closeEnd ? String.valueOf(BOUNDARY) : "");
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Optimal string alignment distance (Levenshtein plus adjacent transpositions),
+     * abandoned as soon as every cell in a row exceeds {@code limit}. In prefix
+     * mode the distance is to the closest prefix of {@code b}; prefixes longer than
+     * {@code a} plus the limit are out of reach, so only those columns are computed.
+     */
+    static int editDistance(String a, String b, int limit, boolean prefix) {
+        int n = a.length();
+        int m = b.length();
+        if (prefix ? m < n - limit : Math.abs(n - m) > limit) {
+            return limit + 1;
+        }
+        if (prefix) {
+            m = Math.min(m, n + limit);
+        }
+
+        int[] previousPrevious = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previousPrevious[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] recycled = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+
+        if (!prefix) {
+            return previous[m];
+        }
+        int best = previous[0];
+        for (int j = 1; j <= m; j++) {
+            best = Math.min(best, previous[j]);
+        }
+        return best;
+    }
+}
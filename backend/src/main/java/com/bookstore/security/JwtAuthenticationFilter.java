@@ -1,8 +1,6 @@
 // JwtAuthenticationFilter.java - COMPLETELY FIXED VERSION
 package com.bookstore.security;
 
-import com.bookstore.service.UserService;
-import com.bookstore.entity.User;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,10 +23,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
     
     @Autowired
-    private JwtUtil jwtUtil;
-    
-    @Autowired
-    private UserService userService;
+    private TokenVerifier tokenVerifier;
     
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
@@ -55,73 +50,48 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         String requestURI = request.getRequestURI();
         String method = request.getMethod();
-        logger.info("Processing authenticated request: {} {}", method, requestURI);
+        logger.debug("Processing authenticated request: {} {}", method, requestURI);
         
         String header = request.getHeader("Authorization");
-        String username = null;
-        String jwt = null;
         
         if (header != null && header.startsWith("Bearer ")) {
-            jwt = header.substring(7);
             logger.debug("Found Bearer token in request");
-            try {
-                username = jwtUtil.getUsernameFromToken(jwt);
-                logger.debug("Extracted username from JWT: {}", username);
-            } catch (Exception e) {
-                logger.error("JWT Token parsing failed: {}", e.getMessage());
-                // Clear any existing authentication
-                SecurityContextHolder.clearContext();
-            }
+            setUpAuthentication(header.substring(7), request);
         } else {
             logger.warn("No Authorization header or Bearer token found for protected endpoint: {}", requestURI);
         }
         
-        // Only proceed if we have a username and no existing authentication
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            try {
-                if (jwtUtil.validateToken(jwt)) {
-                    logger.debug("JWT token is valid, setting up authentication for: {}", username);
-                    setUpAuthentication(username, request);
-                } else {
-                    logger.warn("JWT token validation failed for user: {}", username);
-                    SecurityContextHolder.clearContext();
-                }
-            } catch (Exception e) {
-                logger.error("Error during JWT validation: {}", e.getMessage());
-                SecurityContextHolder.clearContext();
-            }
-        } else if (username == null) {
-            logger.warn("No username extracted from token for protected endpoint: {}", requestURI);
-        }
-        
         filterChain.doFilter(request, response);
     }
     
-    private void setUpAuthentication(String username, HttpServletRequest request) {
+    // The verifier parses the token once and checks revocation and the account's token version
+    private void setUpAuthentication(String token, HttpServletRequest request) {
         try {
-            User user = userService.findByUsername(username).orElse(null);
-            
-            if (user == null) {
-                logger.error("User not found in database for username: {}", username);
+            TokenVerifier.VerifiedToken verified = tokenVerifier.verify(token);
+            if (verified == null) {
+                logger.warn("JWT token rejected for protected endpoint: {}", request.getRequestURI());
                 SecurityContextHolder.clearContext();
                 return;
             }
+            if (SecurityContextHolder.getContext().getAuthentication() != null) {
+                return;
+            }
             
             List<SimpleGrantedAuthority> authorities = List.of(
-                new SimpleGrantedAuthority("ROLE_" + user.getRole().name())
+                new SimpleGrantedAuthority("ROLE_" + verified.getRole())
             );
             
             // CRITICAL FIX: Use username string as principal, not User object
             UsernamePasswordAuthenticationToken authToken = 
-                new UsernamePasswordAuthenticationToken(username, null, authorities);
+                new UsernamePasswordAuthenticationToken(verified.getUsername(), null, authorities);
             authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             
             SecurityContextHolder.getContext().setAuthentication(authToken);
-            logger.info("Authentication successfully set for user: {} with role: {}", username, user.getRole());
+            logger.debug("Authentication successfully set for user: {} with role: {}", verified.getUsername(), verified.getRole());
             
         } catch (Exception e) {
-            logger.error("Error setting up authentication for user {}: {}", username, e.getMessage());
+            logger.error("Error setting up authentication: {}", e.getMessage());
             SecurityContextHolder.clearContext();
         }
     }
-}
\ No newline at end of file
+}
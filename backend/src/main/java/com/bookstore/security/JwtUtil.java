@@ -1,40 +1,60 @@
 // JwtUtil.java
 package com.bookstore.security;
 
+import com.bookstore.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
     
     private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
     
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_VERSION = "ver";
+    
     @Value("${jwt.secret}")
     private String jwtSecret;
     
     @Value("${jwt.expiration}")
     private int jwtExpirationMs;
     
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    // Built once at startup; JwtParser is immutable and safe to share between threads
+    private Key signingKey;
+    private JwtParser parser;
+    
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
     
-    public String generateToken(String username) {
+    // Role and token version travel in the token so requests can be authenticated
+    // without loading the user; see JwtAuthenticationFilter
+    public String generateToken(User user) {
+        String username = user.getUsername();
         try {
             Date now = new Date();
             Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
             
             String token = Jwts.builder()
+                    .setId(UUID.randomUUID().toString())
                     .setSubject(username)
+                    .claim(CLAIM_ROLE, user.getRole().name())
+                    .claim(CLAIM_VERSION, user.getTokenVersion())
                     .setIssuedAt(now)
                     .setExpiration(expiryDate)
-                    .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                    .signWith(signingKey, SignatureAlgorithm.HS256)
                     .compact();
             
             logger.debug("Generated JWT token for user: {}, expires at: {}", username, expiryDate);
@@ -45,84 +65,44 @@ public class JwtUtil {
         }
     }
     
-    public String getUsernameFromToken(String token) {
+    /**
+     * Verifies the signature and expiry and returns the claims, or null when the token
+     * is not valid. Callers that need several claims should parse once and read them
+     * from the result.
+     */
+    public Claims parseToken(String token) {
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-            
-            String username = claims.getSubject();
-            logger.debug("Extracted username from JWT token: {}", username);
-            return username;
+            return parser.parseClaimsJws(token).getBody();
         } catch (ExpiredJwtException e) {
             logger.warn("JWT token has expired: {}", e.getMessage());
-            throw e;
         } catch (UnsupportedJwtException e) {
             logger.error("Unsupported JWT token: {}", e.getMessage());
-            throw e;
         } catch (MalformedJwtException e) {
             logger.error("Malformed JWT token: {}", e.getMessage());
-            throw e;
         } catch (SecurityException e) {
             logger.error("JWT token security exception: {}", e.getMessage());
-            throw e;
         } catch (IllegalArgumentException e) {
             logger.error("JWT token is empty or null: {}", e.getMessage());
-            throw e;
+        } catch (Exception e) {
+            logger.error("Unexpected error validating JWT token: {}", e.getMessage());
         }
+        return null;
     }
     
-    public boolean validateToken(String token) {
-        try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-            
-            // Check if token is expired
-            if (claims.getExpiration().before(new Date())) {
-                logger.warn("JWT token is expired");
-                return false;
-            }
-            
-            logger.debug("JWT token validation successful");
-            return true;
-        } catch (ExpiredJwtException e) {
-            logger.warn("JWT token has expired: {}", e.getMessage());
-            return false;
-        } catch (UnsupportedJwtException e) {
-            logger.error("Unsupported JWT token: {}", e.getMessage());
-            return false;
-        } catch (MalformedJwtException e) {
-            logger.error("Malformed JWT token: {}", e.getMessage());
-            return false;
-        } catch (SecurityException e) {
-            logger.error("JWT token security exception: {}", e.getMessage());
-            return false;
-        } catch (IllegalArgumentException e) {
-            logger.error("JWT token is empty or null: {}", e.getMessage());
-            return false;
-        } catch (Exception e) {
-            logger.error("Unexpected error validating JWT token: {}", e.getMessage());
-            return false;
+    public String getUsernameFromToken(String token) {
+        Claims claims = parseToken(token);
+        if (claims == null) {
+            throw new JwtException("Invalid JWT token");
         }
+        return claims.getSubject();
+    }
+    
+    public boolean validateToken(String token) {
+        return parseToken(token) != null;
     }
     
     public Date getExpirationDateFromToken(String token) {
-        try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-            
-            return claims.getExpiration();
-        } catch (Exception e) {
-            logger.error("Error extracting expiration date from JWT token: {}", e.getMessage());
-            return null;
-        }
+        Claims claims = parseToken(token);
+        return claims == null ? null : claims.getExpiration();
     }
-}
\ No newline at end of file
+}
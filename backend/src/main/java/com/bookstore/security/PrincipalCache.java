@@ -0,0 +1,132 @@
+// PrincipalCache.java
+package com.bookstore.security;
+
+import com.bookstore.entity.UserRole;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Role and token version of recently seen users, so authenticating a request does not
+ * need a user query. Entries are dropped when the account changes; the TTL bounds how
+ * long another instance can keep a stale entry.
+ *
+ * Every request reads this cache, so lookups and inserts go straight to a concurrent
+ * map without a shared lock. Expired entries are skipped on read and removed by a sweep
+ * that runs every {@value #SWEEP_INTERVAL} inserts, or sooner once the map outgrows its
+ * size, on whichever thread gets there first.
+ */
+@Component
+public class PrincipalCache {
+
+    private static final int SWEEP_INTERVAL = 256;
+
+    @Value("${security.principal-cache.size:10000}")
+    private int cacheSize;
+
+    @Value("${security.principal-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private final ConcurrentHashMap<String, Entry> principals = new ConcurrentHashMap<>();
+    private final AtomicInteger insertsSinceSweep = new AtomicInteger();
+    private final ReentrantLock sweepLock = new ReentrantLock();
+
+    // Bumped by every invalidation; a load that started before one is not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    private long ttlNanos;
+
+    @PostConstruct
+    void init() {
+        if (cacheSize < 1) {
+            throw new IllegalArgumentException("Principal cache size must be at least 1");
+        }
+        ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    /** The cached principal, or the loader's result, which is cached unless it is null. */
+    public Principal get(String username, Function<String, Principal> loader) {
+        Entry entry = principals.get(username);
+        if (entry != null && !entry.isExpired(System.nanoTime())) {
+            return entry.principal;
+        }
+        long loadGeneration = generation.get();
+        Principal principal = loader.apply(username);
+        if (principal != null) {
+            Entry loaded = new Entry(principal, System.nanoTime() + ttlNanos);
+            principals.put(username, loaded);
+            // An invalidation that raced the load removes the entry itself or is seen here
+            if (generation.get() != loadGeneration) {
+                principals.remove(username, loaded);
+            }
+            if (insertsSinceSweep.incrementAndGet() >= SWEEP_INTERVAL || principals.size() > cacheSize) {
+                sweep();
+            }
+        }
+        return principal;
+    }
+
+    public void invalidate(String username) {
+        generation.incrementAndGet();
+        principals.remove(username);
+    }
+
+    int size() {
+        return principals.size();
+    }
+
+    // Drops expired entries, then arbitrary ones while the map is over its size; one
+    // thread sweeps at a time and the others carry on
+    private void sweep() {
+        if (!sweepLock.tryLock()) {
+            return;
+        }
+        try {
+            insertsSinceSweep.set(0);
+            long now = System.nanoTime();
+            principals.values().removeIf(entry -> entry.isExpired(now));
+            Iterator<String> it = principals.keySet().iterator();
+            while (principals.size() > cacheSize && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+
+    private static final class Entry {
+        final Principal principal;
+        final long expiresAt;
+
+        Entry(Principal principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+
+    public static final class Principal {
+        private final UserRole role;
+        private final int tokenVersion;
+
+        public Principal(UserRole role, int tokenVersion) {
+            this.role = role;
+            this.tokenVersion = tokenVersion;
+        }
+
+        public UserRole getRole() { return role; }
+        public int getTokenVersion() { return tokenVersion; }
+    }
+}
@@ -0,0 +1,166 @@
+// TokenDenylist.java
+package com.bookstore.security;
+
+import com.bookstore.cache.BloomFilter;
+import com.bookstore.entity.RevokedToken;
+import com.bookstore.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ids (jti) of tokens revoked before their expiry. The revoked_tokens table is the
+ * record; this instance mirrors its unexpired rows in an exact set fronted by a Bloom
+ * filter, so checking a token costs a few hashed bit reads and, only on a filter hit,
+ * one map lookup, with no locking or allocation.
+ *
+ * Revocations made elsewhere are picked up by polling the table every
+ * {@code security.revocation.sync-interval-ms}. Entries are dropped once the token
+ * would have expired anyway, and the filter, which cannot forget keys, is rebuilt.
+ */
+@Component
+public class TokenDenylist {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenDenylist.class);
+
+    // Rows are re-read for this long after a sync, in case an insert committed late
+    private static final long SYNC_OVERLAP_SECONDS = 60;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${security.revocation.expected-tokens:100000}")
+    private int expectedTokens;
+
+    @Value("${security.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${security.revocation.sync-interval-ms:5000}")
+    private long syncIntervalMillis;
+
+    @Value("${security.revocation.purge-interval-ms:600000}")
+    private long purgeIntervalMillis;
+
+    // jti -> expiry in epoch millis
+    private final ConcurrentHashMap<String, Long> expiries = new ConcurrentHashMap<>();
+
+    // Replaced under the lock of this; adds also happen under it so a rebuild misses none
+    private volatile BloomFilter filter;
+
+    // Only used by the scheduler thread once started
+    private LocalDateTime syncedFrom;
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    void init() {
+        LocalDateTime now = LocalDateTime.now();
+        for (RevokedToken token : revokedTokenRepository.findByExpiresAtAfter(now)) {
+            expiries.put(token.getJti(), toMillis(token.getExpiresAt()));
+        }
+        rebuild();
+        syncedFrom = now.minusSeconds(SYNC_OVERLAP_SECONDS);
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-denylist");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::sync, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::purge, purgeIntervalMillis, purgeIntervalMillis, TimeUnit.MILLISECONDS);
+        logger.info("Token denylist loaded with {} revoked tokens", expiries.size());
+    }
+
+    @PreDestroy
+    void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /** Called for every authenticated request. */
+    public boolean isRevoked(String jti) {
+        return filter.mightContain(jti) && expiries.containsKey(jti);
+    }
+
+    /**
+     * Revokes the token until its expiry. It stops working on this instance at once and
+     * on other instances at their next sync. Revoking an expired token does nothing.
+     */
+    public void revoke(String jti, Date expiresAt) {
+        if (jti == null || expiresAt == null || expiresAt.getTime() <= System.currentTimeMillis()) {
+            return;
+        }
+        remember(jti, expiresAt.getTime());
+        try {
+            revokedTokenRepository.save(new RevokedToken(jti,
+                    LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault())));
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Token {} was already revoked", jti);
+        }
+    }
+
+    public int size() {
+        return expiries.size();
+    }
+
+    private synchronized void remember(String jti, long expiresAt) {
+        expiries.put(jti, expiresAt);
+        filter.add(jti);
+        if (expiries.size() > filter.getCapacity()) {
+            rebuild();
+        }
+    }
+
+    // Sized with headroom so the false positive rate holds until the next purge
+    private synchronized void rebuild() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedTokens, expiries.size() * 2), falsePositiveRate);
+        for (String jti : expiries.keySet()) {
+            rebuilt.add(jti);
+        }
+        filter = rebuilt;
+    }
+
+    void sync() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            for (RevokedToken token : revokedTokenRepository.findActiveRevokedSince(syncedFrom, now)) {
+                if (!expiries.containsKey(token.getJti())) {
+                    remember(token.getJti(), toMillis(token.getExpiresAt()));
+                }
+            }
+            syncedFrom = now.minusSeconds(SYNC_OVERLAP_SECONDS);
+        } catch (RuntimeException e) {
+            logger.warn("Token denylist sync failed", e);
+        }
+    }
+
+    void purge() {
+        try {
+            long now = System.currentTimeMillis();
+            if (expiries.values().removeIf(expiresAt -> expiresAt <= now)) {
+                rebuild();
+            }
+            int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+            logger.debug("Purged {} expired revoked tokens, {} remain", deleted, expiries.size());
+        } catch (RuntimeException e) {
+            logger.warn("Token denylist purge failed", e);
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,88 @@
+// TokenVerifier.java
+package com.bookstore.security;
+
+import com.bookstore.entity.User;
+import com.bookstore.service.UserService;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides whether a bearer token still grants access: the signature and expiry hold,
+ * the token has not been revoked, and it carries the account's current token version,
+ * so a token issued before a role, username or password change is refused. The request
+ * filter and the validation endpoint both ask here, so they cannot disagree.
+ *
+ * The token is parsed once. The account's role and token version come from the
+ * principal cache, so a user is loaded at most once per cache TTL.
+ */
+@Component
+public class TokenVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenVerifier.class);
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenDenylist tokenDenylist;
+
+    /** The token's user and role, or null if the token must be refused; the reason is logged. */
+    public VerifiedToken verify(String token) {
+        Claims claims = jwtUtil.parseToken(token);
+        if (claims == null || claims.getSubject() == null) {
+            logger.warn("JWT token is invalid or expired");
+            return null;
+        }
+        String username = claims.getSubject();
+        if (claims.getId() != null && tokenDenylist.isRevoked(claims.getId())) {
+            logger.warn("Revoked JWT token presented for user {}", username);
+            return null;
+        }
+
+        PrincipalCache.Principal principal = principalCache.get(username, this::loadPrincipal);
+        if (principal == null) {
+            logger.error("User not found in database for username: {}", username);
+            return null;
+        }
+
+        // Tokens issued before the claims existed carry no version and count as version 0
+        Integer tokenVersion = claims.get(JwtUtil.CLAIM_VERSION, Integer.class);
+        if ((tokenVersion == null ? 0 : tokenVersion) != principal.getTokenVersion()) {
+            logger.warn("JWT token for user {} predates a change to the account", username);
+            return null;
+        }
+
+        String role = claims.get(JwtUtil.CLAIM_ROLE, String.class);
+        if (role == null) {
+            role = principal.getRole().name();
+        }
+        return new VerifiedToken(username, role);
+    }
+
+    private PrincipalCache.Principal loadPrincipal(String username) {
+        User user = userService.findByUsername(username).orElse(null);
+        return user == null ? null : new PrincipalCache.Principal(user.getRole(), user.getTokenVersion());
+    }
+
+    public static final class VerifiedToken {
+        private final String username;
+        private final String role;
+
+        public VerifiedToken(String username, String role) {
+            this.username = username;
+            this.role = role;
+        }
+
+        public String getUsername() { return username; }
+        public String getRole() { return role; }
+    }
+}
@@ -0,0 +1,134 @@
+// AdminStatsService.java
+package com.bookstore.service;
+
+import com.bookstore.catalog.CatalogCache;
+import com.bookstore.catalog.CatalogSnapshot;
+import com.bookstore.catalog.CategoryFacet;
+import com.bookstore.entity.OrderStatus;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.OrderRepository;
+import com.bookstore.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dashboard figures kept as in-memory counters. Order and customer counters are
+ * seeded from the database once at startup and then moved by the services that
+ * write orders and users. Book figures come from the catalog snapshot, whose facets
+ * are already maintained incrementally and follow stock changes after every order.
+ *
+ * Revenue counts every order that is not cancelled, in cents.
+ */
+@Service
+public class AdminStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminStatsService.class);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    private final Map<OrderStatus, LongAdder> ordersByStatus = new EnumMap<>(OrderStatus.class);
+    private final LongAdder revenueCents = new LongAdder();
+    private final LongAdder users = new LongAdder();
+
+    public AdminStatsService() {
+        for (OrderStatus status : OrderStatus.values()) {
+            ordersByStatus.put(status, new LongAdder());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        for (Object[] row : orderRepository.summarizeByStatus()) {
+            OrderStatus status = (OrderStatus) row[0];
+            ordersByStatus.get(status).add(((Number) row[1]).longValue());
+            if (status != OrderStatus.CANCELLED && row[2] != null) {
+                revenueCents.add(cents((BigDecimal) row[2]));
+            }
+        }
+        users.add(userRepository.count());
+        logger.info("Dashboard counters seeded: {} orders, {} users", totalOrders(), users.sum());
+    }
+
+    public void orderPlaced(OrderStatus status, BigDecimal totalAmount) {
+        ordersByStatus.get(status).increment();
+        if (status != OrderStatus.CANCELLED) {
+            revenueCents.add(cents(totalAmount));
+        }
+    }
+
+    public void orderStatusChanged(OrderStatus from, OrderStatus to, BigDecimal totalAmount) {
+        if (from == to) {
+            return;
+        }
+        ordersByStatus.get(from).decrement();
+        ordersByStatus.get(to).increment();
+        if (from == OrderStatus.CANCELLED) {
+            revenueCents.add(cents(totalAmount));
+        } else if (to == OrderStatus.CANCELLED) {
+            revenueCents.add(-cents(totalAmount));
+        }
+    }
+
+    public void userRegistered() {
+        users.increment();
+    }
+
+    public void userDeleted() {
+        users.decrement();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        ordersByStatus.forEach((status, count) -> byStatus.put(status.name(), count.sum()));
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalOrders", totalOrders());
+        stats.put("ordersByStatus", byStatus);
+        stats.put("totalRevenue", BigDecimal.valueOf(revenueCents.sum(), 2));
+        stats.put("totalCustomers", users.sum());
+        stats.put("lowStockThreshold", CategoryFacet.LOW_STOCK_THRESHOLD);
+        if (catalogCache.isLoaded()) {
+            CatalogSnapshot snapshot = catalogCache.snapshot();
+            stats.put("totalBooks", (long) snapshot.size());
+            stats.put("lowStockBooks", snapshot.getLowStockCount());
+        } else {
+            stats.put("totalBooks", bookRepository.count());
+            stats.put("lowStockBooks", bookRepository.countByStockLessThan(CategoryFacet.LOW_STOCK_THRESHOLD));
+        }
+        return stats;
+    }
+
+    private long totalOrders() {
+        long total = 0;
+        for (LongAdder count : ordersByStatus.values()) {
+            total += count.sum();
+        }
+        return total;
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,70 @@
+// BookPageCursor.java
+package com.bookstore.service;
+
+import com.bookstore.dto.BookSummary;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+
+/**
+ * Opaque keyset-pagination token: the sort order plus the (sort key, id) of the
+ * last book on the previous page, base64url-encoded so clients treat it as a blob.
+ */
+public final class BookPageCursor {
+
+    public enum SortKey {
+        ID, TITLE, PRICE;
+
+        public static SortKey from(String value) {
+            if (value == null || value.isBlank()) {
+                return ID;
+            }
+            try {
+                return SortKey.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported sort: " + value + ". Use title, price or id");
+            }
+        }
+    }
+
+    private static final String SEPARATOR = "\n";
+
+    private final SortKey sort;
+    private final Long lastId;
+    private final String lastKey;
+
+    private BookPageCursor(SortKey sort, Long lastId, String lastKey) {
+        this.sort = sort;
+        this.lastId = lastId;
+        this.lastKey = lastKey;
+    }
+
+    public SortKey getSort() { return sort; }
+    public Long getLastId() { return lastId; }
+    public String getLastKey() { return lastKey; }
+
+    public static String encode(SortKey sort, BookSummary last) {
+        String key = switch (sort) {
+            case TITLE -> last.getTitle();
+            case PRICE -> last.getPrice().toPlainString();
+            case ID -> "";
+        };
+        String raw = sort.name() + SEPARATOR + last.getId() + SEPARATOR + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Returns null for an empty token, meaning "start from the first page"
+    public static BookPageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, 3);
+            return new BookPageCursor(SortKey.valueOf(parts[0]), Long.valueOf(parts[1]), parts[2]);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid pagination cursor");
+        }
+    }
+}
@@ -1,38 +1,140 @@
 // BookService.java
 package com.bookstore.service;
 
+import com.bookstore.catalog.CatalogCache;
+import com.bookstore.catalog.CatalogSnapshot;
+import com.bookstore.catalog.CategoryFacet;
+import com.bookstore.dto.BookSearchResult;
+import com.bookstore.dto.BookSuggestion;
+import com.bookstore.dto.BookSummary;
 import com.bookstore.entity.Book;
 import com.bookstore.repository.BookRepository;
+import com.bookstore.search.BookSearchIndex;
+import com.bookstore.search.BookSuggestionIndex;
+import com.bookstore.search.TrigramIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 @Service
 public class BookService {
     
+    private static final Logger logger = LoggerFactory.getLogger(BookService.class);
+    
+    private static final int MAX_PAGE_SIZE = 200;
+    
+    // Derby caps the size of an IN list
+    private static final int MAX_IDS_PER_QUERY = 1000;
+    
+    private static final String BOOT_STAMP = Long.toString(System.currentTimeMillis(), 36);
+    
     @Autowired
     private BookRepository bookRepository;
     
-    public List<Book> getAllBooks() {
-        return bookRepository.findAll();
+    @Autowired
+    private BookSearchIndex searchIndex;
+    
+    @Autowired
+    private BookSuggestionIndex suggestionIndex;
+    
+    @Autowired
+    private TrigramIndex trigramIndex;
+    
+    @Autowired
+    private CatalogCache catalogCache;
+    
+    @Autowired
+    private BookStreamWriter bookStreamWriter;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildSearchIndexes() {
+        long start = System.currentTimeMillis();
+        List<Book> books = catalogCache.reloadAll();
+        searchIndex.rebuild(books);
+        trigramIndex.rebuild(books);
+        
+        Map<Long, Long> unitsSold = new HashMap<>();
+        for (Object[] row : bookRepository.sumUnitsSoldByBook()) {
+            unitsSold.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        suggestionIndex.rebuild(books, unitsSold);
+        
+        logger.info("Search indexes built for {} books in {} ms", searchIndex.size(), System.currentTimeMillis() - start);
+    }
+    
+    // Storefront reads are served from the catalog snapshot once it has been loaded.
+    // Lists carry summaries; the description is only returned by getBookById.
+    public List<BookSummary> getAllBooks() {
+        if (catalogCache.isLoaded()) {
+            return catalogCache.snapshot().getBooks().stream().map(BookSummary::from).toList();
+        }
+        return bookRepository.findAllSummaries();
+    }
+    
+    // Streamed variants of the list reads: elements are written as they are visited
+    public void writeAllBooks(OutputStream out) throws IOException {
+        if (catalogCache.isLoaded()) {
+            bookStreamWriter.write(summaries(catalogCache.snapshot().getBooks()), out);
+        } else {
+            bookStreamWriter.write(bookRepository::streamSummaries, out);
+        }
+    }
+    
+    public void writeBooksByCategory(String category, OutputStream out) throws IOException {
+        if (catalogCache.isLoaded()) {
+            bookStreamWriter.write(summaries(catalogCache.snapshot().getBooksByCategory(category)), out);
+        } else {
+            bookStreamWriter.write(() -> bookRepository.streamSummariesByCategory(category), out);
+        }
+    }
+    
+    private static Iterable<BookSummary> summaries(List<Book> books) {
+        return () -> books.stream().map(BookSummary::from).iterator();
     }
     
     public Optional<Book> getBookById(Long id) {
+        if (catalogCache.isLoaded()) {
+            return Optional.ofNullable(catalogCache.snapshot().getBook(id));
+        }
         return bookRepository.findById(id);
     }
     
+    public long getCatalogVersion() {
+        return catalogCache.version();
+    }
+    
+    /**
+     * Validator for catalog reads: changes whenever a write or stock change is applied
+     * to the cache. The boot stamp keeps tags from a previous run from matching. Null
+     * until the cache has loaded, since reads then go to the database unversioned.
+     */
+    public String getCatalogETag() {
+        if (!catalogCache.isLoaded()) {
+            return null;
+        }
+        return BOOT_STAMP + "-" + catalogCache.version();
+    }
+    
     public Book addBook(Book book) {
-        return bookRepository.save(book);
+        Book savedBook = bookRepository.save(book);
+        catalogCache.refresh(List.of(savedBook.getId()));
+        indexBook(savedBook);
+        return savedBook;
     }
     
     public Book updateBook(Long id, Book bookDetails) {
@@ -42,87 +144,187 @@ public class BookService {
         book.setTitle(bookDetails.getTitle());
         book.setAuthor(bookDetails.getAuthor());
         book.setPrice(bookDetails.getPrice());
-        book.setDescription(bookDetails.getDescription());
+        // List views never carry the description, so a missing one means "unchanged"
+        if (bookDetails.getDescription() != null) {
+            book.setDescription(bookDetails.getDescription());
+        }
         book.setCategory(bookDetails.getCategory());
         book.setStock(bookDetails.getStock());
         
-        return bookRepository.save(book);
+        Book savedBook = bookRepository.save(book);
+        catalogCache.refresh(List.of(id));
+        indexBook(savedBook);
+        return savedBook;
     }
     
     public void deleteBook(Long id) {
         bookRepository.deleteById(id);
+        catalogCache.refresh(List.of(id));
+        searchIndex.remove(id);
+        trigramIndex.remove(id);
+        suggestionIndex.remove(id);
     }
     
-    public List<Book> searchBooks(String searchTerm) {
-        return bookRepository.searchBooks(searchTerm);
+    private void indexBook(Book book) {
+        searchIndex.index(book);
+        trigramIndex.index(book);
+        suggestionIndex.upsert(book);
     }
     
-    public List<Book> getBooksByCategory(String category) {
-        return bookRepository.findByCategory(category);
+    public List<BookSuggestion> suggest(String prefix, int limit) {
+        return suggestionIndex.suggest(prefix, Math.min(limit, BookSuggestionIndex.MAX_SUGGESTIONS));
     }
     
-    public List<String> getAllCategories() {
-        return bookRepository.findAllCategories();
+    public void recordSale(Long bookId, int quantity) {
+        suggestionIndex.recordSale(bookId, quantity);
+    }
+    
+    // Called after an order commits so the cached stock levels follow the database
+    public void stockChanged(Collection<Long> bookIds) {
+        catalogCache.refresh(bookIds);
     }
     
-    public int uploadBooksFromCSV(MultipartFile file) throws Exception {
-        int booksAdded = 0;
+    public List<BookSummary> searchBooks(String searchTerm) {
+        return searchBooks(searchTerm, false).getBooks();
+    }
+    
+    public BookSearchResult searchBooks(String searchTerm, boolean fuzzy) {
+        if (searchTerm == null || searchTerm.isBlank()) {
+            return new BookSearchResult(getAllBooks(), false);
+        }
+        if (fuzzy) {
+            return new BookSearchResult(loadInOrder(trigramIndex.search(searchTerm)), false);
+        }
+        BookSearchIndex.Result result = searchIndex.search(searchTerm);
+        return new BookSearchResult(loadInOrder(result.getIds()), result.isTruncated());
+    }
+    
+    private List<BookSummary> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
         
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
-            String line;
-            boolean isFirstLine = true;
-            
-            while ((line = reader.readLine()) != null) {
-                if (isFirstLine) {
-                    isFirstLine = false;
-                    continue; // Skip header row
-                }
-                
-                String[] values = line.split(",");
-                if (values.length >= 6) {
-                    try {
-                        Book book = new Book();
-                        book.setTitle(values[0].trim());
-                        book.setAuthor(values[1].trim());
-                        book.setPrice(new BigDecimal(values[2].trim()));
-                        book.setDescription(values[3].trim());
-                        book.setCategory(values[4].trim());
-                        book.setStock(Integer.parseInt(values[5].trim()));
-                        
-                        // Validate required fields
-                        if (book.getTitle() != null && !book.getTitle().isEmpty() &&
-                            book.getAuthor() != null && !book.getAuthor().isEmpty() &&
-                            book.getPrice() != null && book.getPrice().compareTo(BigDecimal.ZERO) > 0 &&
-                            book.getCategory() != null && !book.getCategory().isEmpty() &&
-                            book.getStock() != null && book.getStock() >= 0) {
-                            
-                            bookRepository.save(book);
-                            booksAdded++;
-                        }
-                    } catch (Exception e) {
-                        // Skip invalid rows
-                        System.err.println("Skipping invalid row: " + line + " - " + e.getMessage());
-                    }
+        Function<Long, BookSummary> lookup;
+        if (catalogCache.isLoaded()) {
+            CatalogSnapshot snapshot = catalogCache.snapshot();
+            lookup = id -> {
+                Book book = snapshot.getBook(id);
+                return book == null ? null : BookSummary.from(book);
+            };
+        } else {
+            Map<Long, BookSummary> booksById = new HashMap<>();
+            for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+                List<Long> slice = ids.subList(from, Math.min(from + MAX_IDS_PER_QUERY, ids.size()));
+                for (BookSummary summary : bookRepository.findSummariesByIdIn(slice)) {
+                    booksById.put(summary.getId(), summary);
                 }
             }
+            lookup = booksById::get;
         }
         
-        return booksAdded;
+        List<BookSummary> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            BookSummary book = lookup.apply(id);
+            if (book != null) {
+                ordered.add(book);
+            }
+        }
+        return ordered;
+    }
+    
+    public List<String> getAllCategories() {
+        if (catalogCache.isLoaded()) {
+            return catalogCache.snapshot().getCategories();
+        }
+        return bookRepository.findAllCategories();
+    }
+    
+    public List<CategoryFacet> getCategoryFacets() {
+        if (catalogCache.isLoaded()) {
+            return catalogCache.snapshot().getCategoryFacets();
+        }
+        List<CategoryFacet> facets = new ArrayList<>();
+        for (Object[] row : bookRepository.countBooksByCategory()) {
+            facets.add(new CategoryFacet((String) row[0], new long[0],
+                    ((Number) row[1]).longValue(), ((Number) row[2]).longValue()));
+        }
+        return facets;
+    }
+    
+    // Import jobs call this after each chunk commits
+    public void indexImported(List<Book> books) {
+        for (Book book : books) {
+            indexBook(book);
+        }
+    }
+    
+    public void reloadCatalog() {
+        catalogCache.reloadAll();
     }
     
     public Map<String, Object> getBooksPaginated(int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<Book> bookPage = bookRepository.findAll(pageable);
+        List<BookSummary> books = bookRepository.findPageOrderById(pageable);
+        long totalItems = countBooks();
+        int totalPages = (int) ((totalItems + size - 1) / size);
         
         Map<String, Object> response = new HashMap<>();
-        response.put("books", bookPage.getContent());
-        response.put("currentPage", bookPage.getNumber());
-        response.put("totalItems", bookPage.getTotalElements());
-        response.put("totalPages", bookPage.getTotalPages());
-        response.put("pageSize", bookPage.getSize());
-        response.put("hasNext", bookPage.hasNext());
-        response.put("hasPrevious", bookPage.hasPrevious());
+        response.put("books", books);
+        response.put("currentPage", page);
+        response.put("totalItems", totalItems);
+        response.put("totalPages", totalPages);
+        response.put("pageSize", size);
+        response.put("hasNext", page + 1 < totalPages);
+        response.put("hasPrevious", page > 0);
         
         return response;
     }
+    
+    public Map<String, Object> getBooksByCursor(String cursor, String sort, int size, boolean withTotal) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        
+        BookPageCursor.SortKey sortKey = BookPageCursor.SortKey.from(sort);
+        BookPageCursor after = BookPageCursor.decode(cursor);
+        if (after != null && after.getSort() != sortKey) {
+            throw new IllegalArgumentException("Cursor was issued for a different sort order");
+        }
+        
+        // Fetch one extra row to learn whether another page exists without counting
+        Pageable limit = PageRequest.ofSize(size + 1);
+        List<BookSummary> rows = switch (sortKey) {
+            case TITLE -> after == null
+                    ? bookRepository.findPageOrderByTitle(limit)
+                    : bookRepository.findPageAfterTitle(after.getLastKey(), after.getLastId(), limit);
+            case PRICE -> after == null
+                    ? bookRepository.findPageOrderByPrice(limit)
+                    : bookRepository.findPageAfterPrice(new BigDecimal(after.getLastKey()), after.getLastId(), limit);
+            case ID -> after == null
+                    ? bookRepository.findPageOrderById(limit)
+                    : bookRepository.findPageAfterId(after.getLastId(), limit);
+        };
+        
+        boolean hasNext = rows.size() > size;
+        List<BookSummary> books = hasNext ? rows.subList(0, size) : rows;
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("books", books);
+        response.put("pageSize", size);
+        response.put("sort", sortKey.name().toLowerCase());
+        response.put("hasNext", hasNext);
+        response.put("nextCursor", hasNext ? BookPageCursor.encode(sortKey, books.get(books.size() - 1)) : null);
+        if (withTotal) {
+            response.put("totalItems", countBooks());
+        }
+        
+        return response;
+    }
+    
+    private long countBooks() {
+        if (catalogCache.isLoaded()) {
+            return catalogCache.snapshot().size();
+        }
+        return bookRepository.count();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,83 @@
+// BookStreamWriter.java
+package com.bookstore.service;
+
+import com.bookstore.dto.BookSummary;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes book lists as a JSON array one element at a time, so the response never
+ * exists in memory as a whole. Database streams are read through a cursor; rows are
+ * summary projections, so nothing accumulates in the persistence context.
+ */
+@Component
+public class BookStreamWriter {
+
+    private static final int FLUSH_EVERY = 200;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public void write(Iterable<BookSummary> books, OutputStream out) throws IOException {
+        ObjectWriter writer = bookWriter();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            int written = 0;
+            for (BookSummary book : books) {
+                writer.writeValue(generator, book);
+                if (++written % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    public void write(Supplier<Stream<BookSummary>> query, OutputStream out) throws IOException {
+        ObjectWriter writer = bookWriter();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<BookSummary> rows = query.get()) {
+                    Iterator<BookSummary> it = rows.iterator();
+                    int written = 0;
+                    while (it.hasNext()) {
+                        writer.writeValue(generator, it.next());
+                        if (++written % FLUSH_EVERY == 0) {
+                            generator.flush();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Flushing after every element would turn the response into thousands of tiny writes
+    private ObjectWriter bookWriter() {
+        return objectMapper.writerFor(BookSummary.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+}
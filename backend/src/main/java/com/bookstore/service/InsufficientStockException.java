@@ -0,0 +1,39 @@
+// InsufficientStockException.java
+package com.bookstore.service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Thrown when a reservation cannot be met; lists every short line, not just the first
+public class InsufficientStockException extends OrderRejectedException {
+
+    public static class Shortfall {
+        private final Long bookId;
+        private final int requested;
+        private final int available;
+
+        public Shortfall(Long bookId, int requested, int available) {
+            this.bookId = bookId;
+            this.requested = requested;
+            this.available = available;
+        }
+
+        public Long getBookId() { return bookId; }
+        public int getRequested() { return requested; }
+        public int getAvailable() { return available; }
+    }
+
+    private final List<Shortfall> shortfalls;
+
+    public InsufficientStockException(List<Shortfall> shortfalls) {
+        super(shortfalls.stream()
+                .map(s -> "Insufficient stock for book ID " + s.getBookId() + ". Available: " + s.getAvailable()
+                        + ", Requested: " + s.getRequested())
+                .collect(Collectors.joining("; ")));
+        this.shortfalls = List.copyOf(shortfalls);
+    }
+
+    public List<Shortfall> getShortfalls() {
+        return shortfalls;
+    }
+}
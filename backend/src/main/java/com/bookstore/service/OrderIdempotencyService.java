@@ -0,0 +1,83 @@
+// OrderIdempotencyService.java
+package com.bookstore.service;
+
+import com.bookstore.cache.ExpiringCache;
+import com.bookstore.repository.OrderBatchWriter;
+import com.bookstore.repository.OrderIdempotencyKeyRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Idempotency keys for checkout. The key is recorded against the new order in the
+ * order's own transaction, under a unique (user, key) constraint, so a retried
+ * request can never create a second order: a retry racing the original fails on the
+ * constraint and rolls back its stock reservation. Completed responses are kept in a
+ * bounded, expiring cache so most retries are answered without touching the database.
+ */
+@Service
+public class OrderIdempotencyService {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private OrderIdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private OrderBatchWriter orderBatchWriter;
+
+    @Value("${orders.idempotency.cache-size:10000}")
+    private int cacheSize;
+
+    @Value("${orders.idempotency.cache-ttl-minutes:60}")
+    private long cacheTtlMinutes;
+
+    private ExpiringCache<String, Map<String, Object>> responses;
+
+    @PostConstruct
+    void init() {
+        responses = new ExpiringCache<>(cacheSize, Duration.ofMinutes(cacheTtlMinutes));
+    }
+
+    public Map<String, Object> getResponse(Long userId, String key) {
+        return responses.get(cacheKey(userId, key));
+    }
+
+    public void putResponse(Long userId, String key, Map<String, Object> response) {
+        responses.put(cacheKey(userId, key), Collections.unmodifiableMap(new HashMap<>(response)));
+    }
+
+    // Keys outlive the cache; the table is the record of which order a key produced
+    public Optional<Long> findOrderId(Long userId, String key) {
+        return idempotencyKeyRepository.findOrderId(userId, key);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Long userId, String key, Long orderId) {
+        orderBatchWriter.insertIdempotencyKey(userId, key, orderId);
+    }
+
+    // True when an order was rejected because its key had already been used
+    public static boolean isDuplicateKey(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DuplicateKeyException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String cacheKey(Long userId, String key) {
+        return userId + ":" + key;
+    }
+}
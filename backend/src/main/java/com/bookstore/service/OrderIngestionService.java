@@ -0,0 +1,231 @@
+// OrderIngestionService.java
+package com.bookstore.service;
+
+import com.bookstore.dto.OrderRequest;
+import com.bookstore.entity.Order;
+import com.bookstore.entity.User;
+import com.bookstore.repository.OrderBatchWriter;
+import com.bookstore.rollup.SalesRollupService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional group commit for checkout. Requests are queued and a single writer drains
+ * them in micro-batches, placing every order of a batch in one transaction, so a
+ * burst of checkouts shares one log flush instead of paying one each. A caller waits
+ * until the batch holding its order has committed.
+ *
+ * Disabled unless {@code orders.ingestion.enabled} is set; checkouts then commit one
+ * transaction each through {@link OrderService#createOrder}.
+ */
+@Service
+public class OrderIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIngestionService.class);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderBatchWriter orderBatchWriter;
+
+    @Autowired
+    private OrderIdempotencyService orderIdempotencyService;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${orders.ingestion.enabled:false}")
+    private boolean enabled;
+
+    @Value("${orders.ingestion.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${orders.ingestion.max-batch-size:64}")
+    private int maxBatchSize;
+
+    // How long the writer holds an open batch for more orders before committing it
+    @Value("${orders.ingestion.max-wait-ms:5}")
+    private long maxWaitMillis;
+
+    private BlockingQueue<PendingOrder> queue;
+    private TransactionTemplate batchTransaction;
+    private Thread writer;
+    private volatile boolean running;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        batchTransaction = new TransactionTemplate(transactionManager);
+        running = true;
+        writer = new Thread(this::drain, "order-ingestion");
+        writer.setDaemon(true);
+        writer.start();
+        logger.info("Order ingestion enabled: batches of up to {} orders, {} ms max wait", maxBatchSize, maxWaitMillis);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.interrupt();
+        List<PendingOrder> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(pending -> pending.future.completeExceptionally(
+                new IllegalStateException("Order ingestion is shutting down")));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues an order and returns a future that completes once the batch holding it
+     * has committed, or fails with the same exceptions {@link OrderService#createOrder}
+     * would throw.
+     *
+     * @throws IllegalStateException when the queue is full
+     */
+    public CompletableFuture<Order> submit(User user, List<OrderRequest.OrderItemRequest> items, String address,
+                                           String idempotencyKey) {
+        PendingOrder pending = new PendingOrder(user, items, address, idempotencyKey);
+        if (!running || !queue.offer(pending)) {
+            throw new IllegalStateException("Too many orders are queued, try again later");
+        }
+        return pending.future;
+    }
+
+    // Blocking form for request threads
+    public Order placeOrder(User user, List<OrderRequest.OrderItemRequest> items, String address,
+                            String idempotencyKey) {
+        try {
+            return submit(user, items, address, idempotencyKey).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException failure) {
+                throw failure;
+            }
+            throw new RuntimeException("Failed to create order: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the order to commit", e);
+        }
+    }
+
+    private void drain() {
+        List<PendingOrder> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingOrder next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(pending -> pending.future.completeExceptionally(
+                        new IllegalStateException("Order ingestion is shutting down")));
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Order batch failed: {}", e.getMessage(), e);
+                batch.forEach(pending -> pending.future.completeExceptionally(OrderService.failure(e)));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingOrder> batch) {
+        try {
+            batchTransaction.executeWithoutResult(status -> {
+                List<Order> orders = new ArrayList<>(batch.size());
+                for (PendingOrder pending : batch) {
+                    try {
+                        pending.order = orderService.prepareOrder(pending.user, pending.items, pending.address);
+                        orders.add(pending.order);
+                    } catch (OrderRejectedException e) {
+                        // A rejected order writes nothing and, unlike other failures, does not
+                        // mark the transaction rollback-only, so the rest of the batch carries on
+                        pending.failure = OrderService.failure(e);
+                    }
+                }
+                if (!orders.isEmpty()) {
+                    salesRollupService.ordersPlaced(orders);
+                    orderBatchWriter.insertAll(orders);
+                }
+                for (PendingOrder pending : batch) {
+                    if (pending.order != null && pending.idempotencyKey != null) {
+                        orderIdempotencyService.record(pending.user.getId(), pending.idempotencyKey, pending.order.getId());
+                    }
+                }
+            });
+        } catch (RuntimeException batchFailure) {
+            // The whole batch rolled back; retry one transaction per order so only the bad one fails
+            logger.warn("Order batch of {} rolled back, retrying orders one by one: {}",
+                    batch.size(), batchFailure.getMessage());
+            for (PendingOrder pending : batch) {
+                try {
+                    pending.future.complete(orderService.createOrder(pending.user, pending.items,
+                            pending.address, pending.idempotencyKey));
+                } catch (RuntimeException e) {
+                    pending.future.completeExceptionally(e);
+                }
+            }
+            return;
+        }
+
+        for (PendingOrder pending : batch) {
+            if (pending.failure != null) {
+                pending.future.completeExceptionally(pending.failure);
+            } else {
+                pending.future.complete(pending.order);
+            }
+        }
+    }
+
+    private static class PendingOrder {
+        final User user;
+        final List<OrderRequest.OrderItemRequest> items;
+        final String address;
+        final String idempotencyKey;
+        final CompletableFuture<Order> future = new CompletableFuture<>();
+
+        Order order;
+        RuntimeException failure;
+
+        PendingOrder(User user, List<OrderRequest.OrderItemRequest> items, String address, String idempotencyKey) {
+            this.user = user;
+            this.items = items;
+            this.address = address;
+            this.idempotencyKey = idempotencyKey;
+        }
+    }
+}
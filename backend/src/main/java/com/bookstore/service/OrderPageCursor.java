@@ -0,0 +1,46 @@
+// OrderPageCursor.java
+package com.bookstore.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque keyset-pagination token for the admin order listing: the (order date, id)
+ * of the last order on the previous page, base64url-encoded. Orders are listed
+ * newest first, so the next page holds the orders that sort below this pair.
+ */
+public final class OrderPageCursor {
+
+    private static final String SEPARATOR = "\n";
+
+    private final LocalDateTime lastOrderDate;
+    private final Long lastId;
+
+    public OrderPageCursor(LocalDateTime lastOrderDate, Long lastId) {
+        this.lastOrderDate = lastOrderDate;
+        this.lastId = lastId;
+    }
+
+    public LocalDateTime getLastOrderDate() { return lastOrderDate; }
+    public Long getLastId() { return lastId; }
+
+    public String encode() {
+        String raw = lastOrderDate + SEPARATOR + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Returns null for an empty token, meaning "start from the first page"
+    public static OrderPageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, 2);
+            return new OrderPageCursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid pagination cursor");
+        }
+    }
+}
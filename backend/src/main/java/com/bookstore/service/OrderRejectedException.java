@@ -0,0 +1,15 @@
+// OrderRejectedException.java
+package com.bookstore.service;
+
+/**
+ * Thrown when an order is refused because of what it asks for (missing books, bad
+ * quantities, not enough stock). Nothing has been written when it is thrown, so it
+ * does not mark the caller's transaction rollback-only: a batch can drop the order
+ * and commit the rest.
+ */
+public class OrderRejectedException extends RuntimeException {
+
+    public OrderRejectedException(String message) {
+        super(message);
+    }
+}
@@ -2,113 +2,436 @@
 package com.bookstore.service;
 
 import com.bookstore.entity.*;
+import com.bookstore.dto.BookSummary;
+import com.bookstore.dto.OrderFilter;
+import com.bookstore.dto.OrderLineRow;
 import com.bookstore.dto.OrderRequest;
+import com.bookstore.journal.OrderEvent;
+import com.bookstore.journal.OrderJournal;
 import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.OrderBatchWriter;
 import com.bookstore.repository.OrderRepository;
+import com.bookstore.rollup.SalesRollupService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Service
 public class OrderService {
     
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_BULK_SIZE = 5000;
+    private static final int ID_CHUNK_SIZE = 500;
+    
     @Autowired
     private OrderRepository orderRepository;
     
     @Autowired
     private BookRepository bookRepository;
     
+    @Autowired
+    private BookService bookService;
+    
+    @Autowired
+    private StockReservationService stockReservationService;
+    
+    @Autowired
+    private OrderBatchWriter orderBatchWriter;
+    
+    @Autowired
+    private OrderIdempotencyService orderIdempotencyService;
+    
+    @Autowired
+    private AdminStatsService adminStatsService;
+    
+    @Autowired
+    private SalesRollupService salesRollupService;
+    
+    @Autowired
+    private OrderJournal orderJournal;
+    
     @Transactional
     public Order createOrder(User user, List<OrderRequest.OrderItemRequest> items, String address) {
+        return createOrder(user, items, address, null);
+    }
+    
+    /**
+     * Creates an order; a non-null idempotency key is recorded in the same transaction,
+     * and a key the user has already used fails the whole order with a duplicate key error.
+     */
+    @Transactional
+    public Order createOrder(User user, List<OrderRequest.OrderItemRequest> items, String address, String idempotencyKey) {
         try {
-            if (items == null || items.isEmpty()) {
-                throw new RuntimeException("Order items cannot be empty");
+            Order order = prepareOrder(user, items, address);
+            salesRollupService.ordersPlaced(List.of(order));
+            
+            // One insert for the order and one batch for its items, whatever the cart size
+            Order savedOrder = orderBatchWriter.insert(order);
+            if (idempotencyKey != null) {
+                orderIdempotencyService.record(user.getId(), idempotencyKey, savedOrder.getId());
+            }
+            return savedOrder;
+        } catch (Exception e) {
+            throw failure(e);
+        }
+    }
+    
+    /**
+     * Validates and prices an order and reserves its stock, returning it unsaved for the
+     * caller to add to the sales rollups and insert in the same transaction. Nothing is
+     * written when this throws, and a rejection leaves the caller's transaction usable.
+     */
+    @Transactional(propagation = Propagation.MANDATORY, noRollbackFor = OrderRejectedException.class)
+    public Order prepareOrder(User user, List<OrderRequest.OrderItemRequest> items, String address) {
+        if (items == null || items.isEmpty()) {
+            throw new OrderRejectedException("Order items cannot be empty");
+        }
+        
+        Order order = new Order();
+        order.setUser(user);
+        order.setAddress(address);
+        order.setOrderDate(LocalDateTime.now());
+        
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (OrderRequest.OrderItemRequest itemRequest : items) {
+            if (itemRequest.getBookId() == null || itemRequest.getQuantity() == null) {
+                throw new OrderRejectedException("Book ID and quantity are required for each item");
+            }
+            if (itemRequest.getQuantity() <= 0) {
+                throw new OrderRejectedException("Quantity must be greater than 0");
+            }
+            quantities.merge(itemRequest.getBookId(), itemRequest.getQuantity(), Integer::sum);
+        }
+        
+        // One select prices every line; the summary projection skips the description LOB
+        Map<Long, BookSummary> books = new HashMap<>();
+        for (BookSummary book : bookRepository.findSummariesByIdIn(quantities.keySet())) {
+            books.put(book.getId(), book);
+        }
+        for (Long bookId : quantities.keySet()) {
+            if (!books.containsKey(bookId)) {
+                throw new OrderRejectedException("Book not found with ID: " + bookId);
             }
+        }
+        
+        stockReservationService.reserve(quantities);
+        
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        List<OrderItem> orderItems = new ArrayList<>();
+        
+        for (OrderRequest.OrderItemRequest itemRequest : items) {
+            Long bookId = itemRequest.getBookId();
+            Integer quantity = itemRequest.getQuantity();
+            BigDecimal price = books.get(bookId).getPrice();
             
-            Order order = new Order();
-            order.setUser(user);
-            order.setAddress(address);
-            order.setOrderDate(LocalDateTime.now());
+            OrderItem orderItem = new OrderItem();
+            orderItem.setOrder(order);
+            orderItem.setBook(bookRepository.getReferenceById(bookId));
+            orderItem.setQuantity(quantity);
+            orderItem.setPrice(price);
             
-            BigDecimal totalAmount = BigDecimal.ZERO;
-            List<OrderItem> orderItems = new ArrayList<>();
+            // Add to the list
+            orderItems.add(orderItem);
             
-            for (OrderRequest.OrderItemRequest itemRequest : items) {
-                if (itemRequest.getBookId() == null || itemRequest.getQuantity() == null) {
-                    throw new RuntimeException("Book ID and quantity are required for each item");
-                }
-                
-                Long bookId = itemRequest.getBookId();
-                Integer quantity = itemRequest.getQuantity();
-                
-                if (quantity <= 0) {
-                    throw new RuntimeException("Quantity must be greater than 0");
+            totalAmount = totalAmount.add(price.multiply(BigDecimal.valueOf(quantity)));
+        }
+        
+        // Set the order items and total amount
+        order.setOrderItems(orderItems);
+        order.setTotalAmount(totalAmount);
+        
+        // Stock levels and typeahead popularity only change once the sale is committed
+        afterCommit(() -> {
+            bookService.stockChanged(orderItems.stream().map(item -> item.getBook().getId()).toList());
+            orderItems.forEach(item -> bookService.recordSale(item.getBook().getId(), item.getQuantity()));
+            adminStatsService.orderPlaced(order.getStatus(), order.getTotalAmount());
+            orderJournal.record(OrderEvent.created(order));
+        });
+        
+        return order;
+    }
+    
+    // Stock shortfalls keep their type so the controller can answer 409 with the details
+    static RuntimeException failure(Exception e) {
+        if (e instanceof InsufficientStockException shortfall) {
+            return shortfall;
+        }
+        return new RuntimeException("Failed to create order: " + e.getMessage(), e);
+    }
+    
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
                 }
+            });
+        } else {
+            action.run();
+        }
+    }
+    
+    // Order listings are read as flat join rows and assembled in one pass, so a listing
+    // costs one statement however many orders, items and customers it covers
+    public List<Map<String, Object>> getUserOrders(User user) {
+        return assembleOrders(orderRepository.findLineRowsByUser(user), false);
+    }
+    
+    /**
+     * One page of the admin listing, newest first. Matching ids are selected by keyset
+     * seek on (order date, id) and the page is loaded by id, so the cost depends on the
+     * page size rather than on how much order history exists.
+     */
+    public Map<String, Object> getOrdersPage(OrderFilter filter, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (filter.getMinTotal() != null && filter.getMaxTotal() != null
+                && filter.getMinTotal().compareTo(filter.getMaxTotal()) > 0) {
+            throw new IllegalArgumentException("minTotal must not exceed maxTotal");
+        }
+        OrderPageCursor after = OrderPageCursor.decode(cursor);
+        
+        // Fetch one extra id to learn whether another page exists without counting
+        List<Long> ids = orderRepository.findPageIds(filter,
+                after == null ? null : after.getLastOrderDate(),
+                after == null ? null : after.getLastId(),
+                size + 1);
+        boolean hasNext = ids.size() > size;
+        if (hasNext) {
+            ids = ids.subList(0, size);
+        }
+        
+        List<Map<String, Object>> orders = ids.isEmpty()
+                ? List.of()
+                : assembleOrders(orderRepository.findLineRowsByIdIn(ids), true);
+        
+        String nextCursor = null;
+        if (hasNext) {
+            Map<String, Object> last = orders.get(orders.size() - 1);
+            nextCursor = new OrderPageCursor((LocalDateTime) last.get("orderDate"), (Long) last.get("id")).encode();
+        }
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("orders", orders);
+        response.put("count", orders.size());
+        response.put("pageSize", size);
+        response.put("hasNext", hasNext);
+        response.put("nextCursor", nextCursor);
+        return response;
+    }
+    
+    private static List<Map<String, Object>> assembleOrders(List<OrderLineRow> rows, boolean withUser) {
+        List<Map<String, Object>> orders = new ArrayList<>();
+        Long currentOrderId = null;
+        List<Map<String, Object>> items = null;
+        
+        // Rows arrive grouped by order, so an order is complete once its id changes
+        for (OrderLineRow row : rows) {
+            if (!row.getOrderId().equals(currentOrderId)) {
+                currentOrderId = row.getOrderId();
+                Map<String, Object> orderDto = new HashMap<>();
+                orderDto.put("id", row.getOrderId());
+                orderDto.put("orderDate", row.getOrderDate());
+                orderDto.put("totalAmount", row.getTotalAmount());
+                orderDto.put("status", row.getStatus().toString());
+                orderDto.put("address", row.getAddress());
                 
-                Book book = bookRepository.findById(bookId)
-                        .orElseThrow(() -> new RuntimeException("Book not found with ID: " + bookId));
-                
-                if (book.getStock() < quantity) {
-                    throw new RuntimeException("Insufficient stock for book: " + book.getTitle() + ". Available: " + book.getStock() + ", Requested: " + quantity);
+                if (withUser && row.getUserId() != null) {
+                    Map<String, Object> userDto = new HashMap<>();
+                    userDto.put("id", row.getUserId());
+                    userDto.put("username", row.getUsername());
+                    userDto.put("email", row.getEmail());
+                    orderDto.put("user", userDto);
                 }
                 
-                OrderItem orderItem = new OrderItem();
-                orderItem.setOrder(order);
-                orderItem.setBook(book);
-                orderItem.setQuantity(quantity);
-                orderItem.setPrice(book.getPrice());
-                
-                // Add to the list
-                orderItems.add(orderItem);
+                items = new ArrayList<>();
+                orderDto.put("orderItems", items);
+                orders.add(orderDto);
+            }
+            
+            if (row.getItemId() != null) {
+                Map<String, Object> itemDto = new HashMap<>();
+                itemDto.put("id", row.getItemId());
+                itemDto.put("quantity", row.getQuantity());
+                itemDto.put("price", row.getItemPrice());
                 
-                totalAmount = totalAmount.add(book.getPrice().multiply(BigDecimal.valueOf(quantity)));
+                Map<String, Object> bookDto = new HashMap<>();
+                bookDto.put("id", row.getBookId());
+                bookDto.put("title", row.getTitle());
+                bookDto.put("author", row.getAuthor());
+                bookDto.put("category", row.getCategory());
+                bookDto.put("price", row.getBookPrice());
+                itemDto.put("book", bookDto);
                 
-                // Update stock
-                book.setStock(book.getStock() - quantity);
-                bookRepository.save(book);
+                items.add(itemDto);
             }
-            
-            // Set the order items and total amount
-            order.setOrderItems(orderItems);
-            order.setTotalAmount(totalAmount);
-            
-            // Save the order (this will cascade to save OrderItems)
-            Order savedOrder = orderRepository.save(order);
-            
-            return savedOrder;
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to create order: " + e.getMessage(), e);
         }
-    }
-    
-    public List<Order> getUserOrders(User user) {
-        return orderRepository.findByUserOrderByOrderDateDesc(user);
-    }
-    
-    public List<Order> getAllOrders() {
-        return orderRepository.findAllByOrderByOrderDateDesc();
+        return orders;
     }
     
     public Optional<Order> getOrderById(Long id) {
         return orderRepository.findById(id);
     }
     
+    /**
+     * Moves one order to a new status; the same path as {@link #updateOrderStatuses}.
+     * Setting the status an order already has changes nothing.
+     */
+    @Transactional
     public Order updateOrderStatus(Long orderId, OrderStatus status) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
-        order.setStatus(status);
-        return orderRepository.save(order);
+        if (order.getStatus() == status) {
+            return order;
+        }
+        if (!order.getStatus().canTransitionTo(status)) {
+            throw new IllegalStateException("Cannot change order status from " + order.getStatus() + " to " + status);
+        }
+        transition(List.of(order), status);
+        return order;
     }
     
+    @Transactional
     public void cancelOrder(Long orderId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
-        order.setStatus(OrderStatus.CANCELLED);
-        orderRepository.save(order);
+        updateOrderStatus(orderId, OrderStatus.CANCELLED);
+    }
+    
+    /**
+     * Moves many orders to one status in a single transaction. Orders that are missing or
+     * cannot make the transition are reported and left alone; the rest are updated with
+     * one conditional UPDATE per current status, and cancelled orders have their stock
+     * returned in one batch.
+     */
+    @Transactional
+    public Map<String, Object> updateOrderStatuses(Collection<Long> orderIds, OrderStatus status) {
+        if (orderIds == null || orderIds.isEmpty()) {
+            throw new IllegalArgumentException("Order ids are required");
+        }
+        Set<Long> ids = new TreeSet<>();
+        for (Long id : orderIds) {
+            if (id == null) {
+                throw new IllegalArgumentException("Order ids must not be null");
+            }
+            ids.add(id);
+        }
+        if (ids.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_SIZE + " orders can be updated at once");
+        }
+        
+        // Cancelling needs the lines for restocking and the rollups, so they come in the same select
+        Map<Long, Order> found = new HashMap<>();
+        for (List<Long> chunk : chunks(ids)) {
+            List<Order> orders = status == OrderStatus.CANCELLED
+                    ? orderRepository.findWithItemsByIdIn(chunk)
+                    : orderRepository.findAllById(chunk);
+            orders.forEach(order -> found.put(order.getId(), order));
+        }
+        
+        List<Order> eligible = new ArrayList<>();
+        List<Long> unchanged = new ArrayList<>();
+        List<Map<String, Object>> rejected = new ArrayList<>();
+        for (Long id : ids) {
+            Order order = found.get(id);
+            if (order == null) {
+                rejected.add(rejection(id, null, "Order not found"));
+            } else if (order.getStatus() == status) {
+                unchanged.add(id);
+            } else if (!order.getStatus().canTransitionTo(status)) {
+                rejected.add(rejection(id, order.getStatus(),
+                        "Cannot change order status from " + order.getStatus() + " to " + status));
+            } else {
+                eligible.add(order);
+            }
+        }
+        
+        if (!eligible.isEmpty()) {
+            transition(eligible, status);
+        }
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", status.toString());
+        response.put("updated", eligible.stream().map(Order::getId).toList());
+        response.put("unchanged", unchanged);
+        response.put("rejected", rejected);
+        return response;
+    }
+    
+    /**
+     * Applies a validated transition. Writes follow the lock order of checkout: stock is
+     * returned first, then the sales rollups move, then the order rows are updated only
+     * where they still hold the status that was read. Any mismatch rolls everything back.
+     */
+    private void transition(List<Order> orders, OrderStatus status) {
+        Map<Long, Integer> restock = new HashMap<>();
+        if (status == OrderStatus.CANCELLED) {
+            for (Order order : orders) {
+                if (order.getOrderItems() != null) {
+                    order.getOrderItems().forEach(item ->
+                            restock.merge(item.getBook().getId(), item.getQuantity(), Integer::sum));
+                }
+            }
+            stockReservationService.release(restock);
+        }
+        
+        salesRollupService.ordersStatusChanged(orders, status);
+        
+        Map<OrderStatus, List<Long>> byStatus = new EnumMap<>(OrderStatus.class);
+        for (Order order : orders) {
+            byStatus.computeIfAbsent(order.getStatus(), s -> new ArrayList<>()).add(order.getId());
+        }
+        byStatus.forEach((from, ids) -> {
+            for (List<Long> chunk : chunks(ids)) {
+                if (orderRepository.updateStatusIfCurrent(chunk, from, status) != chunk.size()) {
+                    throw new IllegalStateException("Order status was changed concurrently, please retry");
+                }
+            }
+        });
+        
+        List<OrderStatus> previous = orders.stream().map(Order::getStatus).toList();
+        orders.forEach(order -> order.setStatus(status));
+        
+        afterCommit(() -> {
+            if (!restock.isEmpty()) {
+                bookService.stockChanged(restock.keySet());
+            }
+            for (int i = 0; i < orders.size(); i++) {
+                adminStatsService.orderStatusChanged(previous.get(i), status, orders.get(i).getTotalAmount());
+                orderJournal.record(OrderEvent.statusChanged(orders.get(i), previous.get(i), status));
+            }
+        });
+    }
+    
+    // Keeps IN lists to a bounded number of parameters
+    private static List<List<Long>> chunks(Collection<Long> ids) {
+        List<Long> all = new ArrayList<>(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < all.size(); i += ID_CHUNK_SIZE) {
+            chunks.add(all.subList(i, Math.min(all.size(), i + ID_CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+    
+    private static Map<String, Object> rejection(Long orderId, OrderStatus current, String reason) {
+        Map<String, Object> rejection = new HashMap<>();
+        rejection.put("id", orderId);
+        rejection.put("status", current == null ? null : current.toString());
+        rejection.put("message", reason);
+        return rejection;
     }
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+// StockReservationService.java
+package com.bookstore.service;
+
+import com.bookstore.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reserves stock with one conditional UPDATE per book instead of read, check and
+ * write. Only the rows being decremented are locked, so checkouts for different
+ * books never wait on each other. The updates for a cart go out as one JDBC batch.
+ */
+@Service
+public class StockReservationService {
+
+    // Conditional decrement: takes the row lock and checks stock in one statement, so
+    // concurrent checkouts can never drive stock negative. Updates no row when short.
+    private static final String DECREMENT_SQL =
+            "UPDATE books SET stock = stock - ? WHERE id = ? AND stock >= ?";
+
+    private static final String RELEASE_SQL =
+            "UPDATE books SET stock = stock + ? WHERE id = ?";
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Decrements stock for every book in {@code quantities} (book id to quantity) or
+     * throws. Runs inside the caller's transaction. When a line falls short, the lines
+     * already reserved are released again before throwing, so a failed reservation
+     * leaves no writes behind and the transaction can carry on with other orders; the
+     * shortfall therefore does not mark the transaction rollback-only.
+     *
+     * @throws InsufficientStockException listing every line that could not be met
+     */
+    @Transactional(propagation = Propagation.MANDATORY, noRollbackFor = InsufficientStockException.class)
+    public void reserve(Map<Long, Integer> quantities) {
+        // Lock rows in ascending id order so two carts sharing books cannot deadlock
+        List<Map.Entry<Long, Integer>> lines = new ArrayList<>(new TreeMap<>(quantities).entrySet());
+
+        int[] updated = jdbcTemplate.batchUpdate(DECREMENT_SQL, lines, lines.size(), (ps, line) -> {
+            ps.setInt(1, line.getValue());
+            ps.setLong(2, line.getKey());
+            ps.setInt(3, line.getValue());
+        })[0];
+
+        Map<Long, Integer> reserved = new TreeMap<>();
+        List<Map.Entry<Long, Integer>> unmet = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (updated[i] == 0) {
+                unmet.add(lines.get(i));
+            } else {
+                reserved.put(lines.get(i).getKey(), lines.get(i).getValue());
+            }
+        }
+        if (unmet.isEmpty()) {
+            return;
+        }
+
+        release(reserved);
+        List<InsufficientStockException.Shortfall> shortfalls = new ArrayList<>();
+        for (Map.Entry<Long, Integer> line : unmet) {
+            Long bookId = line.getKey();
+            int available = bookRepository.findStockById(bookId)
+                    .orElseThrow(() -> new OrderRejectedException("Book not found with ID: " + bookId));
+            shortfalls.add(new InsufficientStockException.Shortfall(bookId, line.getValue(), available));
+        }
+        throw new InsufficientStockException(shortfalls);
+    }
+
+    /**
+     * Returns previously reserved stock (book id to quantity) in one batch.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, Integer>> lines = new ArrayList<>(new TreeMap<>(quantities).entrySet());
+        jdbcTemplate.batchUpdate(RELEASE_SQL, lines, lines.size(), (ps, line) -> {
+            ps.setInt(1, line.getValue());
+            ps.setLong(2, line.getKey());
+        });
+    }
+}
@@ -4,6 +4,7 @@ package com.bookstore.service;
 import com.bookstore.entity.User;
 import com.bookstore.entity.UserRole;
 import com.bookstore.repository.UserRepository;
+import com.bookstore.security.PrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -19,6 +20,12 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private AdminStatsService adminStatsService;
+    
+    @Autowired
+    private PrincipalCache principalCache;
+    
     public User registerUser(User user) {
         // Check if username already exists
         if (userRepository.findByUsername(user.getUsername()).isPresent()) {
@@ -33,7 +40,9 @@ public class UserService {
             user.setRole(UserRole.CUSTOMER);
         }
         
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        adminStatsService.userRegistered();
+        return savedUser;
     }
     
     public Optional<User> findByUsername(String username) {
@@ -52,6 +61,8 @@ public class UserService {
         if (user.getId() == null || !userRepository.existsById(user.getId())) {
             throw new RuntimeException("User not found");
         }
+        String storedUsername = userRepository.findUsernameById(user.getId()).orElseThrow();
+        UserRole storedRole = userRepository.findRoleById(user.getId()).orElseThrow();
         
         // Don't update password if it's not changed
         User existingUser = userRepository.findById(user.getId()).orElseThrow();
@@ -61,14 +72,24 @@ public class UserService {
             user.setPassword(passwordEncoder.encode(user.getPassword()));
         }
         
-        return userRepository.save(user);
+        // Tokens carry the username and role, so changing either retires the user's tokens
+        user.setTokenVersion(existingUser.getTokenVersion());
+        if (!storedUsername.equals(user.getUsername()) || storedRole != user.getRole()) {
+            user.setTokenVersion(existingUser.getTokenVersion() + 1);
+        }
+        
+        User savedUser = userRepository.save(user);
+        principalCache.invalidate(storedUsername);
+        principalCache.invalidate(savedUser.getUsername());
+        return savedUser;
     }
     
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new RuntimeException("User not found");
-        }
+        String username = userRepository.findUsernameById(id)
+                .orElseThrow(() -> new RuntimeException("User not found"));
         userRepository.deleteById(id);
+        principalCache.invalidate(username);
+        adminStatsService.userDeleted();
     }
     
     public boolean existsByUsername(String username) {
@@ -82,9 +103,11 @@ public class UserService {
             
             // Verify current password
             if (passwordEncoder.matches(currentPassword, user.getPassword())) {
-                // Update password
+                // Update password; tokens issued with the old password stop working
                 user.setPassword(passwordEncoder.encode(newPassword));
+                user.setTokenVersion(user.getTokenVersion() + 1);
                 userRepository.save(user);
+                principalCache.invalidate(username);
                 return true;
             }
         }
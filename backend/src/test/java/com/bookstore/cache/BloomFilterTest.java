@@ -0,0 +1,105 @@
+// BloomFilterTest.java
+package com.bookstore.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void everyAddedKeyIsFound() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        List<String> keys = keys(10_000);
+        keys.forEach(filter::add);
+
+        for (String key : keys) {
+            assertTrue(filter.mightContain(key), key);
+        }
+    }
+
+    @Test
+    void everyKeyIsFoundWhenOverfilled() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+        List<String> keys = keys(5_000);
+        keys.forEach(filter::add);
+
+        for (String key : keys) {
+            assertTrue(filter.mightContain(key), key);
+        }
+    }
+
+    @Test
+    void concurrentAddsLoseNoKeys() throws Exception {
+        BloomFilter filter = new BloomFilter(20_000, 0.01);
+        List<List<String>> batches = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> adds = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                List<String> batch = keys(5_000);
+                batches.add(batch);
+                adds.add(pool.submit(() -> batch.forEach(filter::add)));
+            }
+            for (Future<?> add : adds) {
+                add.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        for (List<String> batch : batches) {
+            for (String key : batch) {
+                assertTrue(filter.mightContain(key), key);
+            }
+        }
+    }
+
+    @Test
+    void falsePositivesStayNearTheConfiguredRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        keys(10_000).forEach(filter::add);
+
+        int falsePositives = 0;
+        for (String key : keys(100_000)) {
+            if (filter.mightContain(key)) {
+                falsePositives++;
+            }
+        }
+        // 1% expected; allow twice that before calling the sizing wrong
+        assertTrue(falsePositives < 2_000, falsePositives + " false positives in 100000 lookups");
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(10, 0.01);
+        assertFalse(filter.mightContain(""));
+        assertFalse(filter.mightContain("jti"));
+        assertEquals(10, filter.getCapacity());
+    }
+
+    @Test
+    void rejectsInvalidSizing() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 1));
+    }
+
+    private static List<String> keys(int count) {
+        List<String> keys = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            keys.add(UUID.randomUUID().toString());
+        }
+        return keys;
+    }
+}
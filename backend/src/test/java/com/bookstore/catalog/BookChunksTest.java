@@ -0,0 +1,92 @@
+// BookChunksTest.java
+package com.bookstore.catalog;
+
+import com.bookstore.entity.Book;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookChunksTest {
+
+    @Test
+    void patchingOneBookCopiesOnlyItsChunk() {
+        List<Book> catalog = new ArrayList<>();
+        for (long id = 1; id <= 10 * BookChunks.CHUNK_SIZE; id++) {
+            catalog.add(book(id, 5));
+        }
+        BookChunks before = BookChunks.of(catalog);
+
+        long changed = 3 * BookChunks.CHUNK_SIZE + 7;
+        BookChunks after = before.with(List.of(book(changed, 4)), Set.of());
+
+        assertEquals(before.chunkCount(), after.chunkCount());
+        for (int i = 0; i < before.chunkCount(); i++) {
+            if (i == 3) {
+                assertTrue(before.chunk(i) != after.chunk(i));
+            } else {
+                assertSame(before.chunk(i), after.chunk(i));
+            }
+        }
+        assertEquals(4, after.get(changed).getStock());
+        assertEquals(5, before.get(changed).getStock());
+    }
+
+    @Test
+    void randomChangesMatchASortedMap() {
+        Random random = new Random(42);
+        TreeMap<Long, Book> expected = new TreeMap<>();
+        BookChunks chunks = BookChunks.EMPTY;
+        for (int round = 0; round < 300; round++) {
+            Map<Long, Book> upserts = new HashMap<>();
+            Set<Long> removals = new HashSet<>();
+            int changes = 1 + random.nextInt(round % 10 == 0 ? 400 : 5);
+            for (int i = 0; i < changes; i++) {
+                long id = 1 + random.nextInt(5_000);
+                if (random.nextInt(4) == 0) {
+                    upserts.remove(id);
+                    removals.add(id);
+                } else {
+                    removals.remove(id);
+                    upserts.put(id, book(id, random.nextInt(20)));
+                }
+            }
+            chunks = chunks.with(upserts.values(), removals);
+            expected.keySet().removeAll(removals);
+            expected.putAll(upserts);
+
+            assertEquals(new ArrayList<>(expected.values()), chunks.asList());
+            assertEquals(expected.size(), chunks.size());
+        }
+        for (long id = 0; id <= 5_001; id++) {
+            Book book = chunks.get(id);
+            if (expected.containsKey(id)) {
+                assertSame(expected.get(id), book);
+            } else {
+                assertNull(book);
+            }
+        }
+        for (int i = 0; i < chunks.chunkCount(); i++) {
+            int length = chunks.chunk(i).length;
+            assertTrue(length > 0 && length <= 2 * BookChunks.CHUNK_SIZE, "chunk of " + length);
+        }
+    }
+
+    private static Book book(long id, int stock) {
+        Book book = new Book("Book " + id, "Author", new BigDecimal("9.99"), null, "Fiction", stock);
+        book.setId(id);
+        return book;
+    }
+}
@@ -0,0 +1,121 @@
+// CatalogCacheTest.java
+package com.bookstore.catalog;
+
+import com.bookstore.entity.Book;
+import com.bookstore.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogCacheTest {
+
+    // Current stock per book id as the repository would return it
+    private final Map<Long, Integer> stock = new ConcurrentHashMap<>();
+
+    private BookRepository bookRepository;
+    private CatalogCache cache;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = mock(BookRepository.class);
+        when(bookRepository.findAll()).thenAnswer(invocation -> rows(stock.keySet()));
+        when(bookRepository.findAllById(any())).thenAnswer(invocation -> rows(invocation.getArgument(0)));
+        cache = new CatalogCache();
+        ReflectionTestUtils.setField(cache, "bookRepository", bookRepository);
+    }
+
+    @Test
+    void sequentialRefreshesKeepNoTickets() {
+        for (long id = 1; id <= 500; id++) {
+            stock.put(id, 10);
+        }
+        cache.reloadAll();
+        for (long id = 1; id <= 500; id++) {
+            stock.put(id, 9);
+            cache.refresh(List.of(id, id % 50 + 1));
+            assertEquals(0, cache.trackedBooks());
+        }
+        assertEquals(9, cache.snapshot().getBook(250L).getStock());
+        assertEquals(500, cache.snapshot().size());
+    }
+
+    @Test
+    void olderReadFinishingLastDoesNotOverwriteANewerOne() throws Exception {
+        stock.put(1L, 10);
+        stock.put(2L, 10);
+        cache.reloadAll();
+
+        // The first refresh reads stock 10 for book 1, then stalls before installing
+        CountDownLatch read = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            List<Book> rows = rows(invocation.getArgument(0));
+            read.countDown();
+            assertTrue(resume.await(10, TimeUnit.SECONDS));
+            return rows;
+        }).when(bookRepository).findAllById(any());
+        CompletableFuture<Void> stalled = CompletableFuture.runAsync(() -> cache.refresh(List.of(1L)));
+        assertTrue(read.await(10, TimeUnit.SECONDS));
+
+        doAnswer(invocation -> rows(invocation.getArgument(0))).when(bookRepository).findAllById(any());
+        stock.put(1L, 4);
+        cache.refresh(List.of(1L));
+        stock.put(2L, 3);
+        cache.refresh(List.of(2L));
+        // Both newer tickets must outlive the stalled read, which started before them
+        assertEquals(2, cache.trackedBooks());
+        assertEquals(4, cache.snapshot().getBook(1L).getStock());
+
+        resume.countDown();
+        stalled.get(10, TimeUnit.SECONDS);
+        assertEquals(4, cache.snapshot().getBook(1L).getStock());
+        assertEquals(3, cache.snapshot().getBook(2L).getStock());
+        assertEquals(0, cache.trackedBooks());
+    }
+
+    @Test
+    void failedReadStillReleasesItsTicket() {
+        stock.put(1L, 10);
+        cache.reloadAll();
+        doThrow(new IllegalStateException("database down")).when(bookRepository).findAllById(any());
+        assertThrows(IllegalStateException.class, () -> cache.refresh(List.of(1L)));
+        doAnswer(invocation -> rows(invocation.getArgument(0))).when(bookRepository).findAllById(any());
+        stock.remove(1L);
+        cache.refresh(List.of(1L));
+
+        assertNull(cache.snapshot().getBook(1L));
+        assertEquals(0, cache.trackedBooks());
+    }
+
+    private List<Book> rows(Iterable<Long> ids) {
+        List<Book> rows = new ArrayList<>();
+        for (Long id : ids) {
+            Integer units = stock.get(id);
+            if (units != null) {
+                Book book = new Book("Book " + id, "Author", new BigDecimal("10.00"), "Description", "Fiction", units);
+                book.setId(id);
+                rows.add(book);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,84 @@
+// CatalogSnapshotTest.java
+package com.bookstore.catalog;
+
+import com.bookstore.entity.Book;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * A snapshot patched change by change must equal one built from scratch over the same
+ * books: same lists, same categories and the same facet counts.
+ */
+class CatalogSnapshotTest {
+
+    private static final String[] CATEGORIES = {"Fiction", "Poetry", "Science", null};
+
+    @Test
+    void patchedSnapshotMatchesAFullBuild() {
+        Random random = new Random(7);
+        Map<Long, Book> catalog = new HashMap<>();
+        for (long id = 1; id <= 2_000; id++) {
+            catalog.put(id, book(id, random));
+        }
+        CatalogSnapshot patched = CatalogSnapshot.of(1, catalog.values());
+
+        for (int round = 0; round < 500; round++) {
+            Map<Long, Book> upserts = new HashMap<>();
+            Set<Long> removals = new HashSet<>();
+            for (int i = 0; i < 1 + random.nextInt(4); i++) {
+                long id = 1 + random.nextInt(2_500);
+                int kind = random.nextInt(10);
+                if (kind == 0) {
+                    removals.add(id);
+                    upserts.remove(id);
+                } else if (kind < 8 && catalog.containsKey(id)) {
+                    // The common case: a checkout moving stock
+                    Book current = catalog.get(id);
+                    Book restocked = book(id, current.getCategory(), random.nextInt(15));
+                    upserts.put(id, restocked);
+                    removals.remove(id);
+                } else {
+                    upserts.put(id, book(id, random));
+                    removals.remove(id);
+                }
+            }
+            patched = patched.withChanges(round + 2, upserts, removals);
+            catalog.keySet().removeAll(removals);
+            catalog.putAll(upserts);
+        }
+
+        CatalogSnapshot rebuilt = CatalogSnapshot.of(0, catalog.values());
+        assertEquals(rebuilt.getBooks(), patched.getBooks());
+        assertEquals(rebuilt.getCategories(), patched.getCategories());
+        assertEquals(rebuilt.getLowStockCount(), patched.getLowStockCount());
+        for (String category : rebuilt.getCategories()) {
+            assertEquals(rebuilt.getBooksByCategory(category), patched.getBooksByCategory(category));
+            CategoryFacet expected = rebuilt.getCategoryFacet(category);
+            CategoryFacet actual = patched.getCategoryFacet(category);
+            assertArrayEquals(expected.getBookIds(), actual.getBookIds());
+            assertEquals(expected.getBookCount(), actual.getBookCount());
+            assertEquals(expected.getInStockCount(), actual.getInStockCount());
+            assertEquals(expected.getLowStockCount(), actual.getLowStockCount());
+        }
+        assertEquals(catalog.size(), patched.size());
+    }
+
+    private static Book book(long id, Random random) {
+        return book(id, CATEGORIES[random.nextInt(CATEGORIES.length)], random.nextInt(15));
+    }
+
+    private static Book book(long id, String category, int stock) {
+        Book book = new Book("Book " + id, "Author", new BigDecimal("9.99"), null, category, stock);
+        book.setId(id);
+        return book;
+    }
+}
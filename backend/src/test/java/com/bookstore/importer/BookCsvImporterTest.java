@@ -0,0 +1,84 @@
+// BookCsvImporterTest.java
+package com.bookstore.importer;
+
+import com.bookstore.dto.CsvImportReport;
+import com.bookstore.entity.Book;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The books reported for each chunk must be exactly the rows that chunk inserted, even
+ * when another writer adds books to the table between chunks.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:derby:memory:import-test;create=true",
+        "catalog.import.chunk-size=3"
+})
+class BookCsvImporterTest {
+
+    @Autowired
+    private BookCsvImporter importer;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void reportsOnlyTheRowsEachChunkInserted() throws Exception {
+        String prefix = "Imported " + UUID.randomUUID().toString().substring(0, 8);
+        StringBuilder csv = new StringBuilder("title,author,price,description,category,stock\n");
+        List<String> expectedTitles = new ArrayList<>();
+        for (int i = 1; i <= 8; i++) {
+            String price = switch (i) {
+                case 3 -> "not-a-price";
+                case 5 -> "1e40";
+                default -> "9.99";
+            };
+            csv.append(prefix).append(' ').append(i).append(",Author,").append(price)
+                    .append(",\"A long, quoted description\",Fiction,").append(i).append('\n');
+            if (i != 3 && i != 5) {
+                expectedTitles.add(prefix + " " + i);
+            }
+        }
+
+        List<Book> reported = new ArrayList<>();
+        List<Long> othersAdded = new ArrayList<>();
+        ImportJob job = new ImportJob("test-" + prefix, "books.csv", null);
+        boolean finished = importer.run(job, new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), books -> {
+            reported.addAll(books);
+            // Another writer adds a book while the import is between chunks
+            othersAdded.add(testData.book("Fiction", "5.00", 1).getId());
+        });
+
+        assertTrue(finished);
+        CsvImportReport report = job.getReport();
+        assertEquals(6, report.getBooksAdded());
+        assertEquals(2, report.getRowsRejected());
+        // Row 5 fails in the database, so its chunk is retried row by row
+        assertEquals(6, report.getRejections().get(1).getLine());
+        assertTrue(report.getRejections().get(1).getReason().startsWith("Rejected by database"));
+        assertEquals(expectedTitles, reported.stream().map(Book::getTitle).toList());
+        for (Book book : reported) {
+            Book stored = bookRepository.findById(book.getId()).orElseThrow();
+            assertEquals(book.getTitle(), stored.getTitle());
+            assertEquals(book.getStock(), stored.getStock());
+            assertFalse(othersAdded.contains(book.getId()));
+        }
+        assertEquals(3, othersAdded.size());
+    }
+}
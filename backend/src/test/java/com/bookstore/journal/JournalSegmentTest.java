@@ -0,0 +1,158 @@
+// JournalSegmentTest.java
+package com.bookstore.journal;
+
+import com.bookstore.entity.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JournalSegmentTest {
+
+    private static final int SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reopenedSegmentReadsBackEveryFrame() throws IOException {
+        JournalSegment segment = JournalSegment.create(directory, 100, SIZE);
+        appendEvents(segment, 100, 10);
+        segment.force();
+
+        JournalSegment reopened = JournalSegment.open(segment.getFile(), false);
+
+        assertEquals(100, reopened.getBaseSequence());
+        assertEquals(109, reopened.getLastSequence());
+        assertEquals(segment.end(), reopened.end());
+        assertTrue(reopened.isSealed());
+        assertEquals(sequences(100, 10), readAll(reopened));
+    }
+
+    @Test
+    void emptySegmentReopensEmpty() throws IOException {
+        JournalSegment segment = JournalSegment.create(directory, 1, SIZE);
+        JournalSegment reopened = JournalSegment.open(segment.getFile(), true);
+
+        assertEquals(0, reopened.end());
+        assertEquals(0, reopened.getLastSequence());
+        assertFalse(reopened.isSealed());
+    }
+
+    @Test
+    void appendStopsAtCapacity() throws IOException {
+        JournalSegment segment = JournalSegment.create(directory, 1, 256);
+        int appended = 0;
+        while (segment.tryAppend(OrderEventCodec.encode(event(appended + 1)), appended + 1)) {
+            appended++;
+        }
+        assertTrue(appended > 0);
+        assertEquals(appended, segment.getLastSequence());
+        assertEquals(sequences(1, appended), readAll(JournalSegment.open(segment.getFile(), false)));
+    }
+
+    @Test
+    void tornFrameEndsRecoveryAndIsClearedForTheNextAppend() throws IOException {
+        JournalSegment segment = JournalSegment.create(directory, 1, SIZE);
+        appendEvents(segment, 1, 5);
+        int tornFrame = frameOffset(segment, 4);
+        segment.force();
+        // The last frame's header reached the disk but its payload did not
+        corrupt(segment.getFile(), tornFrame + JournalSegment.FRAME_HEADER + 2);
+
+        JournalSegment recovered = JournalSegment.open(segment.getFile(), true);
+
+        assertEquals(tornFrame, recovered.end());
+        assertEquals(4, recovered.getLastSequence());
+        assertEquals(sequences(1, 4), readAll(recovered));
+
+        assertTrue(recovered.tryAppend(OrderEventCodec.encode(event(5)), 5));
+        assertEquals(sequences(1, 5), readAll(JournalSegment.open(segment.getFile(), false)));
+    }
+
+    @Test
+    void corruptFrameInASealedSegmentHidesOnlyWhatFollowsIt() throws IOException {
+        JournalSegment segment = JournalSegment.create(directory, 1, SIZE);
+        appendEvents(segment, 1, 6);
+        int corrupted = frameOffset(segment, 2);
+        segment.force();
+        corrupt(segment.getFile(), corrupted + JournalSegment.FRAME_HEADER);
+
+        JournalSegment reopened = JournalSegment.open(segment.getFile(), false);
+
+        assertEquals(2, reopened.getLastSequence());
+        assertEquals(sequences(1, 2), readAll(reopened));
+    }
+
+    @Test
+    void truncatedFileRecoversTheFramesThatRemain() throws IOException {
+        JournalSegment segment = JournalSegment.create(directory, 1, SIZE);
+        appendEvents(segment, 1, 5);
+        int cut = frameOffset(segment, 3) + 3;
+        segment.force();
+        try (RandomAccessFile raf = new RandomAccessFile(segment.getFile().toFile(), "rw")) {
+            raf.setLength(cut);
+        }
+
+        JournalSegment reopened = JournalSegment.open(segment.getFile(), false);
+
+        assertEquals(3, reopened.getLastSequence());
+        assertEquals(sequences(1, 3), readAll(reopened));
+    }
+
+    static OrderEvent event(long sequence) {
+        return new OrderEvent(sequence, Instant.ofEpochMilli(1_700_000_000_000L + sequence),
+                OrderEvent.Type.ORDER_CREATED, sequence, 1L, null, OrderStatus.PENDING, new BigDecimal("10.00"),
+                List.of(new OrderEvent.Line(1, 1, new BigDecimal("10.00"))));
+    }
+
+    static List<Long> sequences(long first, int count) {
+        List<Long> sequences = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            sequences.add(first + i);
+        }
+        return sequences;
+    }
+
+    private static void appendEvents(JournalSegment segment, long first, int count) {
+        for (int i = 0; i < count; i++) {
+            assertTrue(segment.tryAppend(OrderEventCodec.encode(event(first + i)), first + i));
+        }
+    }
+
+    private static List<Long> readAll(JournalSegment segment) {
+        List<Long> sequences = new ArrayList<>();
+        for (int position = 0; position < segment.end(); position = segment.nextPosition(position)) {
+            sequences.add(segment.read(position).getSequence());
+        }
+        return sequences;
+    }
+
+    // Byte offset of the frame with the given index
+    private static int frameOffset(JournalSegment segment, int index) {
+        int position = 0;
+        for (int i = 0; i < index; i++) {
+            position = segment.nextPosition(position);
+        }
+        return position;
+    }
+
+    private static void corrupt(Path file, int offset) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(offset);
+            int b = raf.read();
+            raf.seek(offset);
+            raf.write(b ^ 0xFF);
+        }
+    }
+}
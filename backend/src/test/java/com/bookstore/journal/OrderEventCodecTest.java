@@ -0,0 +1,88 @@
+// OrderEventCodecTest.java
+package com.bookstore.journal;
+
+import com.bookstore.entity.OrderStatus;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrderEventCodecTest {
+
+    @Test
+    void createdEventRoundTrips() {
+        OrderEvent event = new OrderEvent(123_456_789L, Instant.ofEpochMilli(1_700_000_000_123L),
+                OrderEvent.Type.ORDER_CREATED, 42, 7L, null, OrderStatus.PENDING, new BigDecimal("59.97"),
+                List.of(new OrderEvent.Line(3, 2, new BigDecimal("19.99")),
+                        new OrderEvent.Line(Long.MAX_VALUE, 1, new BigDecimal("19.990"))));
+
+        OrderEvent decoded = roundTrip(event);
+
+        assertEquals(123_456_789L, decoded.getSequence());
+        assertEquals(event.getTimestamp(), decoded.getTimestamp());
+        assertEquals(OrderEvent.Type.ORDER_CREATED, decoded.getType());
+        assertEquals(42, decoded.getOrderId());
+        assertEquals(7L, decoded.getUserId());
+        assertNull(decoded.getFromStatus());
+        assertEquals(OrderStatus.PENDING, decoded.getToStatus());
+        assertEquals(new BigDecimal("59.97"), decoded.getTotalAmount());
+        assertEquals(2, decoded.getLines().size());
+        assertEquals(3, decoded.getLines().get(0).getBookId());
+        assertEquals(2, decoded.getLines().get(0).getQuantity());
+        assertEquals(new BigDecimal("19.99"), decoded.getLines().get(0).getPrice());
+        assertEquals(Long.MAX_VALUE, decoded.getLines().get(1).getBookId());
+        // Scale is kept, not just the numeric value
+        assertEquals(new BigDecimal("19.990"), decoded.getLines().get(1).getPrice());
+    }
+
+    @Test
+    void statusEventWithoutUserOrTotalRoundTrips() {
+        OrderEvent event = new OrderEvent(1, Instant.ofEpochMilli(0), OrderEvent.Type.CANCELLED, 9, null,
+                OrderStatus.SHIPPED, OrderStatus.CANCELLED, null, List.of());
+
+        OrderEvent decoded = roundTrip(event);
+
+        assertEquals(OrderEvent.Type.CANCELLED, decoded.getType());
+        assertNull(decoded.getUserId());
+        assertEquals(OrderStatus.SHIPPED, decoded.getFromStatus());
+        assertEquals(OrderStatus.CANCELLED, decoded.getToStatus());
+        assertNull(decoded.getTotalAmount());
+        assertEquals(List.of(), decoded.getLines());
+    }
+
+    @Test
+    void negativeAndZeroAmountsRoundTrip() {
+        for (String amount : new String[] {"0", "0.00", "-12.50", "-0.01", "92233720368547758.07"}) {
+            OrderEvent event = new OrderEvent(1, Instant.EPOCH, OrderEvent.Type.STATUS_CHANGED, 1, 1L,
+                    OrderStatus.PENDING, OrderStatus.SHIPPED, new BigDecimal(amount), List.of());
+            assertEquals(new BigDecimal(amount), roundTrip(event).getTotalAmount());
+        }
+    }
+
+    @Test
+    void rejectsAmountsItCannotRepresent() {
+        for (String amount : new String[] {"1E+3", "92233720368547758.08"}) {
+            OrderEvent event = new OrderEvent(1, Instant.EPOCH, OrderEvent.Type.STATUS_CHANGED, 1, 1L,
+                    OrderStatus.PENDING, OrderStatus.SHIPPED, new BigDecimal(amount), List.of());
+            assertThrows(IllegalArgumentException.class, () -> OrderEventCodec.encode(event));
+        }
+    }
+
+    @Test
+    void rejectsUnknownVersion() {
+        byte[] payload = OrderEventCodec.encode(new OrderEvent(1, Instant.EPOCH, OrderEvent.Type.STATUS_CHANGED,
+                1, 1L, OrderStatus.PENDING, OrderStatus.SHIPPED, BigDecimal.ONE, List.of()));
+        payload[0] = 2;
+        assertThrows(IllegalStateException.class, () -> OrderEventCodec.decode(ByteBuffer.wrap(payload)));
+    }
+
+    private static OrderEvent roundTrip(OrderEvent event) {
+        return OrderEventCodec.decode(ByteBuffer.wrap(OrderEventCodec.encode(event)));
+    }
+}
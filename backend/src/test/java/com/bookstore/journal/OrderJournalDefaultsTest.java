@@ -0,0 +1,44 @@
+// OrderJournalDefaultsTest.java
+package com.bookstore.journal;
+
+import com.bookstore.entity.Book;
+import com.bookstore.entity.Order;
+import com.bookstore.service.OrderService;
+import com.bookstore.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static com.bookstore.support.TestData.item;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * A fresh checkout configures no journal settings; the application must still start
+ * and take orders, with the journal off.
+ */
+@SpringBootTest
+class OrderJournalDefaultsTest {
+
+    @Autowired
+    private OrderJournal orderJournal;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void journalIsOffAndOrdersStillCommit() {
+        Book book = testData.book("Fiction", "10.00", 5);
+        Order order = orderService.createOrder(testData.user("journal-off"), List.of(item(book, 1)), "1 Test Street");
+
+        assertNotNull(order.getId());
+        assertFalse(orderJournal.isEnabled());
+        assertEquals(0, orderJournal.getLastSequence());
+    }
+}
@@ -0,0 +1,58 @@
+// OrderJournalEnabledTest.java
+package com.bookstore.journal;
+
+import com.bookstore.entity.Book;
+import com.bookstore.entity.Order;
+import com.bookstore.service.OrderService;
+import com.bookstore.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.bookstore.support.TestData.item;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * With the journal switched on and given a directory, a committed order is journaled.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:derby:memory:journal-test;create=true",
+        "orders.journal.enabled=true"
+})
+class OrderJournalEnabledTest {
+
+    @DynamicPropertySource
+    static void journalDirectory(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Files.createTempDirectory("order-journal");
+        registry.add("orders.journal.dir", directory::toString);
+    }
+
+    @Autowired
+    private OrderJournal orderJournal;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void committedOrderIsJournaled() {
+        long before = orderJournal.getLastSequence();
+        Book book = testData.book("Fiction", "10.00", 5);
+        Order order = orderService.createOrder(testData.user("journal-on"), List.of(item(book, 2)), "1 Test Street");
+
+        List<OrderEvent> events = orderJournal.read(before, 10);
+        assertEquals(1, events.size());
+        assertEquals(OrderEvent.Type.ORDER_CREATED, events.get(0).getType());
+        assertEquals(order.getId().longValue(), events.get(0).getOrderId());
+        assertEquals(2, events.get(0).getLines().get(0).getQuantity());
+    }
+}
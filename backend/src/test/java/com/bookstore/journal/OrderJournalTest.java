@@ -0,0 +1,187 @@
+// OrderJournalTest.java
+package com.bookstore.journal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.bookstore.journal.JournalSegmentTest.event;
+import static com.bookstore.journal.JournalSegmentTest.sequences;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderJournalTest {
+
+    // Events of about 30 bytes, so a 1 MB segment rolls after roughly 30,000 of them
+    private static final int ROLLING_BATCH = 80_000;
+
+    @TempDir
+    Path directory;
+
+    private final List<OrderJournal> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeJournals() {
+        opened.forEach(OrderJournal::close);
+    }
+
+    @Test
+    void readsBackEveryEventAcrossSegments() throws IOException {
+        OrderJournal journal = open();
+        for (long i = 1; i <= ROLLING_BATCH; i++) {
+            assertEquals(i, journal.append(event(i * 10)));
+        }
+
+        assertTrue(segmentFiles().size() >= 3, "expected the journal to roll");
+        List<OrderEvent> events = journal.read(0, Integer.MAX_VALUE);
+        assertEquals(sequences(1, ROLLING_BATCH), sequencesOf(events));
+        assertEquals(10, events.get(0).getOrderId());
+        assertEquals(ROLLING_BATCH * 10L, events.get(ROLLING_BATCH - 1).getOrderId());
+
+        // A reader can start anywhere, including inside a later segment
+        assertEquals(sequences(50_001, 5), sequencesOf(journal.read(50_000, 5)));
+        assertEquals(List.of(), journal.read(ROLLING_BATCH, 5));
+    }
+
+    @Test
+    void reopenedJournalContinuesTheSequence() throws IOException {
+        OrderJournal journal = open();
+        for (long i = 1; i <= ROLLING_BATCH; i++) {
+            journal.append(event(i));
+        }
+        journal.close();
+
+        OrderJournal reopened = open();
+        assertEquals(ROLLING_BATCH, reopened.getLastSequence());
+        assertEquals(ROLLING_BATCH + 1, reopened.append(event(0)));
+        assertEquals(sequences(1, ROLLING_BATCH + 1), sequencesOf(reopened.read(0, Integer.MAX_VALUE)));
+    }
+
+    @Test
+    void tornTailIsDroppedOnRestartAndItsSequenceReused() throws IOException {
+        OrderJournal journal = open();
+        for (long i = 1; i <= 10; i++) {
+            journal.append(event(i));
+        }
+        JournalSegment active = journal.segmentFor(10);
+        int lastFrame = 0;
+        while (active.nextPosition(lastFrame) < active.end()) {
+            lastFrame = active.nextPosition(lastFrame);
+        }
+        journal.close();
+        try (RandomAccessFile raf = new RandomAccessFile(active.getFile().toFile(), "rw")) {
+            raf.seek(lastFrame + JournalSegment.FRAME_HEADER + 1);
+            raf.write(0xFF);
+        }
+
+        OrderJournal reopened = open();
+        assertEquals(9, reopened.getLastSequence());
+        assertEquals(10, reopened.append(event(1000)));
+
+        List<OrderEvent> events = reopened.read(0, Integer.MAX_VALUE);
+        assertEquals(sequences(1, 10), sequencesOf(events));
+        assertEquals(1000, events.get(9).getOrderId());
+    }
+
+    @Test
+    void readerFollowsAppendsIntoTheNextSegment() throws IOException, InterruptedException {
+        OrderJournal journal = open();
+        OrderJournalReader reader = journal.openReader(0);
+        assertNull(reader.poll());
+
+        long read = 0;
+        for (long i = 1; i <= ROLLING_BATCH; i++) {
+            journal.append(event(i));
+            if (i % 1000 == 0) {
+                OrderEvent event;
+                while ((event = reader.poll()) != null) {
+                    assertEquals(++read, event.getSequence());
+                }
+            }
+        }
+        assertEquals(ROLLING_BATCH, read);
+        assertNull(reader.take(10));
+    }
+
+    @Test
+    void rollingDeletesSegmentsBeyondTheRetention() throws IOException {
+        OrderJournal journal = open(2);
+        for (long i = 1; i <= ROLLING_BATCH; i++) {
+            journal.append(event(i));
+        }
+
+        List<Path> files = segmentFiles();
+        assertEquals(2, files.size());
+        long first = journal.getFirstSequence();
+        assertTrue(first > 1);
+        assertTrue(files.contains(directory.resolve(JournalSegment.fileName(first))));
+
+        // Reading from before the oldest segment resumes at the first retained event
+        List<OrderEvent> events = journal.read(0, Integer.MAX_VALUE);
+        assertEquals(sequences(first, (int) (ROLLING_BATCH - first + 1)), sequencesOf(events));
+    }
+
+    @Test
+    void restartAppliesALoweredRetention() throws IOException {
+        OrderJournal journal = open(0);
+        for (long i = 1; i <= ROLLING_BATCH; i++) {
+            journal.append(event(i));
+        }
+        assertTrue(segmentFiles().size() >= 3);
+        journal.close();
+
+        OrderJournal reopened = open(1);
+        assertEquals(List.of(directory.resolve(JournalSegment.fileName(reopened.getFirstSequence()))), segmentFiles());
+        assertEquals(ROLLING_BATCH, reopened.getLastSequence());
+        assertEquals(ROLLING_BATCH + 1, reopened.append(event(0)));
+    }
+
+    @Test
+    void directoryMustBeConfiguredAsAnAbsolutePath() {
+        for (String name : new String[] {"", "  ", "data/order-journal"}) {
+            OrderJournal journal = new OrderJournal();
+            ReflectionTestUtils.setField(journal, "enabled", true);
+            ReflectionTestUtils.setField(journal, "directoryName", name);
+            assertThrows(IllegalStateException.class, journal::init);
+        }
+        assertFalse(Files.exists(Path.of("data/order-journal")));
+    }
+
+    private OrderJournal open() throws IOException {
+        return open(0);
+    }
+
+    private OrderJournal open(int retentionSegments) throws IOException {
+        OrderJournal journal = new OrderJournal();
+        ReflectionTestUtils.setField(journal, "enabled", true);
+        ReflectionTestUtils.setField(journal, "directoryName", directory.toString());
+        ReflectionTestUtils.setField(journal, "segmentSizeMb", 1);
+        ReflectionTestUtils.setField(journal, "fsyncPolicy", OrderJournal.FsyncPolicy.NONE);
+        ReflectionTestUtils.setField(journal, "retentionSegments", retentionSegments);
+        journal.init();
+        opened.add(journal);
+        return journal;
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> listing = Files.list(directory)) {
+            return listing.filter(file -> file.getFileName().toString().endsWith(".log")).toList();
+        }
+    }
+
+    private static List<Long> sequencesOf(List<OrderEvent> events) {
+        return events.stream().map(OrderEvent::getSequence).toList();
+    }
+}
@@ -0,0 +1,92 @@
+// BookKeysetPageTest.java
+package com.bookstore.repository;
+
+import com.bookstore.dto.BookSummary;
+import com.bookstore.support.DerbyPlans;
+import com.bookstore.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Keyset pages must walk the catalogue in (sort key, id) order without gaps or repeats
+ * across ties, and must seek into the matching index rather than scan and sort.
+ */
+@SpringBootTest
+class BookKeysetPageTest {
+
+    private static final int PAGE = 7;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private DerbyPlans derbyPlans;
+
+    @BeforeEach
+    void setUp() {
+        // Repeated prices so pages break inside runs of equal sort keys
+        for (int i = 0; i < 40; i++) {
+            testData.book("Keyset", (5 + i % 4) + ".00", 1);
+        }
+    }
+
+    @Test
+    void titlePagesMatchFullOrdering() {
+        List<BookSummary> expected = new ArrayList<>(bookRepository.findAllSummaries());
+        expected.sort(Comparator.comparing(BookSummary::getTitle).thenComparing(BookSummary::getId));
+
+        List<BookSummary> seen = new ArrayList<>(bookRepository.findPageOrderByTitle(PageRequest.ofSize(PAGE)));
+        while (seen.size() < expected.size()) {
+            BookSummary last = seen.get(seen.size() - 1);
+            seen.addAll(bookRepository.findPageAfterTitle(last.getTitle(), last.getId(), PageRequest.ofSize(PAGE)));
+        }
+        assertEquals(ids(expected), ids(seen));
+    }
+
+    @Test
+    void pricePagesMatchFullOrdering() {
+        List<BookSummary> expected = new ArrayList<>(bookRepository.findAllSummaries());
+        expected.sort(Comparator.comparing(BookSummary::getPrice).thenComparing(BookSummary::getId));
+
+        List<BookSummary> seen = new ArrayList<>(bookRepository.findPageOrderByPrice(PageRequest.ofSize(PAGE)));
+        while (seen.size() < expected.size()) {
+            BookSummary last = seen.get(seen.size() - 1);
+            seen.addAll(bookRepository.findPageAfterPrice(last.getPrice(), last.getId(), PageRequest.ofSize(PAGE)));
+        }
+        assertEquals(ids(expected), ids(seen));
+    }
+
+    @Test
+    void seekPagesStartInsideTheIndex() {
+        String titlePlan = derbyPlans.planOf(() -> bookRepository.findPageAfterTitle("Book 8", 0L, PageRequest.ofSize(PAGE)));
+        assertSeeks(titlePlan, "IDX_BOOKS_TITLE_ID");
+
+        String pricePlan = derbyPlans.planOf(() -> bookRepository.findPageAfterPrice(new BigDecimal("6.00"), 0L, PageRequest.ofSize(PAGE)));
+        assertSeeks(pricePlan, "IDX_BOOKS_PRICE_ID");
+    }
+
+    private static void assertSeeks(String plan, String index) {
+        assertTrue(plan.contains("using index " + index), plan);
+        assertTrue(plan.matches("(?s).*start position:\\s*>= on first 1 column\\(s\\).*"), plan);
+        assertFalse(plan.contains("Sort ResultSet"), plan);
+    }
+
+    private static List<Long> ids(List<BookSummary> books) {
+        return books.stream().map(BookSummary::getId).toList();
+    }
+}
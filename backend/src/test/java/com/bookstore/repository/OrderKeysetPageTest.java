@@ -0,0 +1,120 @@
+// OrderKeysetPageTest.java
+package com.bookstore.repository;
+
+import com.bookstore.dto.OrderFilter;
+import com.bookstore.entity.Book;
+import com.bookstore.entity.OrderStatus;
+import com.bookstore.entity.User;
+import com.bookstore.service.OrderService;
+import com.bookstore.support.DerbyPlans;
+import com.bookstore.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.bookstore.support.TestData.item;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The admin order listing pages newest first by (order date, id). Pages must not skip or
+ * repeat orders that share a date, and each filter variant must seek into its index.
+ */
+@SpringBootTest
+class OrderKeysetPageTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private DerbyPlans derbyPlans;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User customer;
+
+    @BeforeEach
+    void setUp() {
+        customer = testData.user("keyset");
+        Book book = testData.book("Keyset", "10.00", 1000);
+        for (int i = 0; i < 20; i++) {
+            orderService.createOrder(customer, List.of(item(book, 1)), "1 Test Street");
+        }
+        // Four orders to a timestamp, so page boundaries fall inside runs of equal dates
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM orders WHERE user_id = ? ORDER BY id", Long.class, customer.getId());
+        for (int i = 0; i < ids.size(); i++) {
+            jdbcTemplate.update("UPDATE orders SET order_date = ? WHERE id = ?",
+                    Timestamp.valueOf(BASE.plusMinutes(i / 4)), ids.get(i));
+        }
+    }
+
+    @Test
+    void pagesWalkTiesWithoutGapsOrRepeats() {
+        OrderFilter byUser = new OrderFilter();
+        byUser.setUsername(customer.getUsername());
+        List<Long> expected = jdbcTemplate.queryForList(
+                "SELECT id FROM orders WHERE user_id = ? ORDER BY order_date DESC, id DESC", Long.class, customer.getId());
+
+        List<Long> seen = new ArrayList<>();
+        List<Long> page = orderRepository.findPageIds(byUser, null, null, 3);
+        while (!page.isEmpty()) {
+            seen.addAll(page);
+            Long lastId = page.get(page.size() - 1);
+            LocalDateTime lastDate = jdbcTemplate.queryForObject(
+                    "SELECT order_date FROM orders WHERE id = ?", Timestamp.class, lastId).toLocalDateTime();
+            page = orderRepository.findPageIds(byUser, lastDate, lastId, 3);
+        }
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void unfilteredAndStatusPagesReadTheIndexInOrder() {
+        String unfiltered = planOf(new OrderFilter());
+        assertSeeks(unfiltered, "IDX_ORDERS_DATE_ID", 1);
+        assertFalse(unfiltered.contains("Sort ResultSet"), unfiltered);
+
+        OrderFilter byStatus = new OrderFilter();
+        byStatus.setStatus(OrderStatus.PENDING);
+        String status = planOf(byStatus);
+        assertSeeks(status, "IDX_ORDERS_STATUS_DATE_ID", 2);
+        assertFalse(status.contains("Sort ResultSet"), status);
+    }
+
+    @Test
+    void customerPagesSeekOnUserAndDate() {
+        // Derby still sorts above the join, but only the one customer's rows below the cursor
+        OrderFilter byUser = new OrderFilter();
+        byUser.setUsername(customer.getUsername());
+        String plan = planOf(byUser);
+        assertSeeks(plan, "IDX_ORDERS_USER_DATE_ID", 2);
+        assertFalse(plan.contains("Table Scan ResultSet for USERS"), plan);
+    }
+
+    private String planOf(OrderFilter filter) {
+        return derbyPlans.planOf(() -> orderRepository.findPageIds(filter, BASE.plusMinutes(2), Long.MAX_VALUE, 5));
+    }
+
+    private static void assertSeeks(String plan, String index, int startColumns) {
+        assertTrue(plan.contains("Index Scan ResultSet for ORDERS using index " + index), plan);
+        assertTrue(plan.matches("(?s).*Index Scan ResultSet for ORDERS.*?start position:\\s*>= on first "
+                + startColumns + " column\\(s\\).*"), plan);
+    }
+}
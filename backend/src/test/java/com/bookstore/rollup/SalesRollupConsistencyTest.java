@@ -0,0 +1,221 @@
+// SalesRollupConsistencyTest.java
+package com.bookstore.rollup;
+
+import com.bookstore.entity.Book;
+import com.bookstore.entity.Order;
+import com.bookstore.entity.OrderStatus;
+import com.bookstore.entity.User;
+import com.bookstore.service.OrderService;
+import com.bookstore.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.bookstore.support.TestData.item;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The rollup tables must always equal a GROUP BY over the orders they summarise, both
+ * as checkout and cancellation keep them in step and after a backfill rebuilds them.
+ * Other tests share the database, so only this test's books and categories are compared.
+ */
+@SpringBootTest
+class SalesRollupConsistencyTest {
+
+    private static final String BOOK_ROWS =
+            "SELECT sale_day, book_id, units, revenue FROM sales_daily_book WHERE book_id IN (%s)";
+    private static final String BOOK_ORDERS =
+            "SELECT CAST(o.order_date AS DATE), i.book_id, SUM(CAST(i.quantity AS BIGINT)), SUM(i.quantity * i.price) " +
+            "FROM orders o JOIN order_items i ON i.order_id = o.id " +
+            "WHERE o.status <> 'CANCELLED' AND i.book_id IN (%s) " +
+            "GROUP BY CAST(o.order_date AS DATE), i.book_id";
+    private static final String CATEGORY_ROWS =
+            "SELECT sale_day, category, SUM(units), SUM(revenue) FROM sales_daily_category " +
+            "WHERE category IN (?, ?) GROUP BY sale_day, category";
+    private static final String CATEGORY_ORDERS =
+            "SELECT CAST(o.order_date AS DATE), b.category, SUM(CAST(i.quantity AS BIGINT)), SUM(i.quantity * i.price) " +
+            "FROM orders o JOIN order_items i ON i.order_id = o.id JOIN books b ON b.id = i.book_id " +
+            "WHERE o.status <> 'CANCELLED' AND b.category IN (?, ?) " +
+            "GROUP BY CAST(o.order_date AS DATE), b.category";
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private SalesRollupBackfill salesRollupBackfill;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private String fiction;
+    private String poetry;
+    private List<Book> books;
+    private User customer;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        fiction = "Fiction-" + suffix;
+        poetry = "Poetry-" + suffix;
+        books = List.of(
+                testData.book(fiction, "12.50", 500),
+                testData.book(fiction, "8.99", 500),
+                testData.book(poetry, "15.00", 500));
+        customer = testData.user("rollup");
+    }
+
+    @Test
+    void placingAndCancellingKeepsRollupsEqualToOrders() {
+        List<Order> orders = placeOrders(12);
+        assertRollupsMatchOrders();
+        assertFalse(bookRows().isEmpty());
+
+        orderService.cancelOrder(orders.get(0).getId());
+        orderService.updateOrderStatus(orders.get(1).getId(), OrderStatus.SHIPPED);
+        orderService.updateOrderStatus(orders.get(2).getId(), OrderStatus.DELIVERED);
+        assertRollupsMatchOrders();
+
+        // The shipped order is rejected and keeps counting
+        orderService.updateOrderStatuses(List.of(orders.get(3).getId(), orders.get(4).getId(),
+                orders.get(5).getId(), orders.get(1).getId()), OrderStatus.CANCELLED);
+        assertRollupsMatchOrders();
+
+        for (Order order : orders.subList(6, orders.size())) {
+            orderService.cancelOrder(order.getId());
+        }
+        assertRollupsMatchOrders();
+    }
+
+    @Test
+    void backfillRebuildsRollupsThatDrifted() throws InterruptedException {
+        List<Order> orders = placeOrders(9);
+        orderService.cancelOrder(orders.get(4).getId());
+
+        // Move a third of the orders to yesterday behind the rollups' back
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < orders.size(); i += 3) {
+            jdbcTemplate.update("UPDATE orders SET order_date = ? WHERE id = ?",
+                    Timestamp.valueOf(today.minusDays(1).atTime(10, 0)), orders.get(i).getId());
+        }
+        assertFalse(bookOrders().equals(bookRows()));
+
+        SalesBackfillJob job = salesRollupBackfill.start(today.minusDays(1), today);
+        for (int i = 0; i < 300 && job.isRunning(); i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(SalesBackfillJob.Status.COMPLETED, job.getStatus());
+        assertEquals(0, job.getDaysFailed());
+        assertEquals(2, job.getDaysRebuilt());
+        assertRollupsMatchOrders();
+    }
+
+    @Test
+    void checkoutsOfDifferentBooksInACategoryDoNotWaitOnEachOther() throws Exception {
+        Book first = books.get(0);
+        Book second = books.get(1);
+        assertNotEquals(SalesDeltas.stripeOf(first.getId()), SalesDeltas.stripeOf(second.getId()));
+        CountDownLatch placed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            // The first checkout keeps its transaction, and so its rollup row locks, open
+            Future<?> holder = pool.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                orderService.createOrder(testData.user("holder"), List.of(item(first, 1)), "1 Test Street");
+                placed.countDown();
+                try {
+                    release.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertTrue(placed.await(30, TimeUnit.SECONDS));
+
+            Future<Order> other = pool.submit(() ->
+                    orderService.createOrder(customer, List.of(item(second, 1)), "1 Test Street"));
+            try {
+                assertNotNull(other.get(10, TimeUnit.SECONDS).getId());
+            } finally {
+                release.countDown();
+            }
+            holder.get(30, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            pool.shutdown();
+        }
+        assertRollupsMatchOrders();
+    }
+
+    // Each order buys a mix of the three books in varying quantities
+    private List<Order> placeOrders(int count) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Book first = books.get(i % 3);
+            Book second = books.get((i + 1) % 3);
+            orders.add(orderService.createOrder(customer,
+                    List.of(item(first, 1 + i % 4), item(second, 2)), "1 Test Street"));
+        }
+        return orders;
+    }
+
+    private void assertRollupsMatchOrders() {
+        assertEquals(bookOrders(), nonZero(bookRows()));
+        assertEquals(rows(CATEGORY_ORDERS, fiction, poetry), nonZero(rows(CATEGORY_ROWS, fiction, poetry)));
+    }
+
+    private Map<String, String> bookRows() {
+        return rows(String.format(BOOK_ROWS, bookIds()));
+    }
+
+    private Map<String, String> bookOrders() {
+        return rows(String.format(BOOK_ORDERS, bookIds()));
+    }
+
+    private String bookIds() {
+        return books.stream().map(book -> book.getId().toString()).collect(Collectors.joining(", "));
+    }
+
+    // Rows keyed by day and book or category, valued "units revenue" with revenue at cent scale
+    private Map<String, String> rows(String sql, Object... args) {
+        Map<String, String> rows = new TreeMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            BigDecimal revenue = rs.getBigDecimal(4).setScale(2);
+            rows.put(rs.getDate(1) + " " + rs.getString(2), rs.getLong(3) + " " + revenue);
+        }, args);
+        return rows;
+    }
+
+    // Fully cancelled days keep their rollup rows at zero, which a GROUP BY does not produce
+    private static Map<String, String> nonZero(Map<String, String> rows) {
+        Map<String, String> nonZero = new TreeMap<>(rows);
+        nonZero.values().removeIf(row -> row.equals("0 0.00"));
+        return nonZero;
+    }
+}
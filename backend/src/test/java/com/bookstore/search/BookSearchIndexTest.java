@@ -0,0 +1,79 @@
+// BookSearchIndexTest.java
+package com.bookstore.search;
+
+import com.bookstore.entity.Book;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookSearchIndexTest {
+
+    @Test
+    void prefixMatchesEveryCompletionWithinTheBudget() {
+        // 200 distinct completions of "zeta", one book each; the last ones sort far past
+        // the first few dozen
+        List<Book> catalog = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            catalog.add(book(i + 1, String.format("Zeta%03d Chronicles", i), "Plain description"));
+        }
+        BookSearchIndex index = new BookSearchIndex();
+        index.rebuild(catalog);
+
+        BookSearchIndex.Result result = index.search("chronicles zeta");
+        assertEquals(200, result.getIds().size());
+        assertFalse(result.isTruncated());
+
+        BookSearchIndex.Result last = index.search("zeta199");
+        assertEquals(List.of(200L), last.getIds());
+    }
+
+    @Test
+    void prefixOverTheBudgetKeepsTheMostFrequentCompletions() {
+        // Every book carries "common" plus many words of its own starting with "co"
+        int books = 600;
+        int ownWords = BookSearchIndex.MAX_PREFIX_POSTINGS / books + 5;
+        List<Book> catalog = new ArrayList<>();
+        for (int i = 0; i < books; i++) {
+            StringBuilder description = new StringBuilder("common");
+            for (int w = 0; w < ownWords; w++) {
+                description.append(" co").append(i).append('x').append(w);
+            }
+            catalog.add(book(i + 1, "Title " + i, description.toString()));
+        }
+        BookSearchIndex index = new BookSearchIndex();
+        index.rebuild(catalog);
+
+        BookSearchIndex.Result result = index.search("co");
+        assertTrue(result.isTruncated());
+        // "common" is in every book, so nothing is lost despite the cut
+        assertEquals(books, result.getIds().size());
+
+        // A longer prefix fits and is complete
+        BookSearchIndex.Result narrow = index.search("co7x");
+        assertFalse(narrow.isTruncated());
+        assertEquals(List.of(8L), narrow.getIds());
+    }
+
+    @Test
+    void exactTermsAreNeverTruncated() {
+        BookSearchIndex index = new BookSearchIndex();
+        index.rebuild(List.of(book(1, "Dune", "Desert planet"), book(2, "Dune Messiah", "Sequel")));
+
+        BookSearchIndex.Result result = index.search("dune ");
+        assertEquals(2, result.getIds().size());
+        assertFalse(result.isTruncated());
+        assertEquals(List.of(), index.search("missing term").getIds());
+    }
+
+    private static Book book(long id, String title, String description) {
+        Book book = new Book(title, "Author", new BigDecimal("9.99"), description, "Fiction", 1);
+        book.setId(id);
+        return book;
+    }
+}
@@ -0,0 +1,83 @@
+// TrigramIndexTest.java
+package com.bookstore.search;
+
+import com.bookstore.entity.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrigramIndexTest {
+
+    private static final long DUNE = 1;
+    private static final long HOBBIT = 2;
+    private static final long FOUNDATION = 3;
+    private static final long EMMA = 4;
+    private static final long KARENINA = 5;
+
+    private final TrigramIndex index = new TrigramIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.rebuild(List.of(
+                book(DUNE, "Dune", "Frank Herbert"),
+                book(HOBBIT, "The Hobbit", "Tolkien"),
+                book(FOUNDATION, "Foundation", "Isaac Asimov"),
+                book(EMMA, "Emma", "Jane Austen"),
+                book(KARENINA, "Anna Karenina", "Leo Tolstoy")));
+    }
+
+    @Test
+    void substitutionMatches() {
+        // A trailing space ends the word, so it is matched whole rather than as a prefix
+        assertEquals(List.of(HOBBIT), index.search("hobbot "));
+        assertEquals(List.of(HOBBIT), index.search("hobbot"));
+    }
+
+    @Test
+    void insertionAndDeletionMatch() {
+        assertEquals(List.of(FOUNDATION), index.search("foundaation "));
+        assertEquals(List.of(FOUNDATION), index.search("fondation "));
+    }
+
+    @Test
+    void transpositionOfAShortWordMatches() {
+        // "dnue" shares no trigram with "dune", yet is a single edit away
+        assertEquals(List.of(DUNE), index.search("dnue "));
+        assertEquals(List.of(DUNE), index.search("dnue"));
+        assertEquals(List.of(EMMA), index.search("mema "));
+        assertEquals(List.of(HOBBIT), index.search("hobibt "));
+    }
+
+    @Test
+    void oneLetterQueryMatchesAsAPrefix() {
+        assertEquals(Set.of(FOUNDATION, EMMA, KARENINA), Set.copyOf(index.search("a")));
+        assertEquals(List.of(EMMA), index.search("e"));
+        assertEquals(List.of(DUNE), index.search("dune f"));
+    }
+
+    @Test
+    void wordsBeyondTheEditBudgetDoNotMatch() {
+        assertTrue(index.search("dxxe ").isEmpty());
+        assertTrue(index.search("hxbbxx ").isEmpty());
+        assertTrue(index.search("x").isEmpty());
+    }
+
+    @Test
+    void prefixDistanceOnlyLooksAtReachablePrefixes() {
+        assertEquals(1, TrigramIndex.editDistance("fonda", "foundation", 1, true));
+        assertEquals(2, TrigramIndex.editDistance("fxxda", "foundation", 1, true));
+        assertEquals(0, TrigramIndex.editDistance("a", "asimov", 0, true));
+    }
+
+    private static Book book(long id, String title, String author) {
+        Book book = new Book(title, author, new BigDecimal("9.99"), null, "Fiction", 1);
+        book.setId(id);
+        return book;
+    }
+}
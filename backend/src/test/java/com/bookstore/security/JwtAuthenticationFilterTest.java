@@ -0,0 +1,118 @@
+// JwtAuthenticationFilterTest.java
+package com.bookstore.security;
+
+import com.bookstore.entity.User;
+import com.bookstore.entity.UserRole;
+import com.bookstore.service.UserService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * An authenticated request must cost one signature check: the filter parses the token
+ * once and reads every claim from the result, and JwtUtil reuses the key and parser it
+ * built at startup.
+ */
+class JwtAuthenticationFilterTest {
+
+    private JwtUtil jwtUtil;
+    private PrincipalCache principalCache;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", "filter-test-secret-that-is-long-enough-for-hs256-keys");
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", 60_000);
+        jwtUtil.init();
+        jwtUtil = spy(jwtUtil);
+
+        principalCache = mock(PrincipalCache.class);
+        TokenDenylist tokenDenylist = mock(TokenDenylist.class);
+        when(tokenDenylist.isRevoked(anyString())).thenReturn(false);
+
+        TokenVerifier tokenVerifier = new TokenVerifier();
+        ReflectionTestUtils.setField(tokenVerifier, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(tokenVerifier, "userService", mock(UserService.class));
+        ReflectionTestUtils.setField(tokenVerifier, "principalCache", principalCache);
+        ReflectionTestUtils.setField(tokenVerifier, "tokenDenylist", tokenDenylist);
+
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "tokenVerifier", tokenVerifier);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void requestParsesTheTokenOnce() throws Exception {
+        String token = jwtUtil.generateToken(user("reader", UserRole.CUSTOMER));
+        when(principalCache.get(eq("reader"), any())).thenReturn(new PrincipalCache.Principal(UserRole.CUSTOMER, 0));
+
+        filter.doFilter(request(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals("reader", authentication.getName());
+        assertEquals("ROLE_CUSTOMER", authentication.getAuthorities().iterator().next().getAuthority());
+        verify(jwtUtil, times(1)).parseToken(token);
+        verify(jwtUtil, never()).validateToken(anyString());
+        verify(jwtUtil, never()).getUsernameFromToken(anyString());
+        verify(jwtUtil, never()).getExpirationDateFromToken(anyString());
+    }
+
+    @Test
+    void parsingReusesTheStartupKeyAndParser() throws Exception {
+        String token = jwtUtil.generateToken(user("admin-user", UserRole.ADMIN));
+        when(principalCache.get(eq("admin-user"), any())).thenReturn(new PrincipalCache.Principal(UserRole.ADMIN, 0));
+
+        try (MockedStatic<Jwts> jwts = mockStatic(Jwts.class, CALLS_REAL_METHODS);
+             MockedStatic<Keys> keys = mockStatic(Keys.class, CALLS_REAL_METHODS)) {
+            for (int i = 0; i < 5; i++) {
+                SecurityContextHolder.clearContext();
+                filter.doFilter(request(token), new MockHttpServletResponse(), new MockFilterChain());
+                assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+            }
+            jwts.verify(Jwts::parserBuilder, never());
+            keys.verify(() -> Keys.hmacShaKeyFor(any()), never());
+        }
+        verify(jwtUtil, times(5)).parseToken(token);
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    private static User user(String username, UserRole role) {
+        User user = new User(username, username + "@example.com", "password", "1 Test Street", 30);
+        user.setRole(role);
+        return user;
+    }
+}
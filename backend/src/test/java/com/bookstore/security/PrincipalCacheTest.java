@@ -0,0 +1,124 @@
+// PrincipalCacheTest.java
+package com.bookstore.security;
+
+import com.bookstore.entity.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrincipalCacheTest {
+
+    private static final PrincipalCache.Principal CUSTOMER = new PrincipalCache.Principal(UserRole.CUSTOMER, 0);
+    private static final PrincipalCache.Principal ADMIN = new PrincipalCache.Principal(UserRole.ADMIN, 1);
+
+    @Test
+    void loadsOnceUntilInvalidated() {
+        PrincipalCache cache = cache(100, 60);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            assertSame(CUSTOMER, cache.get("reader", username -> { loads.incrementAndGet(); return CUSTOMER; }));
+        }
+        assertEquals(1, loads.get());
+
+        cache.invalidate("reader");
+        assertSame(ADMIN, cache.get("reader", username -> { loads.incrementAndGet(); return ADMIN; }));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void missingUsersAreNotCached() {
+        PrincipalCache cache = cache(100, 60);
+        assertNull(cache.get("ghost", username -> null));
+        assertSame(CUSTOMER, cache.get("ghost", username -> CUSTOMER));
+    }
+
+    @Test
+    void entriesExpireAfterTheTtl() throws InterruptedException {
+        PrincipalCache cache = cache(100, 1);
+        cache.get("reader", username -> CUSTOMER);
+        assertSame(CUSTOMER, cache.get("reader", username -> ADMIN));
+
+        Thread.sleep(1100);
+        assertSame(ADMIN, cache.get("reader", username -> ADMIN));
+    }
+
+    @Test
+    void loadThatRacedAnInvalidationIsNotKept() {
+        PrincipalCache cache = cache(100, 60);
+        // The account changes while its old state is being read
+        assertSame(CUSTOMER, cache.get("reader", username -> {
+            cache.invalidate("reader");
+            return CUSTOMER;
+        }));
+        assertSame(ADMIN, cache.get("reader", username -> ADMIN));
+    }
+
+    @Test
+    void sizeStaysBounded() {
+        PrincipalCache cache = cache(50, 60);
+        for (int i = 0; i < 5000; i++) {
+            cache.get("user-" + i, username -> CUSTOMER);
+            assertTrue(cache.size() <= 51, "size " + cache.size());
+        }
+    }
+
+    @Test
+    void concurrentReadersAndInvalidationsStayConsistent() throws Exception {
+        PrincipalCache cache = cache(64, 60);
+        AtomicInteger version = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                readers.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 20_000; i++) {
+                        String username = "user-" + ((i + thread) % 200);
+                        cache.get(username, name -> new PrincipalCache.Principal(UserRole.CUSTOMER, version.get()));
+                        if (i % 1000 == thread) {
+                            version.incrementAndGet();
+                            cache.invalidate(username);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> reader : readers) {
+                reader.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertTrue(cache.size() <= 64 + 8, "size " + cache.size());
+
+        // After the last invalidation, a fresh load sees the newest version
+        cache.invalidate("user-0");
+        assertEquals(version.get(), cache.get("user-0",
+                name -> new PrincipalCache.Principal(UserRole.CUSTOMER, version.get())).getTokenVersion());
+    }
+
+    private static PrincipalCache cache(int size, long ttlSeconds) {
+        PrincipalCache cache = new PrincipalCache();
+        ReflectionTestUtils.setField(cache, "cacheSize", size);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", ttlSeconds);
+        cache.init();
+        return cache;
+    }
+}
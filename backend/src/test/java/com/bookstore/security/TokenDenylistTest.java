@@ -0,0 +1,171 @@
+// TokenDenylistTest.java
+package com.bookstore.security;
+
+import com.bookstore.cache.BloomFilter;
+import com.bookstore.entity.RevokedToken;
+import com.bookstore.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The scheduler is started with intervals long enough never to fire; the tests run
+ * sync and purge themselves.
+ */
+class TokenDenylistTest {
+
+    private RevokedTokenRepository repository;
+    private TokenDenylist denylist;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RevokedTokenRepository.class);
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of());
+        when(repository.findActiveRevokedSince(any(), any())).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (denylist != null) {
+            denylist.close();
+        }
+    }
+
+    @Test
+    void loadsUnexpiredRevocationsAtStartup() {
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of(
+                new RevokedToken("startup-jti", LocalDateTime.now().plusHours(1))));
+        denylist = denylist(100);
+
+        assertTrue(denylist.isRevoked("startup-jti"));
+        assertFalse(denylist.isRevoked("other-jti"));
+    }
+
+    @Test
+    void revokedTokenIsRefusedAtOnceAndRecorded() {
+        denylist = denylist(100);
+
+        denylist.revoke("logout-jti", inMillis(3_600_000));
+
+        assertTrue(denylist.isRevoked("logout-jti"));
+        assertFalse(denylist.isRevoked("other-jti"));
+        verify(repository, times(1)).save(any(RevokedToken.class));
+    }
+
+    @Test
+    void revokingAnExpiredTokenDoesNothing() {
+        denylist = denylist(100);
+
+        denylist.revoke("expired-jti", inMillis(-1_000));
+        denylist.revoke(null, inMillis(3_600_000));
+
+        assertFalse(denylist.isRevoked("expired-jti"));
+        assertEquals(0, denylist.size());
+        verify(repository, never()).save(any(RevokedToken.class));
+    }
+
+    @Test
+    void syncPicksUpRevocationsFromOtherInstances() {
+        denylist = denylist(100);
+        assertFalse(denylist.isRevoked("remote-jti"));
+
+        when(repository.findActiveRevokedSince(any(), any())).thenReturn(List.of(
+                new RevokedToken("remote-jti", LocalDateTime.now().plusHours(1))));
+        denylist.sync();
+        denylist.sync();
+
+        assertTrue(denylist.isRevoked("remote-jti"));
+        assertEquals(1, denylist.size());
+    }
+
+    @Test
+    void failedSyncKeepsWhatIsKnown() {
+        denylist = denylist(100);
+        denylist.revoke("logout-jti", inMillis(3_600_000));
+
+        when(repository.findActiveRevokedSince(any(), any())).thenThrow(new RuntimeException("database down"));
+        denylist.sync();
+
+        assertTrue(denylist.isRevoked("logout-jti"));
+    }
+
+    @Test
+    void purgeDropsExpiredTokensAndRebuildsTheFilter() throws InterruptedException {
+        denylist = denylist(100);
+        List<String> kept = jtis(50);
+        kept.forEach(jti -> denylist.revoke(jti, inMillis(3_600_000)));
+        denylist.revoke("short-lived-jti", inMillis(50));
+        BloomFilter before = filter();
+
+        Thread.sleep(100);
+        denylist.purge();
+
+        assertNotSame(before, filter());
+        assertFalse(denylist.isRevoked("short-lived-jti"));
+        assertEquals(kept.size(), denylist.size());
+        for (String jti : kept) {
+            assertTrue(denylist.isRevoked(jti), jti);
+        }
+        verify(repository).deleteExpired(any());
+    }
+
+    @Test
+    void outgrowingTheFilterRebuildsItWithoutLosingTokens() {
+        denylist = denylist(10);
+        BloomFilter before = filter();
+        List<String> revoked = jtis(500);
+
+        revoked.forEach(jti -> denylist.revoke(jti, inMillis(3_600_000)));
+
+        assertNotSame(before, filter());
+        assertTrue(filter().getCapacity() >= revoked.size());
+        for (String jti : revoked) {
+            assertTrue(denylist.isRevoked(jti), jti);
+        }
+    }
+
+    private TokenDenylist denylist(int expectedTokens) {
+        TokenDenylist denylist = new TokenDenylist();
+        ReflectionTestUtils.setField(denylist, "revokedTokenRepository", repository);
+        ReflectionTestUtils.setField(denylist, "expectedTokens", expectedTokens);
+        ReflectionTestUtils.setField(denylist, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(denylist, "syncIntervalMillis", 3_600_000L);
+        ReflectionTestUtils.setField(denylist, "purgeIntervalMillis", 3_600_000L);
+        denylist.init();
+        return denylist;
+    }
+
+    private BloomFilter filter() {
+        return (BloomFilter) ReflectionTestUtils.getField(denylist, "filter");
+    }
+
+    private static Date inMillis(long millis) {
+        return new Date(System.currentTimeMillis() + millis);
+    }
+
+    private static List<String> jtis(int count) {
+        List<String> jtis = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            jtis.add(UUID.randomUUID().toString());
+        }
+        return jtis;
+    }
+}
@@ -0,0 +1,112 @@
+// TokenVerifierTest.java
+package com.bookstore.security;
+
+import com.bookstore.entity.User;
+import com.bookstore.entity.UserRole;
+import com.bookstore.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The request filter and /api/auth/validate both go through the verifier, so a token
+ * refused here is refused everywhere: revoked at logout, issued before an account
+ * change, for a user that no longer exists, or not signed by this server.
+ */
+class TokenVerifierTest {
+
+    private JwtUtil jwtUtil;
+    private UserService userService;
+    private TokenDenylist tokenDenylist;
+    private TokenVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = jwtUtil("verifier-test-secret-that-is-long-enough-for-hs256-keys");
+        userService = mock(UserService.class);
+        tokenDenylist = mock(TokenDenylist.class);
+        PrincipalCache principalCache = new PrincipalCache();
+        ReflectionTestUtils.setField(principalCache, "cacheSize", 100);
+        ReflectionTestUtils.setField(principalCache, "ttlSeconds", 60L);
+        principalCache.init();
+
+        verifier = new TokenVerifier();
+        ReflectionTestUtils.setField(verifier, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(verifier, "userService", userService);
+        ReflectionTestUtils.setField(verifier, "principalCache", principalCache);
+        ReflectionTestUtils.setField(verifier, "tokenDenylist", tokenDenylist);
+    }
+
+    @Test
+    void acceptsACurrentToken() {
+        User user = user("reader", UserRole.CUSTOMER, 0);
+        String token = jwtUtil.generateToken(user);
+
+        TokenVerifier.VerifiedToken verified = verifier.verify(token);
+
+        assertNotNull(verified);
+        assertEquals("reader", verified.getUsername());
+        assertEquals("CUSTOMER", verified.getRole());
+    }
+
+    @Test
+    void refusesARevokedToken() {
+        String token = jwtUtil.generateToken(user("reader", UserRole.CUSTOMER, 0));
+        when(tokenDenylist.isRevoked(jwtUtil.parseToken(token).getId())).thenReturn(true);
+
+        assertNull(verifier.verify(token));
+    }
+
+    @Test
+    void refusesATokenIssuedBeforeAnAccountChange() {
+        User user = user("reader", UserRole.CUSTOMER, 0);
+        String token = jwtUtil.generateToken(user);
+        // A password or role change bumps the version after the token was issued
+        user.setTokenVersion(1);
+
+        assertNull(verifier.verify(token));
+    }
+
+    @Test
+    void refusesATokenForAMissingUser() {
+        String token = jwtUtil.generateToken(user("reader", UserRole.CUSTOMER, 0));
+        when(userService.findByUsername(anyString())).thenReturn(Optional.empty());
+
+        assertNull(verifier.verify(token));
+    }
+
+    @Test
+    void refusesATokenSignedWithAnotherKey() {
+        String token = jwtUtil("some-other-secret-that-is-also-long-enough-for-hs256").generateToken(
+                user("reader", UserRole.CUSTOMER, 0));
+
+        assertNull(verifier.verify(token));
+        assertNull(verifier.verify("not-a-token"));
+    }
+
+    private static JwtUtil jwtUtil(String secret) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", secret);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", 60_000);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    // The user service returns this user, so changing it changes what the verifier loads
+    private User user(String username, UserRole role, int tokenVersion) {
+        User user = new User(username, username + "@example.com", "password", "1 Test Street", 30);
+        user.setRole(role);
+        user.setTokenVersion(tokenVersion);
+        when(userService.findByUsername(username)).thenReturn(Optional.of(user));
+        return user;
+    }
+}
@@ -0,0 +1,138 @@
+// ConcurrentCheckoutTest.java
+package com.bookstore.service;
+
+import com.bookstore.dto.OrderRequest;
+import com.bookstore.entity.Book;
+import com.bookstore.entity.User;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.bookstore.support.TestData.item;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Parallel checkouts against limited stock: stock must never go negative, nothing may
+ * be sold twice, and the only failures allowed are stock shortfalls (no deadlocks).
+ */
+@SpringBootTest
+class ConcurrentCheckoutTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void singleBookSellsOutExactly() throws Exception {
+        int initialStock = 25;
+        Book book = testData.book("Fiction", "9.99", initialStock);
+        User customer = testData.user("rush");
+        AtomicInteger sold = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+
+        runConcurrently(THREADS, 5, random -> {
+            try {
+                orderService.createOrder(customer, List.of(item(book, 1)), "1 Test Street");
+                sold.incrementAndGet();
+            } catch (InsufficientStockException e) {
+                // expected once the book is sold out
+            } catch (Throwable e) {
+                unexpected.add(e);
+            }
+        });
+
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected failures: " + unexpected);
+        assertEquals(initialStock, sold.get());
+        assertEquals(0, stockOf(book));
+    }
+
+    @Test
+    void overlappingCartsNeverOversell() throws Exception {
+        int firstStock = 40;
+        int secondStock = 30;
+        Book first = testData.book("Fiction", "9.99", firstStock);
+        Book second = testData.book("Science", "14.99", secondStock);
+        User customer = testData.user("overlap");
+        AtomicInteger firstSold = new AtomicInteger();
+        AtomicInteger secondSold = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+
+        runConcurrently(THREADS, 8, random -> {
+            int firstQuantity = 1 + random.nextInt(3);
+            int secondQuantity = 1 + random.nextInt(3);
+            // Lines in either order; reservation must lock rows in a fixed order regardless
+            List<OrderRequest.OrderItemRequest> cart = new ArrayList<>(
+                    List.of(item(first, firstQuantity), item(second, secondQuantity)));
+            Collections.shuffle(cart, random);
+            try {
+                orderService.createOrder(customer, cart, "1 Test Street");
+                firstSold.addAndGet(firstQuantity);
+                secondSold.addAndGet(secondQuantity);
+            } catch (InsufficientStockException e) {
+                // expected once either book runs short
+            } catch (Throwable e) {
+                unexpected.add(e);
+            }
+        });
+
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected failures: " + unexpected);
+        int firstLeft = stockOf(first);
+        int secondLeft = stockOf(second);
+        assertTrue(firstLeft >= 0 && secondLeft >= 0, "Stock went negative");
+        assertEquals(firstStock, firstSold.get() + firstLeft);
+        assertEquals(secondStock, secondSold.get() + secondLeft);
+        assertTrue(firstSold.get() > 0 && secondSold.get() > 0);
+    }
+
+    private int stockOf(Book book) {
+        return bookRepository.findStockById(book.getId()).orElseThrow();
+    }
+
+    private interface Checkout {
+        void run(Random random);
+    }
+
+    // Every thread waits at the gate so the checkouts really overlap
+    private static void runConcurrently(int threads, int checkoutsPerThread, Checkout checkout) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch gate = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Random random = new Random(t);
+            futures.add(pool.submit(() -> {
+                gate.await();
+                for (int i = 0; i < checkoutsPerThread; i++) {
+                    checkout.run(random);
+                }
+                return null;
+            }));
+        }
+        gate.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,77 @@
+// OrderIngestionBatchTest.java
+package com.bookstore.service;
+
+import com.bookstore.entity.Book;
+import com.bookstore.entity.Order;
+import com.bookstore.entity.User;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.bookstore.support.TestData.item;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * A rejected order inside a group-commit batch must fail alone: the other orders of
+ * the same batch commit in that batch's transaction, without the one-by-one fallback.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:derby:memory:ingestion-test;create=true",
+        "orders.ingestion.enabled=true",
+        "orders.ingestion.max-wait-ms=500"
+})
+class OrderIngestionBatchTest {
+
+    @Autowired
+    private OrderIngestionService orderIngestionService;
+
+    @SpyBean
+    private OrderService orderService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void outOfStockOrderFailsAloneAndTheBatchCommits() throws Exception {
+        Book plentiful = testData.book("Fiction", "10.00", 100);
+        Book scarce = testData.book("Science", "20.00", 1);
+        User customer = testData.user("batch");
+
+        List<CompletableFuture<Order>> accepted = new ArrayList<>();
+        accepted.add(orderIngestionService.submit(customer, List.of(item(plentiful, 2)), "1 Test Street", null));
+        accepted.add(orderIngestionService.submit(customer, List.of(item(plentiful, 3)), "1 Test Street", null));
+        CompletableFuture<Order> rejected = orderIngestionService.submit(customer,
+                List.of(item(plentiful, 1), item(scarce, 5)), "1 Test Street", null);
+        accepted.add(orderIngestionService.submit(customer, List.of(item(plentiful, 4), item(scarce, 1)), "1 Test Street", null));
+
+        for (CompletableFuture<Order> future : accepted) {
+            assertNotNull(future.get(30, TimeUnit.SECONDS).getId());
+        }
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> rejected.get(30, TimeUnit.SECONDS));
+        assertInstanceOf(InsufficientStockException.class, failure.getCause());
+
+        // The rejected order's partial reservation of the plentiful book was released
+        assertEquals(100 - 2 - 3 - 4, bookRepository.findStockById(plentiful.getId()).orElseThrow());
+        assertEquals(0, bookRepository.findStockById(scarce.getId()).orElseThrow());
+        // No batch rollback, so no order was retried in its own transaction
+        verify(orderService, never()).createOrder(any(), any(), any(), any());
+    }
+}
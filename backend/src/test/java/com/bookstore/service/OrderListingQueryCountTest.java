@@ -0,0 +1,97 @@
+// OrderListingQueryCountTest.java
+package com.bookstore.service;
+
+import com.bookstore.dto.OrderFilter;
+import com.bookstore.entity.Book;
+import com.bookstore.entity.User;
+import com.bookstore.support.TestData;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.bookstore.support.TestData.item;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Order listings must cost a fixed number of statements however many orders, items,
+ * books and customers they cover; a lazy association walked per order would show up
+ * here as a count that grows with the data.
+ */
+@SpringBootTest
+class OrderListingQueryCountTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void userOrderHistoryIsOneStatement() {
+        User customer = testData.user("history");
+        placeOrders(customer, 3);
+        assertEquals(1, statementsFor(() -> orderService.getUserOrders(customer)));
+
+        placeOrders(customer, 12);
+        long statements = statementsFor(() -> {
+            List<Map<String, Object>> orders = orderService.getUserOrders(customer);
+            assertEquals(15, orders.size());
+            orders.forEach(order -> assertEquals(3, ((List<?>) order.get("orderItems")).size()));
+        });
+        assertEquals(1, statements);
+    }
+
+    @Test
+    void adminPageIsTwoStatementsWithAndWithoutFilters() {
+        User customer = testData.user("admin-listing");
+        placeOrders(customer, 25);
+
+        OrderFilter unfiltered = new OrderFilter();
+        // One statement selects the page's ids, one loads the page
+        assertEquals(2, statementsFor(() -> orderService.getOrdersPage(unfiltered, null, 5)));
+        assertEquals(2, statementsFor(() -> orderService.getOrdersPage(unfiltered, null, 20)));
+
+        OrderFilter byUser = new OrderFilter();
+        byUser.setUsername(customer.getUsername());
+        Map<String, Object> first = orderService.getOrdersPage(byUser, null, 10);
+        String cursor = (String) first.get("nextCursor");
+        long statements = statementsFor(() -> {
+            Map<String, Object> second = orderService.getOrdersPage(byUser, cursor, 10);
+            assertEquals(10, second.get("count"));
+        });
+        assertEquals(2, statements);
+    }
+
+    private void placeOrders(User customer, int count) {
+        Book first = testData.book("Fiction", "10.00", 1000);
+        Book second = testData.book("Science", "12.50", 1000);
+        Book third = testData.book("History", "7.25", 1000);
+        for (int i = 0; i < count; i++) {
+            orderService.createOrder(customer, List.of(item(first, 1), item(second, 2), item(third, 1)), "1 Test Street");
+        }
+    }
+
+    private long statementsFor(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,34 @@
+// DerbyPlans.java
+package com.bookstore.support;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Captures the plan Derby actually ran for a statement. Runtime statistics are kept per
+ * connection, so the statement and both procedure calls share one transaction.
+ */
+@Component
+public class DerbyPlans {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public String planOf(Runnable statement) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.execute("CALL SYSCS_UTIL.SYSCS_SET_RUNTIMESTATISTICS(1)");
+            try {
+                statement.run();
+                return jdbcTemplate.queryForObject("VALUES SYSCS_UTIL.SYSCS_GET_RUNTIMESTATISTICS()", String.class);
+            } finally {
+                jdbcTemplate.execute("CALL SYSCS_UTIL.SYSCS_SET_RUNTIMESTATISTICS(0)");
+            }
+        });
+    }
+}
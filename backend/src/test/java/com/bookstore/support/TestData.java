@@ -0,0 +1,45 @@
+// TestData.java
+package com.bookstore.support;
+
+import com.bookstore.dto.OrderRequest;
+import com.bookstore.entity.Book;
+import com.bookstore.entity.User;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Creates users and books for integration tests. Test classes share one in-memory
+ * database, so every name is made unique and tests never assume empty tables.
+ */
+@Component
+public class TestData {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    public User user(String prefix) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User(prefix + "-" + suffix, prefix + "-" + suffix + "@example.com",
+                "password", "1 Test Street", 30);
+        user.setCustomerId("CUST-" + UUID.randomUUID());
+        return userRepository.save(user);
+    }
+
+    public Book book(String category, String price, int stock) {
+        String title = "Book " + UUID.randomUUID().toString().substring(0, 8);
+        return bookRepository.save(new Book(title, "Test Author", new BigDecimal(price),
+                "Description of " + title, category, stock));
+    }
+
+    public static OrderRequest.OrderItemRequest item(Book book, int quantity) {
+        return new OrderRequest.OrderItemRequest(book.getId(), quantity);
+    }
+}
@@ -1,10 +1,12 @@
 // admin-dashboard.component.ts - UPDATED VERSION
-import { Component, OnInit } from '@angular/core';
+import { Component, OnDestroy, OnInit } from '@angular/core';
+import { Subscription, switchMap, timer } from 'rxjs';
 import { BookService } from '../../services/book.service';
 import { OrderService } from '../../services/order.service';
 import { UserService } from '../../services/user.service';
-import { Book } from '../../models/book.model';
-import { Order } from '../../models/order.model';
+import { AdminService } from '../../services/admin.service';
+import { Book, ImportJob } from '../../models/book.model';
+import { AdminOrderFilter, Order } from '../../models/order.model';
 import { User } from '../../models/user.model';
 import { AuthService } from '../../services/auth.service';
 import { Router } from '@angular/router';
@@ -14,7 +16,7 @@ import { Router } from '@angular/router';
   templateUrl: './admin-dashboard.component.html',
   styleUrls: ['./admin-dashboard.component.css']
 })
-export class AdminDashboardComponent implements OnInit {
+export class AdminDashboardComponent implements OnInit, OnDestroy {
   books: Book[] = [];
   orders: Order[] = [];
   users: User[] = [];
@@ -39,7 +41,9 @@ export class AdminDashboardComponent implements OnInit {
   };
   
   // Filters
-  orderStatusFilter = 'ALL';
+  orderFilter: AdminOrderFilter = { status: 'ALL' };
+  ordersNextCursor: string | null = null;
+  ordersLoadingMore = false;
   bookSearchTerm = '';
   userSearchTerm = '';
   
@@ -47,14 +51,19 @@ export class AdminDashboardComponent implements OnInit {
   csvFile: File | null = null;
   csvUploading = false;
   csvUploadMessage = '';
+  importJob: ImportJob | null = null;
+  private importPoll: Subscription | null = null;
   
-  // Active tab
+  // Active tab; orders and customers are fetched the first time their tab opens
   activeTab = 'books';
+  private ordersRequested = false;
+  private usersRequested = false;
 
   constructor(
     private bookService: BookService,
     private orderService: OrderService,
     private userService: UserService,
+    private adminService: AdminService,
     private authService: AuthService,
     private router: Router
   ) {}
@@ -65,9 +74,9 @@ export class AdminDashboardComponent implements OnInit {
       return;
     }
     
+    // Totals come from the stats endpoint; orders and customers load when their tab is opened
+    this.loadStats();
     this.loadBooks();
-    this.loadOrders();
-    this.loadUsers();
   }
 
   loadBooks(): void {
@@ -78,7 +87,6 @@ export class AdminDashboardComponent implements OnInit {
       next: (books: Book[]) => {
         this.books = books;
         this.booksLoading = false;
-        this.updateStats();
       },
       error: (error: any) => {
         console.error('Error loading books:', error);
@@ -88,12 +96,14 @@ export class AdminDashboardComponent implements OnInit {
     });
   }
 
+  // Filters are applied on the server, which returns one page at a time
   loadOrders(): void {
     this.ordersLoading = true;
     this.ordersError = '';
+    this.ordersNextCursor = null;
     
     // FIXED: Use proper error handling like order-history
-    this.orderService.getAllOrders().subscribe({
+    this.orderService.getAllOrders(this.orderFilter).subscribe({
       next: (response: any) => {
         this.ordersLoading = false;
         
@@ -102,11 +112,11 @@ export class AdminDashboardComponent implements OnInit {
           this.orders = response;
         } else if (response.success) {
           this.orders = response.orders || [];
+          this.ordersNextCursor = response.nextCursor || null;
         } else {
           this.ordersError = response.message || 'Failed to load orders';
           this.orders = [];
         }
-        this.updateStats();
       },
       error: (error) => {
         this.ordersLoading = false;
@@ -126,11 +136,47 @@ export class AdminDashboardComponent implements OnInit {
     });
   }
 
-  updateStats(): void {
-    this.stats.totalBooks = this.books.length;
-    this.stats.totalOrders = this.orders.length;
-    this.stats.totalRevenue = this.orders.reduce((sum, order) => sum + order.totalAmount, 0);
-    this.stats.lowStockBooks = this.books.filter(book => (book.stock || 0) < 10).length;
+  loadMoreOrders(): void {
+    if (!this.ordersNextCursor || this.ordersLoadingMore) {
+      return;
+    }
+    this.ordersLoadingMore = true;
+    this.orderService.getAllOrders(this.orderFilter, this.ordersNextCursor).subscribe({
+      next: (response: any) => {
+        this.ordersLoadingMore = false;
+        if (response.success) {
+          this.orders = [...this.orders, ...(response.orders || [])];
+          this.ordersNextCursor = response.nextCursor || null;
+        } else {
+          this.showErrorMessage(response.message || 'Failed to load more orders');
+        }
+      },
+      error: (error) => {
+        this.ordersLoadingMore = false;
+        console.error('Error loading more orders:', error);
+        this.showErrorMessage('Failed to load more orders. Please try again.');
+      }
+    });
+  }
+
+  clearOrderFilters(): void {
+    this.orderFilter = { status: 'ALL' };
+    this.loadOrders();
+  }
+
+  loadStats(): void {
+    this.adminService.getStats().subscribe({
+      next: (stats) => {
+        this.stats = {
+          totalBooks: stats.totalBooks,
+          totalOrders: stats.totalOrders,
+          totalRevenue: stats.totalRevenue,
+          lowStockBooks: stats.lowStockBooks,
+          totalCustomers: stats.totalCustomers
+        };
+      },
+      error: (error: any) => console.error('Error loading dashboard stats:', error)
+    });
   }
 
   addBook(): void {
@@ -138,6 +184,7 @@ export class AdminDashboardComponent implements OnInit {
       this.bookService.addBook(this.newBook as Book).subscribe({
         next: () => {
           this.loadBooks();
+          this.loadStats();
           this.newBook = {};
           // Show success message
           this.showSuccessMessage('Book added successfully!');
@@ -154,6 +201,17 @@ export class AdminDashboardComponent implements OnInit {
 
   editBook(book: Book): void {
     this.editingBook = { ...book };
+    // The list only has summaries; load the description for the edit form
+    if (book.id) {
+      this.bookService.getBookById(book.id).subscribe({
+        next: (detail) => {
+          if (this.editingBook?.id === detail.id) {
+            this.editingBook = { ...detail };
+          }
+        },
+        error: (error: any) => console.error('Error loading book details:', error)
+      });
+    }
   }
 
   updateBook(): void {
@@ -161,6 +219,7 @@ export class AdminDashboardComponent implements OnInit {
       this.bookService.updateBook(this.editingBook.id, this.editingBook).subscribe({
         next: () => {
           this.loadBooks();
+          this.loadStats();
           this.editingBook = null;
           this.showSuccessMessage('Book updated successfully!');
         },
@@ -177,6 +236,7 @@ export class AdminDashboardComponent implements OnInit {
       this.bookService.deleteBook(bookId).subscribe({
         next: () => {
           this.loadBooks();
+          this.loadStats();
           this.showSuccessMessage('Book deleted successfully!');
         },
         error: (error: any) => {
@@ -191,6 +251,10 @@ export class AdminDashboardComponent implements OnInit {
     this.orderService.updateOrderStatus(orderId, status).subscribe({
       next: () => {
         this.loadOrders();
+        this.loadStats();
+        if (status === 'CANCELLED') {
+          this.loadBooks();
+        }
         this.showSuccessMessage('Order status updated successfully!');
       },
       error: (error: any) => {
@@ -216,13 +280,6 @@ export class AdminDashboardComponent implements OnInit {
     return 'text-success';
   }
 
-  filteredOrders(): Order[] {
-    if (this.orderStatusFilter === 'ALL') {
-      return this.orders;
-    }
-    return this.orders.filter(order => order.status === this.orderStatusFilter);
-  }
-
   filteredBooks(): Book[] {
     if (!this.bookSearchTerm) {
       return this.books;
@@ -256,7 +313,9 @@ export class AdminDashboardComponent implements OnInit {
   }
 
   retryOrders(): void {
+    this.ordersRequested = true;
     this.loadOrders();
+    this.loadStats();
   }
 
   loadUsers(): void {
@@ -266,7 +325,6 @@ export class AdminDashboardComponent implements OnInit {
     this.userService.getAllUsers().subscribe({
       next: (users) => {
         this.users = users;
-        this.stats.totalCustomers = users.length;
         this.usersLoading = false;
       },
       error: (error) => {
@@ -278,11 +336,19 @@ export class AdminDashboardComponent implements OnInit {
   }
 
   retryUsers(): void {
+    this.usersRequested = true;
     this.loadUsers();
   }
 
   setActiveTab(tab: string): void {
     this.activeTab = tab;
+    if (tab === 'orders' && !this.ordersRequested) {
+      this.ordersRequested = true;
+      this.loadOrders();
+    } else if (tab === 'customers' && !this.usersRequested) {
+      this.usersRequested = true;
+      this.loadUsers();
+    }
   }
 
   private showSuccessMessage(message: string): void {
@@ -326,21 +392,76 @@ export class AdminDashboardComponent implements OnInit {
     formData.append('file', this.csvFile);
 
     this.bookService.uploadBooksCSV(formData).subscribe({
-      next: (response) => {
-        this.csvUploading = false;
-        this.csvUploadMessage = `Successfully uploaded ${response.booksAdded} books from CSV`;
+      next: (job) => {
         this.csvFile = null;
         // Reset file input
         const fileInput = document.getElementById('csvFile') as HTMLInputElement;
         if (fileInput) fileInput.value = '';
-        // Reload books
-        this.loadBooks();
+        this.trackImportJob(job);
       },
       error: (error) => {
         this.csvUploading = false;
-        this.csvUploadMessage = 'Failed to upload CSV: ' + (error.error?.message || error.message);
+        this.csvUploadMessage = 'Failed to upload CSV: ' + (error.error?.message || error.error || error.message);
         console.error('CSV upload error:', error);
       }
     });
   }
+
+  cancelImport(): void {
+    if (!this.importJob) return;
+    this.bookService.cancelImportJob(this.importJob.id).subscribe({
+      next: (job) => this.importJob = job,
+      error: (error) => console.error('Error cancelling import:', error)
+    });
+  }
+
+  resumeImport(): void {
+    if (!this.importJob) return;
+    this.csvUploadMessage = '';
+    this.bookService.resumeImportJob(this.importJob.id).subscribe({
+      next: (job) => this.trackImportJob(job),
+      error: (error) => {
+        this.csvUploadMessage = 'Failed to resume import: ' + (error.error?.message || error.error || error.message);
+      }
+    });
+  }
+
+  // Imports run in the background; poll the job until it finishes
+  private trackImportJob(job: ImportJob): void {
+    this.importJob = job;
+    this.csvUploading = true;
+    this.importPoll?.unsubscribe();
+    this.importPoll = timer(1000, 1000).pipe(
+      switchMap(() => this.bookService.getImportJob(job.id))
+    ).subscribe({
+      next: (current) => {
+        this.importJob = current;
+        if (current.status === 'QUEUED' || current.status === 'RUNNING') return;
+
+        this.importPoll?.unsubscribe();
+        this.csvUploading = false;
+        const report = current.report;
+        if (current.status === 'COMPLETED') {
+          this.csvUploadMessage = `Successfully uploaded ${report.booksAdded} books from CSV`;
+          if (report.rowsRejected > 0) {
+            const first = report.rejections[0];
+            this.csvUploadMessage += ` (${report.rowsRejected} rows rejected, first on line ${first.line}: ${first.reason})`;
+          }
+        } else if (current.status === 'CANCELLED') {
+          this.csvUploadMessage = `Import cancelled after ${report.booksAdded} books`;
+        } else {
+          this.csvUploadMessage = `Import failed after ${report.booksAdded} books: ${current.error}`;
+        }
+        this.loadBooks();
+      },
+      error: (error) => {
+        this.csvUploading = false;
+        this.csvUploadMessage = 'Lost track of the import: ' + error.message;
+      }
+    });
+  }
+
+  ngOnDestroy(): void {
+    this.importPoll?.unsubscribe();
+  }
 }
\ No newline at end of file
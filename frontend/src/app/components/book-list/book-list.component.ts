@@ -6,7 +6,7 @@ import { AuthService } from '../../services/auth.service';
 import { ToastService } from '../../services/toast.service';
 import { ModalService } from '../../services/modal.service';
 import { Router } from '@angular/router';
-import { Book } from '../../models/book.model';
+import { Book, BookSuggestion } from '../../models/book.model';
 
 @Component({
   selector: 'app-book-list',
@@ -19,6 +19,7 @@ export class BookListComponent implements OnInit {
   searchTerm = '';
   selectedCategory = '';
   allBooks: Book[] = [];
+  suggestions: BookSuggestion[] = [];
   
   // Pagination
   currentPage = 0;
@@ -29,6 +30,9 @@ export class BookListComponent implements OnInit {
   hasPrevious = false;
   loading = false;
   
+  // Descriptions are not part of list results; fetched per book on request
+  descriptions: { [bookId: number]: string } = {};
+  
   // Math reference for template
   Math = Math;
 
@@ -83,9 +87,21 @@ export class BookListComponent implements OnInit {
   }
 
   onSearch(): void {
+    this.loadSuggestions();
     if (this.searchTerm.trim()) {
-      this.bookService.searchBooks(this.searchTerm).subscribe({
-        next: (books) => this.books = books,
+      const term = this.searchTerm;
+      this.bookService.searchBooks(term).subscribe({
+        next: (books) => {
+          if (books.length === 0) {
+            // Nothing matched exactly - retry tolerating typos
+            this.bookService.searchBooks(term, true).subscribe({
+              next: (fuzzyBooks) => this.books = fuzzyBooks,
+              error: (error) => console.error('Error searching books:', error)
+            });
+          } else {
+            this.books = books;
+          }
+        },
         error: (error) => console.error('Error searching books:', error)
       });
     } else {
@@ -94,6 +110,18 @@ export class BookListComponent implements OnInit {
     }
   }
 
+  loadSuggestions(): void {
+    const prefix = this.searchTerm.trim();
+    if (!prefix) {
+      this.suggestions = [];
+      return;
+    }
+    this.bookService.suggest(prefix).subscribe({
+      next: (suggestions) => this.suggestions = suggestions,
+      error: () => this.suggestions = []
+    });
+  }
+
   onCategoryFilter(): void {
     if (this.selectedCategory) {
       this.bookService.getBooksByCategory(this.selectedCategory).subscribe({
@@ -108,6 +136,7 @@ export class BookListComponent implements OnInit {
 
   resetFilters(): void {
     this.searchTerm = '';
+    this.suggestions = [];
     this.selectedCategory = '';
     this.currentPage = 0;
     this.loadBooksPaginated();
@@ -149,6 +178,18 @@ export class BookListComponent implements OnInit {
 
   // ... existing code ...
 
+  toggleDescription(book: Book): void {
+    if (book.id === undefined) return;
+    if (book.id in this.descriptions) {
+      delete this.descriptions[book.id];
+      return;
+    }
+    this.bookService.getBookById(book.id).subscribe({
+      next: (detail) => this.descriptions[book.id!] = detail.description || 'No description available.',
+      error: (error) => console.error('Error loading book details:', error)
+    });
+  }
+
   addToCart(book: Book): void {
     // Check if user is logged in first
     if (!this.authService.isLoggedIn()) {
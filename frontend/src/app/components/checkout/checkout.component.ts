@@ -21,6 +21,8 @@ export class CheckoutComponent implements OnInit {
   loading = false;
   showPayment = false;
   paymentData: PaymentData | null = null;
+  // Kept until the order succeeds, so resubmitting after a timeout cannot order twice
+  private idempotencyKey: string | null = null;
 
   constructor(
     private fb: FormBuilder,
@@ -53,6 +55,8 @@ export class CheckoutComponent implements OnInit {
 
     this.cartService.cartItems$.subscribe(items => {
       this.cartItems = items;
+      // A different cart is a different order
+      this.idempotencyKey = null;
       if (items.length === 0) {
         this.router.navigate(['/cart']);
       }
@@ -105,9 +109,14 @@ export class CheckoutComponent implements OnInit {
 
       console.log('Sending order request:', orderRequest);
 
-      this.orderService.createOrder(orderRequest).subscribe({
+      if (!this.idempotencyKey) {
+        this.idempotencyKey = crypto.randomUUID();
+      }
+
+      this.orderService.createOrder(orderRequest, this.idempotencyKey).subscribe({
         next: (response: any) => {
           this.loading = false;
+          this.idempotencyKey = null;
           this.cartService.clearCart();
           
           if (response.success) {
@@ -129,6 +138,9 @@ export class CheckoutComponent implements OnInit {
           } else if (error.status === 400) {
             const errorMessage = error.error || 'Invalid order data. Please check your cart and try again.';
             this.toastService.showError('Error: ' + errorMessage);
+          } else if (error.status === 409) {
+            // Stock ran out for one or more lines; the cart is kept so quantities can be adjusted
+            this.toastService.showError(error.error?.message || 'Some items are no longer in stock.');
           } else if (error.status === 403) {
             this.toastService.showError('Access denied. Please log in again.');
             this.authService.logout();
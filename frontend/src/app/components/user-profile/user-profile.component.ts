@@ -116,6 +116,9 @@ export class UserProfileComponent implements OnInit {
       this.userService.changePassword(passwordData).subscribe({
         next: (response: any) => {
           if (response.success) {
+            if (response.token) {
+              this.authService.updateToken(response.token);
+            }
             this.successMessage = 'Password changed successfully!';
             this.errorMessage = '';
             this.passwordForm.reset();
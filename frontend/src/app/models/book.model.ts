@@ -4,7 +4,45 @@ export interface Book {
   title: string;
   author: string;
   price: number;
-  description: string;
+  // Only present on the detail endpoint; list and search results omit it
+  description?: string;
   category: string;
   stock: number;
-}
\ No newline at end of file
+}
+
+export interface BookSuggestion {
+  text: string;
+  type: 'title' | 'author';
+  bookId?: number;
+  popularity: number;
+}
+export interface CsvRowRejection {
+  line: number;
+  reason: string;
+}
+
+export interface CsvImportReport {
+  rowsParsed: number;
+  booksAdded: number;
+  rowsRejected: number;
+  chunksCommitted: number;
+  rejections: CsvRowRejection[];
+  rejectionsTruncated: boolean;
+}
+
+export type ImportJobStatus = 'QUEUED' | 'RUNNING' | 'COMPLETED' | 'FAILED' | 'CANCELLED';
+
+export interface ImportJob {
+  id: string;
+  fileName: string;
+  status: ImportJobStatus;
+  submittedAt: string;
+  startedAt?: string;
+  finishedAt?: string;
+  error?: string;
+  report: CsvImportReport;
+  rowsCommitted: number;
+  elapsedMillis: number;
+  rowsPerSecond: number;
+  resumable: boolean;
+}
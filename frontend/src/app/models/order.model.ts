@@ -18,6 +18,16 @@ export interface OrderItem {
   price: number;
 }
 
+// Admin listing criteria; empty fields do not filter. Dates are yyyy-MM-dd, inclusive.
+export interface AdminOrderFilter {
+  status: string;
+  from?: string;
+  to?: string;
+  username?: string;
+  minTotal?: number | null;
+  maxTotal?: number | null;
+}
+
 export interface CartItem {
   book: Book;
   quantity: number;
@@ -0,0 +1,38 @@
+// services/admin.service.ts
+import { Injectable } from '@angular/core';
+import { HttpClient, HttpHeaders } from '@angular/common/http';
+import { Observable } from 'rxjs';
+
+export interface AdminStats {
+  totalBooks: number;
+  lowStockBooks: number;
+  lowStockThreshold: number;
+  totalOrders: number;
+  ordersByStatus: { [status: string]: number };
+  totalRevenue: number;
+  totalCustomers: number;
+}
+
+@Injectable({
+  providedIn: 'root'
+})
+export class AdminService {
+  private apiUrl = 'http://localhost:8080/api/admin';
+
+  constructor(private http: HttpClient) {}
+
+  private getHeaders(): HttpHeaders {
+    const token = localStorage.getItem('token');
+    return new HttpHeaders({
+      'Authorization': `Bearer ${token}`,
+      'Content-Type': 'application/json'
+    });
+  }
+
+  // Dashboard totals maintained by the server; no need to download every row
+  getStats(): Observable<AdminStats> {
+    return this.http.get<AdminStats>(`${this.apiUrl}/stats`, {
+      headers: this.getHeaders()
+    });
+  }
+}
@@ -79,6 +79,15 @@ export class AuthService {
   }
 
   logout(): void {
+    // Revoke the token on the server too, so a copy of it cannot be used after logout
+    const token = this.getToken();
+    if (token) {
+      this.http.post(`${this.apiUrl}/logout`, {}, {
+        headers: { Authorization: `Bearer ${token}` }
+      }).subscribe({
+        error: (error) => console.warn('Logout request failed:', error)
+      });
+    }
     this.clearAuthData();
     this.currentUserSubject.next(null);
     // Clear cart when user logs out to prevent cart sharing between users
@@ -91,6 +100,11 @@ export class AuthService {
     localStorage.removeItem('role');
   }
 
+  // Replaces the stored token, e.g. after a password change retired the old one
+  updateToken(token: string): void {
+    localStorage.setItem('token', token);
+  }
+
   getToken(): string | null {
     return localStorage.getItem('token');
   }
@@ -2,7 +2,7 @@
 import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { Observable } from 'rxjs';
-import { Book } from '../models/book.model';
+import { Book, BookSuggestion, ImportJob } from '../models/book.model';
 
 @Injectable({
   providedIn: 'root'
@@ -32,8 +32,16 @@ export class BookService {
     return this.http.delete<void>(`${this.API_URL}/${id}`);
   }
 
-  searchBooks(searchTerm: string): Observable<Book[]> {
-    return this.http.get<Book[]>(`${this.API_URL}/search?q=${searchTerm}`);
+  searchBooks(searchTerm: string, fuzzy: boolean = false): Observable<Book[]> {
+    return this.http.get<Book[]>(`${this.API_URL}/search`, {
+      params: { q: searchTerm, fuzzy }
+    });
+  }
+
+  suggest(prefix: string, limit: number = 8): Observable<BookSuggestion[]> {
+    return this.http.get<BookSuggestion[]>(`${this.API_URL}/suggest`, {
+      params: { prefix, limit }
+    });
   }
 
   getBooksByCategory(category: string): Observable<Book[]> {
@@ -44,8 +52,20 @@ export class BookService {
     return this.http.get<string[]>(`${this.API_URL}/categories`);
   }
 
-  uploadBooksCSV(file: FormData): Observable<{booksAdded: number}> {
-    return this.http.post<{booksAdded: number}>(`${this.API_URL}/upload-csv`, file);
+  uploadBooksCSV(file: FormData): Observable<ImportJob> {
+    return this.http.post<ImportJob>(`${this.API_URL}/upload-csv`, file);
+  }
+
+  getImportJob(id: string): Observable<ImportJob> {
+    return this.http.get<ImportJob>(`${this.API_URL}/import-jobs/${id}`);
+  }
+
+  cancelImportJob(id: string): Observable<ImportJob> {
+    return this.http.post<ImportJob>(`${this.API_URL}/import-jobs/${id}/cancel`, {});
+  }
+
+  resumeImportJob(id: string): Observable<ImportJob> {
+    return this.http.post<ImportJob>(`${this.API_URL}/import-jobs/${id}/resume`, {});
   }
 
   getBooksPaginated(page: number = 0, size: number = 10): Observable<any> {
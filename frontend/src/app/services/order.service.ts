@@ -1,8 +1,8 @@
 // services/order.service.ts - FIXED VERSION
 import { Injectable } from '@angular/core';
-import { HttpClient, HttpHeaders } from '@angular/common/http';
+import { HttpClient, HttpHeaders, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
-import { Order } from '../models/order.model';
+import { AdminOrderFilter, Order } from '../models/order.model';
 import { AuthService } from './auth.service';
 
 export interface OrderRequest {
@@ -34,13 +34,16 @@ export class OrderService {
     });
   }
 
-  createOrder(orderRequest: OrderRequest): Observable<Order> {
+  // Retrying with the same idempotency key returns the original order instead of placing another
+  createOrder(orderRequest: OrderRequest, idempotencyKey?: string): Observable<Order> {
     console.log('OrderService: Sending request:', orderRequest);
     console.log('OrderService: Token:', this.authService.getToken());
     
-    return this.http.post<Order>(this.apiUrl, orderRequest, {
-      headers: this.getAuthHeaders()
-    });
+    let headers = this.getAuthHeaders();
+    if (idempotencyKey) {
+      headers = headers.set('Idempotency-Key', idempotencyKey);
+    }
+    return this.http.post<Order>(this.apiUrl, orderRequest, { headers });
   }
 
   getUserOrders(): Observable<any> {
@@ -49,9 +52,23 @@ export class OrderService {
     });
   }
 
-  getAllOrders(): Observable<any> {
+  // One page of the admin listing; pass the previous response's nextCursor for the next page
+  getAllOrders(filter?: AdminOrderFilter, cursor?: string | null, size = 50): Observable<any> {
+    let params = new HttpParams().set('size', size);
+    if (filter) {
+      if (filter.status && filter.status !== 'ALL') params = params.set('status', filter.status);
+      if (filter.from) params = params.set('from', filter.from);
+      if (filter.to) params = params.set('to', filter.to);
+      if (filter.username?.trim()) params = params.set('username', filter.username.trim());
+      if (filter.minTotal != null) params = params.set('minTotal', filter.minTotal);
+      if (filter.maxTotal != null) params = params.set('maxTotal', filter.maxTotal);
+    }
+    if (cursor) {
+      params = params.set('cursor', cursor);
+    }
     return this.http.get<any>(`${this.apiUrl}/admin`, {
-      headers: this.getAuthHeaders()
+      headers: this.getAuthHeaders(),
+      params
     });
   }
 